@@ -0,0 +1,12 @@
+-- ===================================================================
+-- 脚本：文件夹合并的后台权限同步
+-- 合并获批后文件夹进入 SYNCING 状态，图片节点权限分批写入图谱，
+-- mergeSyncCursor 记录最后一张已同步图片的位置，任务中断后从此处继续。
+-- ===================================================================
+
+USE `my_db`;
+
+-- 只需执行一次
+ALTER TABLE `Folders`
+    MODIFY COLUMN `mergeState` VARCHAR(20) NOT NULL DEFAULT 'NONE' COMMENT '合并状态: NONE, PENDING, SYNCING, APPROVED, REJECTED',
+    ADD COLUMN `mergeSyncCursor` VARCHAR(64) DEFAULT NULL COMMENT '合并权限同步断点 (createTime毫秒:id)' AFTER `targetOrganizationId`;
@@ -0,0 +1,23 @@
+-- ===================================================================
+-- 脚本：知识图谱写操作发件箱（GraphOutbox）
+-- 图片上传、删除、文件夹复制对 Neo4j 的写操作不再在请求中直接执行，
+-- 而是与 Images/Folders 的变更在同一个 MySQL 事务中写入本表，
+-- 由投递线程按 id 顺序分批写入 Neo4j，投递成功后删除记录。
+-- ===================================================================
+
+USE `my_db`;
+
+-- `GraphOutbox` 表
+CREATE TABLE IF NOT EXISTS `GraphOutbox` (
+                                             `id` BIGINT NOT NULL AUTO_INCREMENT COMMENT '自增ID，即投递顺序',
+                                             `operation` VARCHAR(32) NOT NULL COMMENT '图谱操作: CREATE_NODES, DELETE_NODES, UPDATE_NODES',
+                                             `payload` MEDIUMTEXT NOT NULL COMMENT '操作参数 (JSON)',
+                                             `itemCount` INT NOT NULL DEFAULT '0' COMMENT '涉及的节点数量',
+                                             `status` TINYINT NOT NULL DEFAULT '0' COMMENT '状态: 0-待投递, 1-无法投递已搁置',
+                                             `attempts` INT NOT NULL DEFAULT '0' COMMENT '已尝试投递的次数',
+                                             `lastError` VARCHAR(512) DEFAULT NULL COMMENT '最近一次投递失败的原因',
+                                             `createTime` DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
+                                             `updateTime` DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间',
+                                             PRIMARY KEY (`id`),
+                                             KEY `idx_status_id` (`status`, `id`) COMMENT '投递线程按此顺序读取待投递记录'
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='知识图谱写操作发件箱';
@@ -0,0 +1,24 @@
+-- ===================================================================
+-- 脚本：图片内容寻址存储（ImageBlobs）
+-- 相同内容的图片文件只在 {file.upload-dir}/blobs 下保存一份，按 SHA-256 命名，
+-- Images.storagePath 保持为图片的唯一逻辑 Key（同时是知识图谱节点名称），
+-- Images.blobHash 指向实际的物理文件。blobHash 为空的历史图片仍按 storagePath 直接读取。
+-- ===================================================================
+
+USE `my_db`;
+
+-- `ImageBlobs` 表
+CREATE TABLE IF NOT EXISTS `ImageBlobs` (
+                                            `hash` CHAR(64) NOT NULL COMMENT '文件内容的 SHA-256',
+                                            `fileSize` BIGINT NOT NULL COMMENT '文件大小（字节）',
+                                            `refCount` INT NOT NULL DEFAULT '0' COMMENT '引用该文件的未删除图片数量',
+                                            `createTime` DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
+                                            `updateTime` DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '最近一次引用计数变化的时间',
+                                            PRIMARY KEY (`hash`),
+                                            KEY `idx_refCount_updateTime` (`refCount`, `updateTime`) COMMENT '回收任务按此查找孤儿文件'
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='图片物理文件表（内容寻址）';
+
+-- `Images` 表增加内容哈希列（只需执行一次）
+ALTER TABLE `Images`
+    ADD COLUMN `blobHash` CHAR(64) DEFAULT NULL COMMENT '文件内容的 SHA-256，为空表示历史文件' AFTER `storagePath`,
+    ADD KEY `idx_blobHash` (`blobHash`);
@@ -0,0 +1,13 @@
+-- ===================================================================
+-- 脚本：图片列表的游标分页与文件名前缀搜索索引
+-- 文件夹内图片按 (createTime, id) 倒序游标分页，文件名搜索改为前缀匹配，
+-- 两个复合索引分别覆盖这两类查询；原 idx_folderId 是它们的前缀，可以删除。
+-- ===================================================================
+
+USE `my_db`;
+
+-- 只需执行一次
+ALTER TABLE `Images`
+    ADD KEY `idx_folder_createTime` (`folderId`, `isDelete`, `createTime`, `id`) COMMENT '文件夹内按上传时间游标分页',
+    ADD KEY `idx_folder_filename` (`folderId`, `isDelete`, `originalFilename`) COMMENT '文件夹内按文件名前缀搜索',
+    DROP KEY `idx_folderId`;
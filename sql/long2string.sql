@@ -70,7 +70,8 @@ CREATE TABLE IF NOT EXISTS `Images` (
                                         `id` VARCHAR(36) NOT NULL COMMENT '主键ID',
                                         `folderId` VARCHAR(36) NOT NULL COMMENT '所属文件夹ID',
                                         `originalFilename` VARCHAR(255) NOT NULL COMMENT '原始文件名',
-                                        `storagePath` VARCHAR(512) NOT NULL COMMENT '文件在存储中的唯一路径/Key',
+                                        `storagePath` VARCHAR(512) NOT NULL COMMENT '图片的唯一逻辑Key，同时作为知识图谱节点名称',
+                                        `blobHash` CHAR(64) DEFAULT NULL COMMENT '文件内容的 SHA-256，为空表示历史文件',
                                         `width` INT DEFAULT NULL COMMENT '图片宽度（像素）',
                                         `height` INT DEFAULT NULL COMMENT '图片高度（像素）',
                                         `fileSize` BIGINT DEFAULT NULL COMMENT '文件大小（字节）',
@@ -79,9 +80,22 @@ CREATE TABLE IF NOT EXISTS `Images` (
                                         `isDelete` TINYINT NOT NULL DEFAULT '0' COMMENT '逻辑删除标志',
                                         PRIMARY KEY (`id`),
                                         UNIQUE KEY `uk_storagePath` (`storagePath`),
-                                        KEY `idx_folderId` (`folderId`)
+                                        KEY `idx_folder_createTime` (`folderId`, `isDelete`, `createTime`, `id`) COMMENT '文件夹内按上传时间游标分页',
+                                        KEY `idx_folder_filename` (`folderId`, `isDelete`, `originalFilename`) COMMENT '文件夹内按文件名前缀搜索',
+                                        KEY `idx_blobHash` (`blobHash`)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='图片元数据表';
 
+-- `ImageBlobs` 表
+CREATE TABLE IF NOT EXISTS `ImageBlobs` (
+                                            `hash` CHAR(64) NOT NULL COMMENT '文件内容的 SHA-256',
+                                            `fileSize` BIGINT NOT NULL COMMENT '文件大小（字节）',
+                                            `refCount` INT NOT NULL DEFAULT '0' COMMENT '引用该文件的未删除图片数量',
+                                            `createTime` DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
+                                            `updateTime` DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '最近一次引用计数变化的时间',
+                                            PRIMARY KEY (`hash`),
+                                            KEY `idx_refCount_updateTime` (`refCount`, `updateTime`) COMMENT '回收任务按此查找孤儿文件'
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='图片物理文件表（内容寻址）';
+
 -- `Annotations` 表
 CREATE TABLE IF NOT EXISTS `Annotations` (
                                              `id` VARCHAR(36) NOT NULL COMMENT '主键ID',
@@ -0,0 +1,76 @@
+// FILE: src/main/java/com/scy/mytemplate/config/Neo4jClientConfig.java
+package com.scy.mytemplate.config;
+
+import lombok.Data;
+import org.springframework.boot.autoconfigure.neo4j.ConfigBuilderCustomizer;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Neo4j 驱动连接池与会话参数。
+ * 连接地址和认证仍由 spring.neo4j.* 配置，这里的参数在 Spring Boot 自动配置之后覆盖到同一个 Driver 上。
+ * 会话本身是轻量对象，每次操作新建即可，真正被复用的是连接池中的 Bolt 连接。
+ *
+ * @author Bedrock
+ */
+@Configuration
+@ConfigurationProperties(prefix = "graph.client")
+@Data
+public class Neo4jClientConfig {
+
+    /**
+     * 连接池最大连接数
+     */
+    private int maxConnectionPoolSize = 100;
+
+    /**
+     * 从连接池获取连接的最长等待时间（秒）
+     */
+    private long connectionAcquisitionTimeoutSeconds = 60;
+
+    /**
+     * 单个连接的最长存活时间（分钟），应小于网络设备的空闲断开时间
+     */
+    private long maxConnectionLifetimeMinutes = 60;
+
+    /**
+     * 空闲连接再次使用前做连通性检测的阈值（秒），负数表示不检测
+     */
+    private long idleTimeBeforeConnectionTestSeconds = -1;
+
+    /**
+     * 每次从服务端拉取的记录条数
+     */
+    private long fetchSize = 1000;
+
+    /**
+     * 事务函数在瞬时错误下的最长重试时间（秒）
+     */
+    private long maxTransactionRetrySeconds = 30;
+
+    /**
+     * 是否开启驱动内置的连接池指标
+     */
+    private boolean metricsEnabled = true;
+
+    @Bean
+    public ConfigBuilderCustomizer neo4jClientConfigCustomizer() {
+        return builder -> {
+            builder.withMaxConnectionPoolSize(maxConnectionPoolSize)
+                    .withConnectionAcquisitionTimeout(connectionAcquisitionTimeoutSeconds, TimeUnit.SECONDS)
+                    .withMaxConnectionLifetime(maxConnectionLifetimeMinutes, TimeUnit.MINUTES)
+                    .withConnectionLivenessCheckTimeout(idleTimeBeforeConnectionTestSeconds, TimeUnit.SECONDS)
+                    .withFetchSize(fetchSize)
+                    .withMaxTransactionRetryTime(maxTransactionRetrySeconds, TimeUnit.SECONDS);
+            if (metricsEnabled) {
+                builder.withDriverMetrics();
+            } else {
+                builder.withoutDriverMetrics();
+            }
+        };
+    }
+}
+// END OF FILE: src/main/java/com/scy/mytemplate/config/Neo4jClientConfig.java
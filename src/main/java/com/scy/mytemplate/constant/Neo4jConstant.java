@@ -1,5 +1,17 @@
 package com.scy.mytemplate.constant;
 
+import java.util.List;
+
 public interface Neo4jConstant {
     public static final String NEO4J_OPERATION_STATE = "neo4jOperationState";
-}
\ No newline at end of file
+
+    /**
+     * 权限/身份相关的保留属性，不参与自动关联
+     */
+    List<String> RESERVED_NODE_KEYS = List.of("name", "space", "ownerUserId", "ownerOrganizationId");
+
+    /**
+     * 违反唯一约束时 Neo4j 返回的错误码
+     */
+    String CONSTRAINT_VIOLATION_CODE = "Neo.ClientError.Schema.ConstraintValidationFailed";
+}
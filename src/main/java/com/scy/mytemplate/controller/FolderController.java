@@ -17,6 +17,8 @@ import org.springframework.web.bind.annotation.*;
 
 import javax.annotation.Resource;
 import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
 import java.util.List;
 
 /**
@@ -97,6 +99,26 @@ public class FolderController {
         return ResultUtils.success(newFolderVO);
     }
 
+    /**
+     * 以后台任务方式复制文件夹，适用于图片较多的文件夹
+     */
+    @PostMapping("/copy/async")
+    @ApiOperation(value = "异步复制文件夹到个人空间", notes = "立即返回任务ID，可通过 /task/get/{taskId} 查询进度。")
+    public BaseResponse<String> submitCopyFolderTask(@RequestBody FolderCopyRequest copyRequest, HttpServletRequest request) {
+        User currentUser = userService.getLoginUser(request);
+        return ResultUtils.success(folderService.submitCopyFolderTask(copyRequest, currentUser));
+    }
+
+    /**
+     * 导出文件夹内的图片及标注
+     */
+    @GetMapping("/export/{folderId}")
+    @ApiOperation(value = "导出文件夹为ZIP", notes = "以流式 ZIP 返回文件夹内全部图片及同名 .json 标注，格式与批量上传接口一致。")
+    public void exportFolder(@PathVariable String folderId, HttpServletRequest request, HttpServletResponse response) throws IOException {
+        User currentUser = userService.getLoginUser(request);
+        folderService.exportFolder(folderId, currentUser, response);
+    }
+
     /**
      * 请求合并文件夹
      */
@@ -1,13 +1,18 @@
 // FILE: src/main/java/com/scy/mytemplate/controller/GraphController.java
 package com.scy.mytemplate.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.scy.mytemplate.common.BaseResponse;
 import com.scy.mytemplate.common.ErrorCode;
 import com.scy.mytemplate.common.ResultUtils;
 import com.scy.mytemplate.exception.BusinessException;
+import com.scy.mytemplate.model.dto.graph.GraphNeighborhoodRequest;
+import com.scy.mytemplate.model.dto.graph.GraphPathRequest;
 import com.scy.mytemplate.model.dto.node.*;
 import com.scy.mytemplate.model.dto.relationship.*;
 import com.scy.mytemplate.model.entity.User;
+import com.scy.mytemplate.model.vo.CursorPageVO;
+import com.scy.mytemplate.model.vo.GraphAdjacencyVO;
 import com.scy.mytemplate.model.vo.NodeVO;
 import com.scy.mytemplate.model.vo.RelationshipVO;
 import com.scy.mytemplate.service.GraphService;
@@ -17,6 +22,10 @@ import org.springframework.web.bind.annotation.*;
 
 import javax.annotation.Resource;
 import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.util.List;
 
 /**
@@ -37,6 +46,14 @@ public class GraphController {
     @Resource
     private UserService userService;
 
+    @Resource
+    private ObjectMapper objectMapper;
+
+    /**
+     * NDJSON 流式响应的内容类型，每行一个 JSON 对象
+     */
+    private static final String NDJSON_CONTENT_TYPE = "application/x-ndjson;charset=UTF-8";
+
     // region 节点接口 (Node Endpoints)
 
     @PostMapping("/node/create")
@@ -82,6 +99,25 @@ public class GraphController {
         return ResultUtils.success(nodes);
     }
 
+    @PostMapping("/node/list/cursor")
+    public BaseResponse<CursorPageVO<NodeVO>> listNodesByCursor(@RequestBody NodeGetAllRequest getAllRequest, HttpServletRequest request) {
+        if (getAllRequest == null) throw new BusinessException(ErrorCode.PARAMS_ERROR);
+        User currentUser = userService.getLoginUser(request);
+        return ResultUtils.success(graphService.listNodesByCursor(getAllRequest, currentUser));
+    }
+
+    /**
+     * 以 NDJSON 流式返回全部可见节点，边读取边写出，不在服务端缓存整个结果
+     */
+    @GetMapping("/node/stream")
+    public void streamNodes(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        User currentUser = userService.getLoginUser(request);
+        response.setContentType(NDJSON_CONTENT_TYPE);
+        OutputStream out = response.getOutputStream();
+        graphService.streamNodes(currentUser, node -> writeLine(out, node));
+        out.flush();
+    }
+
     // endregion
 
     // region 关系接口 (Relationship Endpoints)
@@ -129,6 +165,59 @@ public class GraphController {
         return ResultUtils.success(relationships);
     }
 
+    @PostMapping("/relationship/list/cursor")
+    public BaseResponse<CursorPageVO<RelationshipVO>> listRelationshipsByCursor(@RequestBody RelationshipGetAllRequest getAllRequest, HttpServletRequest request) {
+        if (getAllRequest == null) throw new BusinessException(ErrorCode.PARAMS_ERROR);
+        User currentUser = userService.getLoginUser(request);
+        return ResultUtils.success(graphService.listRelationshipsByCursor(getAllRequest, currentUser));
+    }
+
+    /**
+     * 以 NDJSON 流式返回全部可见关系，边读取边写出，不在服务端缓存整个结果
+     */
+    @GetMapping("/relationship/stream")
+    public void streamRelationships(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        User currentUser = userService.getLoginUser(request);
+        response.setContentType(NDJSON_CONTENT_TYPE);
+        OutputStream out = response.getOutputStream();
+        graphService.streamRelationships(currentUser, relationship -> writeLine(out, relationship));
+        out.flush();
+    }
+
+    // endregion
+
+    // region 子图查询接口 (Subgraph Endpoints)
+
+    /**
+     * 节点的 k 跳邻域，供前端渲染单个节点周边而无需下载整个可见图谱
+     */
+    @PostMapping("/neighborhood")
+    public BaseResponse<GraphAdjacencyVO> getNeighborhood(@RequestBody GraphNeighborhoodRequest neighborhoodRequest, HttpServletRequest request) {
+        if (neighborhoodRequest == null) throw new BusinessException(ErrorCode.PARAMS_ERROR);
+        User currentUser = userService.getLoginUser(request);
+        return ResultUtils.success(graphService.getNeighborhood(neighborhoodRequest, currentUser));
+    }
+
+    /**
+     * 两个节点之间的最短路径
+     */
+    @PostMapping("/path")
+    public BaseResponse<GraphAdjacencyVO> findShortestPath(@RequestBody GraphPathRequest pathRequest, HttpServletRequest request) {
+        if (pathRequest == null) throw new BusinessException(ErrorCode.PARAMS_ERROR);
+        User currentUser = userService.getLoginUser(request);
+        return ResultUtils.success(graphService.findShortestPath(pathRequest, currentUser));
+    }
+
     // endregion
+
+    private void writeLine(OutputStream out, Object record) {
+        try {
+            out.write(objectMapper.writeValueAsBytes(record));
+            out.write('\n');
+        } catch (IOException e) {
+            // 客户端断开连接时中止读取
+            throw new UncheckedIOException(e);
+        }
+    }
 }
 // END OF FILE: src/main/java/com/scy/mytemplate/controller/GraphController.java
\ No newline at end of file
@@ -6,8 +6,11 @@ import com.scy.mytemplate.common.BaseResponse;
 import com.scy.mytemplate.common.ErrorCode;
 import com.scy.mytemplate.common.ResultUtils;
 import com.scy.mytemplate.exception.BusinessException;
+import com.scy.mytemplate.manager.ImageDownloadManager;
+import com.scy.mytemplate.manager.ImageThumbnailManager;
 import com.scy.mytemplate.model.dto.image.*;
 import com.scy.mytemplate.model.entity.User;
+import com.scy.mytemplate.model.vo.ImageCursorPageVO;
 import com.scy.mytemplate.model.vo.ImageVO;
 import com.scy.mytemplate.service.ImageService;
 import com.scy.mytemplate.service.UserService;
@@ -16,17 +19,14 @@ import io.swagger.annotations.ApiImplicitParam;
 import io.swagger.annotations.ApiImplicitParams;
 import io.swagger.annotations.ApiOperation;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
-import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 
 import javax.annotation.Resource;
 import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
 import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.Path;
 import java.util.List;
 import java.util.Map;
 
@@ -48,6 +48,12 @@ public class ImageController {
     @Resource
     private UserService userService;
 
+    @Resource
+    private ImageDownloadManager imageDownloadManager;
+
+    @Resource
+    private ImageThumbnailManager imageThumbnailManager;
+
     /**
      * 上传单张图片 (Create)
      */
@@ -98,28 +104,52 @@ public class ImageController {
         return ResultUtils.success(resultVOs);
     }
 
+    /**
+     * 以后台任务方式批量上传图片及关联的标注文件 (Batch Create, Async)
+     */
+    @PostMapping(value = "/upload/batch-with-annotations/async", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    @ApiOperation(value = "异步批量上传图片和标注(Batch Create)", notes = "文件保存后立即返回任务ID，后续处理在后台完成，可通过 /task/get/{taskId} 查询进度。")
+    public BaseResponse<String> submitImagesWithAnnotationsTask(ImageUploadWithAnnotationRequest uploadRequest, HttpServletRequest request) {
+        String folderId = uploadRequest.getFolderId();
+        List<MultipartFile> files = uploadRequest.getFiles();
+        if (folderId == null || folderId.isEmpty()) {
+            throw new BusinessException(ErrorCode.PARAMS_ERROR, "未指定目标文件夹");
+        }
+        if (files == null || files.isEmpty()) {
+            throw new BusinessException(ErrorCode.PARAMS_ERROR, "上传文件列表不能为空");
+        }
+        User currentUser = userService.getLoginUser(request);
+        String taskId = imageService.submitImagesWithAnnotationsTask(folderId, files, currentUser);
+        return ResultUtils.success(taskId);
+    }
+
 
     /**
      * 下载/获取图片文件 (Read-File)
      */
     @GetMapping("/download/{imageId}")
-    @ApiOperation(value = "获取图片文件(Read-File)", notes = "根据图片ID，返回图片的文件流，用于在前端<img>标签中显示。")
-    public ResponseEntity<org.springframework.core.io.Resource> downloadImage(@PathVariable String imageId, HttpServletRequest request) {
+    @ApiOperation(value = "获取图片文件(Read-File)", notes = "根据图片ID，返回图片的文件流，用于在前端<img>标签中显示。支持 ETag/Last-Modified 条件请求与单区间 Range 请求。")
+    public void downloadImage(@PathVariable String imageId, HttpServletRequest request, HttpServletResponse response) throws IOException {
         User currentUser = userService.getLoginUser(request);
-        org.springframework.core.io.Resource resource = imageService.downloadImage(imageId, currentUser);
-
-        String contentType = "application/octet-stream";
-        try {
-            Path path = resource.getFile().toPath();
-            contentType = Files.probeContentType(path);
-        } catch (IOException e) {
-            log.warn("无法确定文件类型: {}", resource.getFilename());
-        }
+        ImageDownloadManager.ImageFile file = imageDownloadManager.resolve(imageId, currentUser);
+        imageDownloadManager.send(file, request, response);
+    }
+
 
-        return ResponseEntity.ok()
-                .contentType(MediaType.parseMediaType(contentType))
-                .header(HttpHeaders.CONTENT_DISPOSITION, "inline; filename=\"" + resource.getFilename() + "\"")
-                .body(resource);
+    /**
+     * 获取图片缩略图 (Read-File)
+     */
+    @GetMapping("/thumbnail/{imageId}")
+    @ApiOperation(value = "获取图片缩略图(Read-File)", notes = "返回长边不超过指定尺寸的 PNG 缩略图，尺寸会归整到 128/256/512 等已支持的规格，首次请求时生成。")
+    public void getThumbnail(@PathVariable String imageId,
+                             @RequestParam(value = "size", defaultValue = "256") int size,
+                             HttpServletRequest request, HttpServletResponse response) throws IOException {
+        if (size <= 0) {
+            throw new BusinessException(ErrorCode.PARAMS_ERROR, "缩略图尺寸必须为正数");
+        }
+        User currentUser = userService.getLoginUser(request);
+        ImageDownloadManager.ImageFile file = imageDownloadManager.resolve(imageId, currentUser);
+        imageThumbnailManager.send(file, size, request, response);
     }
 
 
@@ -137,6 +167,19 @@ public class ImageController {
         return ResultUtils.success(imagePage);
     }
 
+    /**
+     * 按游标获取图片列表 (Read-Many)
+     */
+    @PostMapping("/list/cursor")
+    @ApiOperation(value = "按游标获取图片列表(Read-Many)", notes = "按上传时间倒序返回一页图片，翻页时传回上一页的 nextCursor；searchKeyword 按文件名前缀匹配，总数为可选的缓存近似值。")
+    public BaseResponse<ImageCursorPageVO> listImagesByCursor(@RequestBody ImageCursorListRequest listRequest, HttpServletRequest request) {
+        if (listRequest == null || listRequest.getFolderId() == null) {
+            throw new BusinessException(ErrorCode.PARAMS_ERROR, "必须提供文件夹ID");
+        }
+        User currentUser = userService.getLoginUser(request);
+        return ResultUtils.success(imageService.listImagesByCursor(listRequest, currentUser));
+    }
+
     /**
      * 获取图片详情 (Read-One)
      */
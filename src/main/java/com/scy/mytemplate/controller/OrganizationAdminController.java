@@ -43,11 +43,17 @@ public class OrganizationAdminController {
     }
 
     @PostMapping("/merge/approve")
-    @ApiOperation("批准文件夹合并请求")
-    public BaseResponse<Boolean> approveMergeRequest(@RequestParam String folderId, HttpServletRequest request) {
+    @ApiOperation("批准文件夹合并请求，返回后台权限同步任务ID")
+    public BaseResponse<String> approveMergeRequest(@RequestParam String folderId, HttpServletRequest request) {
         User currentUser = userService.getLoginUser(request);
-        folderService.approveMergeRequest(folderId, currentUser);
-        return ResultUtils.success(true);
+        return ResultUtils.success(folderService.approveMergeRequest(folderId, currentUser));
+    }
+
+    @PostMapping("/merge/resume")
+    @ApiOperation("从断点继续中断的合并权限同步，返回任务ID")
+    public BaseResponse<String> resumeMergeSync(@RequestParam String folderId, HttpServletRequest request) {
+        User currentUser = userService.getLoginUser(request);
+        return ResultUtils.success(folderService.resumeMergeSync(folderId, currentUser));
     }
 
     @PostMapping("/merge/reject")
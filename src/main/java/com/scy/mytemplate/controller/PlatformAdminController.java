@@ -8,11 +8,21 @@ import com.scy.mytemplate.common.ResultUtils;
 import com.scy.mytemplate.constant.UserConstant;
 import com.scy.mytemplate.exception.BusinessException;
 import com.scy.mytemplate.exception.ThrowUtils;
+import com.scy.mytemplate.manager.GraphMetricsRecorder;
+import com.scy.mytemplate.manager.GraphMutationExecutor;
+import com.scy.mytemplate.manager.GraphOutboxRelay;
+import com.scy.mytemplate.manager.GraphSchemaManager;
+import com.scy.mytemplate.manager.PermissionCacheManager;
 import com.scy.mytemplate.model.dto.organization.OrganizationCreateRequest;
 import com.scy.mytemplate.model.dto.organization.OrganizationUpdateRequest;
 import com.scy.mytemplate.model.dto.user.UserAddRequest;
 import com.scy.mytemplate.model.dto.user.UserUpdateRequest;
 import com.scy.mytemplate.model.entity.User;
+import com.scy.mytemplate.model.vo.CacheStatsVO;
+import com.scy.mytemplate.model.vo.GraphClientMetricsVO;
+import com.scy.mytemplate.model.vo.GraphMutationStatsVO;
+import com.scy.mytemplate.model.vo.GraphOutboxStatsVO;
+import com.scy.mytemplate.model.vo.GraphSchemaStatusVO;
 import com.scy.mytemplate.model.vo.OrganizationVO;
 import com.scy.mytemplate.service.OrganizationService;
 import com.scy.mytemplate.service.UserService;
@@ -24,6 +34,7 @@ import org.springframework.web.bind.annotation.*;
 
 import javax.annotation.Resource;
 import javax.servlet.http.HttpServletRequest;
+import java.util.List;
 
 /**
  * 平台管理员专属接口
@@ -43,6 +54,21 @@ public class PlatformAdminController {
     @Resource
     private OrganizationService organizationService;
 
+    @Resource
+    private GraphMutationExecutor graphMutationExecutor;
+
+    @Resource
+    private PermissionCacheManager permissionCacheManager;
+
+    @Resource
+    private GraphSchemaManager graphSchemaManager;
+
+    @Resource
+    private GraphMetricsRecorder graphMetricsRecorder;
+
+    @Resource
+    private GraphOutboxRelay graphOutboxRelay;
+
     // --- 用户管理 ---
 
     @PostMapping("/user/add")
@@ -101,5 +127,57 @@ public class PlatformAdminController {
         organizationService.deleteOrganization(organizationId, currentUser);
         return ResultUtils.success(true);
     }
+
+    // --- 运行状态 ---
+
+    @GetMapping("/graph/mutation/stats")
+    @ApiOperation("查看图谱写执行器的队列深度与延迟")
+    public BaseResponse<GraphMutationStatsVO> getGraphMutationStats() {
+        return ResultUtils.success(graphMutationExecutor.getStats());
+    }
+
+    @GetMapping("/graph/outbox/stats")
+    @ApiOperation("查看知识图谱发件箱的积压与投递指标")
+    public BaseResponse<GraphOutboxStatsVO> getGraphOutboxStats() {
+        return ResultUtils.success(graphOutboxRelay.getStats());
+    }
+
+    @PostMapping("/graph/outbox/requeue")
+    @ApiOperation("将搁置的发件箱记录重新放回待投递状态")
+    public BaseResponse<Integer> requeueGraphOutbox() {
+        return ResultUtils.success(graphOutboxRelay.requeueDead());
+    }
+
+    @GetMapping("/graph/client/metrics")
+    @ApiOperation("查看图谱连接池指标与各操作的耗时分布")
+    public BaseResponse<GraphClientMetricsVO> getGraphClientMetrics() {
+        return ResultUtils.success(graphMetricsRecorder.getMetrics());
+    }
+
+    @PostMapping("/graph/client/metrics/reset")
+    @ApiOperation("清空图谱各操作的耗时统计")
+    public BaseResponse<Boolean> resetGraphClientMetrics() {
+        graphMetricsRecorder.reset();
+        return ResultUtils.success(true);
+    }
+
+    @GetMapping("/graph/schema")
+    @ApiOperation("查看图谱约束与索引的状态")
+    public BaseResponse<GraphSchemaStatusVO> getGraphSchemaStatus() {
+        return ResultUtils.success(graphSchemaManager.getStatus());
+    }
+
+    @PostMapping("/graph/schema/ensure")
+    @ApiOperation("重新创建缺失的图谱约束与索引")
+    public BaseResponse<GraphSchemaStatusVO> ensureGraphSchema() {
+        graphSchemaManager.ensureSchema();
+        return ResultUtils.success(graphSchemaManager.getStatus());
+    }
+
+    @GetMapping("/permission/cache/stats")
+    @ApiOperation("查看权限缓存的命中情况")
+    public BaseResponse<List<CacheStatsVO>> getPermissionCacheStats() {
+        return ResultUtils.success(permissionCacheManager.getStats());
+    }
 }
 // END OF FILE: src/main/java/com/scy/mytemplate/controller/PlatformAdminController.java
\ No newline at end of file
@@ -0,0 +1,49 @@
+// FILE: src/main/java/com/scy/mytemplate/controller/TaskController.java
+package com.scy.mytemplate.controller;
+
+import com.scy.mytemplate.common.BaseResponse;
+import com.scy.mytemplate.common.ResultUtils;
+import com.scy.mytemplate.manager.task.BackgroundTaskManager;
+import com.scy.mytemplate.model.entity.User;
+import com.scy.mytemplate.model.vo.TaskProgressVO;
+import com.scy.mytemplate.service.UserService;
+import io.swagger.annotations.Api;
+import io.swagger.annotations.ApiOperation;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import javax.annotation.Resource;
+import javax.servlet.http.HttpServletRequest;
+
+/**
+ * 后台任务接口。
+ * 负责查询长耗时操作（如批量上传）的执行进度。
+ *
+ * @author Bedrock
+ */
+@RestController
+@RequestMapping("/task")
+@Slf4j
+@Api(tags = "TaskController")
+public class TaskController {
+
+    @Resource
+    private BackgroundTaskManager backgroundTaskManager;
+
+    @Resource
+    private UserService userService;
+
+    /**
+     * 查询任务进度，只有任务发起者和平台管理员可以查看
+     */
+    @GetMapping("/get/{taskId}")
+    @ApiOperation("查询后台任务进度")
+    public BaseResponse<TaskProgressVO> getTask(@PathVariable String taskId, HttpServletRequest request) {
+        User currentUser = userService.getLoginUser(request);
+        return ResultUtils.success(backgroundTaskManager.getTask(taskId, currentUser).toVO());
+    }
+}
+// END OF FILE: src/main/java/com/scy/mytemplate/controller/TaskController.java
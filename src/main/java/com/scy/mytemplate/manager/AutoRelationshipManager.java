@@ -0,0 +1,218 @@
+// FILE: src/main/java/com/scy/mytemplate/manager/AutoRelationshipManager.java
+package com.scy.mytemplate.manager;
+
+import com.scy.mytemplate.constant.Neo4jConstant;
+import lombok.extern.slf4j.Slf4j;
+import org.neo4j.driver.Driver;
+import org.neo4j.driver.Record;
+import org.neo4j.driver.Session;
+import org.neo4j.driver.Transaction;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.Resource;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * 自动关联引擎。
+ * 在 Neo4j 中维护一份 (属性键, 属性值) -> 节点 的倒排索引：每个不同的属性值对应一个
+ * (:PropertyValue {key, value, valueKey}) 枢纽节点，拥有该值的 CircuitNode 通过 HAS_VALUE 关系指向它。
+ * valueKey 为 JSON 序列化的 [key, value]，同时区分属性键和取值类型，枢纽节点按它合并并由单属性唯一约束保证不重复。
+ * 关联某个节点时只需沿着它自己的枢纽节点走一跳，即可找到所有共享同一属性值的节点，
+ * 不再对 CircuitNode 做全标签扫描。属性值变化或被移除时，会同步清理过期的索引和 SHARED_* 关系。
+ *
+ * @author Bedrock
+ */
+@Component
+@Slf4j
+public class AutoRelationshipManager {
+
+    /**
+     * 第一步：断开与节点当前属性不再匹配的枢纽节点，返回过期的属性键和枢纽节点ID。
+     */
+    private static final String DETACH_STALE_VALUES_QUERY =
+            "UNWIND $nodeNames AS nodeName " +
+                    "MATCH (a:CircuitNode {name: nodeName})-[h:HAS_VALUE]->(pv:PropertyValue) " +
+                    "WHERE a[pv.key] IS NULL OR a[pv.key] <> pv.value " +
+                    "DELETE h " +
+                    "RETURN nodeName, collect(DISTINCT pv.key) AS staleKeys, collect(DISTINCT id(pv)) AS staleHubIds";
+
+    /**
+     * 第二步：删除过期属性键对应的 SHARED_* 关系（两个方向）。
+     */
+    private static final String REMOVE_STALE_RELATIONSHIPS_QUERY =
+            "MATCH (a:CircuitNode {name: $nodeName})-[s]-(:CircuitNode) " +
+                    "WHERE type(s) IN [k IN $staleKeys | 'SHARED_' + apoc.text.upperCamelCase(k)] " +
+                    "DELETE s " +
+                    "RETURN count(s) AS removedRels";
+
+    /**
+     * 第三步：回收已无任何节点引用的枢纽节点。
+     */
+    private static final String PRUNE_ORPHAN_VALUES_QUERY =
+            "MATCH (pv:PropertyValue) WHERE id(pv) IN $hubIds AND NOT ()-[:HAS_VALUE]->(pv) DELETE pv";
+
+    /**
+     * 第四步：为节点的每个非保留属性合并枢纽节点并建立 HAS_VALUE 索引关系；valueKey 唯一约束保证并发 MERGE 不会产生重复枢纽。
+     * MERGE 同时带上 key 和 value，约束尚未上线时仍可沿旧的 (key, value) 索引查找。
+     */
+    private static final String INDEX_VALUES_QUERY =
+            "UNWIND $nodeNames AS nodeName " +
+                    "MATCH (a:CircuitNode {name: nodeName}) " +
+                    "UNWIND [key IN keys(a) WHERE NOT key IN $reservedKeys] AS key " +
+                    "MERGE (pv:PropertyValue {valueKey: apoc.convert.toJson([key, a[key]]), key: key, value: a[key]}) " +
+                    "MERGE (a)-[:HAS_VALUE]->(pv)";
+
+    /**
+     * 第五步：只沿枢纽节点查找共享同一属性值的节点，并补齐缺失的 SHARED_* 关系。
+     * 同一批次内的两个节点只由名称较小的一方创建关系，避免双向重复。
+     */
+    private static final String LINK_VIA_VALUES_QUERY =
+            "UNWIND $nodeNames AS nodeName " +
+                    "MATCH (a:CircuitNode {name: nodeName})-[:HAS_VALUE]->(pv:PropertyValue)<-[:HAS_VALUE]-(b:CircuitNode) " +
+                    "WHERE a <> b AND (NOT b.name IN $nodeNames OR a.name < b.name) " +
+                    "WITH DISTINCT a, b, 'SHARED_' + apoc.text.upperCamelCase(pv.key) AS relType " +
+                    "WHERE NOT relType IN [(a)-[x]-(b) | type(x)] " +
+                    "CALL apoc.create.relationship(a, relType, {}, b) YIELD rel " +
+                    "RETURN count(rel) AS createdRels";
+
+    /**
+     * 查找尚未建立倒排索引的历史节点。
+     */
+    private static final String FIND_UNINDEXED_NODES_QUERY =
+            "MATCH (n:CircuitNode) " +
+                    "WHERE NOT (n)-[:HAS_VALUE]->() AND any(k IN keys(n) WHERE NOT k IN $reservedKeys) " +
+                    "RETURN n.name AS name LIMIT $limit";
+
+    @Resource
+    private Driver driver;
+
+    @Resource
+    private GraphMetricsRecorder graphMetricsRecorder;
+
+    @Value("${graph.auto-link.backfill-batch-size:500}")
+    private int backfillBatchSize;
+
+    @Value("${graph.auto-link.backfill-on-startup:true}")
+    private boolean backfillOnStartup;
+
+    @Value("${graph.store.type:neo4j}")
+    private String storeType;
+
+    /**
+     * 启动完成后为历史节点补建倒排索引（枢纽节点唯一约束由 {@link GraphSchemaManager} 先行创建）。
+     * 任何失败都只记录日志，不影响应用启动；使用进程内图谱存储时不执行。
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (backfillOnStartup && "neo4j".equals(storeType)) {
+            try {
+                long indexed = backfillIndex();
+                if (indexed > 0) {
+                    log.info("已为 {} 个历史节点补建属性值倒排索引。", indexed);
+                }
+            } catch (Exception e) {
+                log.error("补建属性值倒排索引失败", e);
+            }
+        }
+    }
+
+    /**
+     * 重新关联单个节点。
+     *
+     * @param nodeName 节点名称
+     * @return 新建的关系数量
+     */
+    public long relink(String nodeName) {
+        return relink(Collections.singletonList(nodeName));
+    }
+
+    /**
+     * 在一个写事务内重新关联一批节点：先清理过期索引与关系，再重建索引并补齐关系。
+     *
+     * @param nodeNames 节点名称集合
+     * @return 新建的关系数量
+     */
+    public long relink(Collection<String> nodeNames) {
+        List<String> names = nodeNames.stream().distinct().collect(Collectors.toList());
+        if (names.isEmpty()) {
+            return 0;
+        }
+        try (Session session = driver.session()) {
+            return graphMetricsRecorder.write(session, "autoLink", tx -> relink(tx, names));
+        }
+    }
+
+    /**
+     * 在调用方提供的事务内重新关联一批节点。
+     *
+     * @param tx        写事务
+     * @param nodeNames 去重后的节点名称列表
+     * @return 新建的关系数量
+     */
+    public long relink(Transaction tx, List<String> nodeNames) {
+        List<Record> staleRecords = tx.run(DETACH_STALE_VALUES_QUERY, Map.of("nodeNames", nodeNames)).list();
+        List<Long> staleHubIds = new ArrayList<>();
+        long removedRels = 0;
+        for (Record record : staleRecords) {
+            List<String> staleKeys = record.get("staleKeys").asList(v -> v.asString());
+            if (staleKeys.isEmpty()) {
+                continue;
+            }
+            staleHubIds.addAll(record.get("staleHubIds").asList(v -> v.asLong()));
+            removedRels += tx.run(REMOVE_STALE_RELATIONSHIPS_QUERY,
+                            Map.of("nodeName", record.get("nodeName").asString(), "staleKeys", staleKeys))
+                    .single().get("removedRels").asLong();
+        }
+        pruneOrphanValues(tx, staleHubIds);
+
+        Map<String, Object> params = Map.of("nodeNames", nodeNames, "reservedKeys", Neo4jConstant.RESERVED_NODE_KEYS);
+        tx.run(INDEX_VALUES_QUERY, params).consume();
+        long createdRels = tx.run(LINK_VIA_VALUES_QUERY, params).single().get("createdRels").asLong();
+        log.info("自动关联完成: 节点数 {}, 新建关系 {}, 清理过期关系 {}", nodeNames.size(), createdRels, removedRels);
+        return createdRels;
+    }
+
+    /**
+     * 回收一组枢纽节点中已无任何节点引用的部分。
+     *
+     * @param tx     写事务
+     * @param hubIds 候选枢纽节点ID
+     */
+    public void pruneOrphanValues(Transaction tx, List<Long> hubIds) {
+        if (!hubIds.isEmpty()) {
+            tx.run(PRUNE_ORPHAN_VALUES_QUERY, Map.of("hubIds", hubIds)).consume();
+        }
+    }
+
+    /**
+     * 为尚未建立倒排索引的历史节点分批补建索引和关系。
+     *
+     * @return 补建的节点数量
+     */
+    public long backfillIndex() {
+        long total = 0;
+        while (true) {
+            List<String> batch;
+            try (Session session = driver.session()) {
+                batch = graphMetricsRecorder.read(session, "findUnindexedNodes", tx -> tx.run(FIND_UNINDEXED_NODES_QUERY,
+                                Map.of("reservedKeys", Neo4jConstant.RESERVED_NODE_KEYS, "limit", backfillBatchSize))
+                        .list(record -> record.get("name").asString()));
+            }
+            if (batch.isEmpty()) {
+                return total;
+            }
+            relink(new LinkedHashSet<>(batch));
+            total += batch.size();
+        }
+    }
+}
+// END OF FILE: src/main/java/com/scy/mytemplate/manager/AutoRelationshipManager.java
@@ -0,0 +1,219 @@
+// FILE: src/main/java/com/scy/mytemplate/manager/FolderMergeSyncManager.java
+package com.scy.mytemplate.manager;
+
+import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
+import com.baomidou.mybatisplus.core.conditions.update.UpdateWrapper;
+import com.scy.mytemplate.common.ErrorCode;
+import com.scy.mytemplate.exception.BusinessException;
+import com.scy.mytemplate.manager.task.BackgroundTask;
+import com.scy.mytemplate.manager.task.BackgroundTaskManager;
+import com.scy.mytemplate.mapper.FolderMapper;
+import com.scy.mytemplate.mapper.ImageMapper;
+import com.scy.mytemplate.model.entity.Folder;
+import com.scy.mytemplate.model.entity.Image;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.Resource;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * 文件夹合并后的知识图谱节点权限同步。
+ * 合并获批时 MySQL 中的文件夹空间与归属在请求事务内立即切换，文件夹内全部图片节点的权限属性由本组件在后台批量更新：
+ * 按 (createTime, id) 顺序分批读取图片，每批登记一条 {@link GraphOutbox} 属性更新记录，并在同一个事务中把最后一张图片的位置
+ * 记入 Folders.mergeSyncCursor。更新记录排在此前已提交的节点创建记录之后投递，仍在发件箱中等待创建的节点不会被漏掉。
+ * 同步期间文件夹处于 SYNCING 状态，全部更新登记完成后变为 APPROVED（图谱随发件箱投递生效）；任务失败或服务重启后从断点继续，启动时会自动恢复未完成的同步。
+ *
+ * @author Bedrock
+ */
+@Component
+@Slf4j
+public class FolderMergeSyncManager {
+
+    public static final String STATE_SYNCING = "SYNCING";
+
+    public static final String STATE_APPROVED = "APPROVED";
+
+    private static final String TASK_TYPE = "folder_merge_sync";
+
+    /**
+     * 启动时自动恢复的任务没有发起用户，只有平台管理员可以查询
+     */
+    private static final String SYSTEM_USER_ID = "system";
+
+    /**
+     * 合并到组织后节点不再属于个人，需要从节点上移除的属性
+     */
+    private static final List<String> REMOVED_PROPERTIES = Collections.singletonList("ownerUserId");
+
+    @Resource
+    private FolderMapper folderMapper;
+
+    @Resource
+    private ImageMapper imageMapper;
+
+    @Resource
+    private GraphOutbox graphOutbox;
+
+    @Resource
+    private TransactionTemplate transactionTemplate;
+
+    @Resource
+    private BackgroundTaskManager backgroundTaskManager;
+
+    @Value("${folder.merge.sync-chunk-size:500}")
+    private int chunkSize;
+
+    /**
+     * 正在同步的文件夹，同一文件夹不会同时运行两个同步任务
+     */
+    private final Set<String> running = ConcurrentHashMap.newKeySet();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void resumePending() {
+        List<Folder> pending = folderMapper.selectList(new QueryWrapper<Folder>().eq("mergeState", STATE_SYNCING));
+        for (Folder folder : pending) {
+            log.info("恢复文件夹 {} 未完成的合并权限同步，断点: {}", folder.getId(), folder.getMergeSyncCursor());
+            submit(folder.getId(), SYSTEM_USER_ID);
+        }
+    }
+
+    /**
+     * 在当前事务提交后开始同步，事务回滚则任务不会执行
+     *
+     * @param folderId 已切换为 SYNCING 状态的文件夹
+     * @param userId   发起用户
+     * @return 任务ID，可通过 /task/get/{taskId} 查询进度
+     */
+    public String submitAfterCommit(String folderId, String userId) {
+        BackgroundTask task = backgroundTaskManager.create(TASK_TYPE, userId, 0);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    start(folderId, task);
+                }
+            });
+        } else {
+            start(folderId, task);
+        }
+        return task.getId();
+    }
+
+    /**
+     * 立即开始（或从断点继续）同步
+     *
+     * @return 任务ID
+     */
+    public String submit(String folderId, String userId) {
+        if (running.contains(folderId)) {
+            throw new BusinessException(ErrorCode.OPERATION_ERROR, "该文件夹的权限同步任务正在执行");
+        }
+        BackgroundTask task = backgroundTaskManager.create(TASK_TYPE, userId, 0);
+        start(folderId, task);
+        return task.getId();
+    }
+
+    private void start(String folderId, BackgroundTask task) {
+        if (!running.add(folderId)) {
+            task.fail("该文件夹的权限同步任务正在执行");
+            return;
+        }
+        backgroundTaskManager.supply(task, () -> sync(folderId, task)).whenComplete((synced, error) -> {
+            running.remove(folderId);
+            if (error != null) {
+                Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+                log.error("文件夹 {} 合并权限同步任务 {} 失败，已记录断点", folderId, task.getId(), cause);
+                task.fail("同步知识图谱节点权限失败，可重新提交从断点继续");
+            } else {
+                task.finish(synced);
+                log.info("文件夹 {} 合并权限同步任务 {} 结束: 登记 {} 个节点的权限更新", folderId, task.getId(), synced);
+            }
+        });
+    }
+
+    /**
+     * 从断点开始分批同步，返回本次处理的图片数量
+     */
+    private int sync(String folderId, BackgroundTask task) {
+        Folder folder = folderMapper.selectById(folderId);
+        if (folder == null || !STATE_SYNCING.equals(folder.getMergeState())) {
+            return 0;
+        }
+        Map<String, Object> properties = new HashMap<>();
+        properties.put("space", folder.getSpace());
+        properties.put("ownerOrganizationId", folder.getOwnerOrganizationId());
+
+        String cursor = folder.getMergeSyncCursor();
+        QueryWrapper<Image> countWrapper = new QueryWrapper<Image>().eq("folderId", folderId);
+        applyCursor(countWrapper, cursor);
+        task.setTotal(imageMapper.selectCount(countWrapper).intValue());
+
+        int synced = 0;
+        while (true) {
+            QueryWrapper<Image> wrapper = new QueryWrapper<Image>()
+                    .select("id", "storagePath", "createTime")
+                    .eq("folderId", folderId);
+            applyCursor(wrapper, cursor);
+            wrapper.orderByAsc("createTime", "id");
+            wrapper.last("LIMIT " + chunkSize);
+            List<Image> chunk = imageMapper.selectList(wrapper);
+            if (chunk.isEmpty()) {
+                break;
+            }
+            Image last = chunk.get(chunk.size() - 1);
+            String nextCursor = last.getCreateTime().getTime() + ":" + last.getId();
+            // 发件箱记录与断点在同一个事务中提交：断点之前的批次一定已登记，节点更新是幂等的，重复登记也不会出错
+            transactionTemplate.executeWithoutResult(status -> {
+                graphOutbox.updateNodes(chunk.stream().map(Image::getStoragePath).collect(Collectors.toList()),
+                        properties, REMOVED_PROPERTIES);
+                folderMapper.update(null, new UpdateWrapper<Folder>()
+                        .eq("id", folderId)
+                        .eq("mergeState", STATE_SYNCING)
+                        .set("mergeSyncCursor", nextCursor));
+            });
+            cursor = nextCursor;
+            synced += chunk.size();
+            task.stageDone("outbox", chunk.size());
+            task.itemSucceeded(chunk.size());
+            if (chunk.size() < chunkSize) {
+                break;
+            }
+        }
+        folderMapper.update(null, new UpdateWrapper<Folder>()
+                .eq("id", folderId)
+                .eq("mergeState", STATE_SYNCING)
+                .set("mergeState", STATE_APPROVED)
+                .set("mergeSyncCursor", null));
+        return synced;
+    }
+
+    /**
+     * 只读取断点之后的图片：(createTime, id) 严格大于断点位置
+     */
+    private static void applyCursor(QueryWrapper<Image> wrapper, String cursor) {
+        if (cursor == null) {
+            return;
+        }
+        int separator = cursor.indexOf(':');
+        Date createTime = new Date(Long.parseLong(cursor.substring(0, separator)));
+        String id = cursor.substring(separator + 1);
+        wrapper.ge("createTime", createTime);
+        wrapper.and(w -> w.gt("createTime", createTime).or(o -> o.eq("createTime", createTime).gt("id", id)));
+    }
+}
+// END OF FILE: src/main/java/com/scy/mytemplate/manager/FolderMergeSyncManager.java
@@ -0,0 +1,270 @@
+// FILE: src/main/java/com/scy/mytemplate/manager/GraphMetricsRecorder.java
+package com.scy.mytemplate.manager;
+
+import com.scy.mytemplate.model.vo.GraphClientMetricsVO;
+import com.scy.mytemplate.model.vo.GraphOperationStatsVO;
+import com.scy.mytemplate.model.vo.GraphPoolStatsVO;
+import org.neo4j.driver.ConnectionPoolMetrics;
+import org.neo4j.driver.Driver;
+import org.neo4j.driver.Session;
+import org.neo4j.driver.TransactionWork;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.Resource;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * 图谱客户端指标记录器。
+ * 按逻辑操作（createNode、getAllNodes、autoLink ...）统计调用次数、失败次数、事务重试次数和耗时直方图，
+ * 并汇总 Neo4j 驱动自带的连接池指标（获取连接耗时、占用连接数、获取超时等）。
+ * 事务函数经由 {@link #write}/{@link #read} 执行时，驱动每重试一次都会重新调用事务函数，据此统计重试次数。
+ * Neo4j 按查询文本缓存执行计划，{@link #recordQueryText} 统计各操作产生的不同查询文本数和文本复用率，
+ * 复用率即客户端可观察到的计划缓存命中率上限。
+ *
+ * @author Bedrock
+ */
+@Component
+public class GraphMetricsRecorder {
+
+    /**
+     * 直方图桶上界（毫秒），最后一个桶收纳所有更慢的调用
+     */
+    private static final long[] BUCKET_BOUNDS_MILLIS = {5, 10, 25, 50, 100, 250, 500, 1000, 2500, 5000, 10000};
+
+    /**
+     * 每个操作最多记住的不同查询文本数，超出后的新文本只计数不再记住
+     */
+    private static final int MAX_TRACKED_QUERY_TEXTS = 256;
+
+    @Resource
+    private Driver driver;
+
+    private final Map<String, OperationStats> operations = new ConcurrentHashMap<>();
+
+    /**
+     * 以写事务函数执行并记录指标
+     *
+     * @param session   会话
+     * @param operation 逻辑操作名称
+     * @param work      事务函数
+     */
+    public <T> T write(Session session, String operation, TransactionWork<T> work) {
+        OperationStats stats = stats(operation);
+        return time(stats, () -> session.writeTransaction(countAttempts(stats, work)));
+    }
+
+    /**
+     * 以读事务函数执行并记录指标
+     *
+     * @param session   会话
+     * @param operation 逻辑操作名称
+     * @param work      事务函数
+     */
+    public <T> T read(Session session, String operation, TransactionWork<T> work) {
+        OperationStats stats = stats(operation);
+        return time(stats, () -> session.readTransaction(countAttempts(stats, work)));
+    }
+
+    /**
+     * 记录一段不经过事务函数的操作（如自动提交的流式查询）
+     *
+     * @param operation 逻辑操作名称
+     * @param action    操作
+     */
+    public <T> T time(String operation, Supplier<T> action) {
+        return time(stats(operation), action);
+    }
+
+    /**
+     * 记录一段无返回值的操作
+     *
+     * @param operation 逻辑操作名称
+     * @param action    操作
+     */
+    public void run(String operation, Runnable action) {
+        time(stats(operation), () -> {
+            action.run();
+            return null;
+        });
+    }
+
+    /**
+     * 记录一次操作实际发送的查询文本
+     *
+     * @param operation 逻辑操作名称
+     * @param query     查询文本
+     */
+    public void recordQueryText(String operation, String query) {
+        stats(operation).recordQueryText(query);
+    }
+
+    /**
+     * 当前的连接池与逻辑操作指标
+     */
+    public GraphClientMetricsVO getMetrics() {
+        GraphClientMetricsVO metrics = new GraphClientMetricsVO();
+        metrics.setPoolMetricsEnabled(driver.isMetricsEnabled());
+        if (driver.isMetricsEnabled()) {
+            for (ConnectionPoolMetrics pool : driver.metrics().connectionPoolMetrics()) {
+                metrics.getPools().add(toVO(pool));
+            }
+        }
+        operations.values().stream()
+                .map(OperationStats::toVO)
+                .sorted((a, b) -> a.getOperation().compareTo(b.getOperation()))
+                .forEach(metrics.getOperations()::add);
+        return metrics;
+    }
+
+    /**
+     * 清空逻辑操作指标（连接池指标由驱动维护，不受影响）
+     */
+    public void reset() {
+        operations.clear();
+    }
+
+    private OperationStats stats(String operation) {
+        return operations.computeIfAbsent(operation, OperationStats::new);
+    }
+
+    private <T> TransactionWork<T> countAttempts(OperationStats stats, TransactionWork<T> work) {
+        AtomicLong attempts = new AtomicLong();
+        return tx -> {
+            if (attempts.incrementAndGet() > 1) {
+                stats.retries.increment();
+            }
+            return work.execute(tx);
+        };
+    }
+
+    private <T> T time(OperationStats stats, Supplier<T> action) {
+        long start = System.nanoTime();
+        boolean failed = true;
+        try {
+            T result = action.get();
+            failed = false;
+            return result;
+        } finally {
+            stats.record(System.nanoTime() - start, failed);
+        }
+    }
+
+    private GraphPoolStatsVO toVO(ConnectionPoolMetrics pool) {
+        GraphPoolStatsVO vo = new GraphPoolStatsVO();
+        vo.setId(pool.id());
+        vo.setInUse(pool.inUse());
+        vo.setIdle(pool.idle());
+        vo.setAcquiring(pool.acquiring());
+        vo.setAcquired(pool.acquired());
+        vo.setTimedOutToAcquire(pool.timedOutToAcquire());
+        vo.setMeanAcquisitionMillis(pool.acquired() == 0 ? 0 : (double) pool.totalAcquisitionTime() / pool.acquired());
+        vo.setMeanInUseMillis(pool.totalInUseCount() == 0 ? 0 : (double) pool.totalInUseTime() / pool.totalInUseCount());
+        vo.setCreated(pool.created());
+        vo.setFailedToCreate(pool.failedToCreate());
+        vo.setClosed(pool.closed());
+        return vo;
+    }
+
+    /**
+     * 单个逻辑操作的累计指标，全部使用无锁计数器
+     */
+    private static class OperationStats {
+        private final String operation;
+        private final LongAdder count = new LongAdder();
+        private final LongAdder errors = new LongAdder();
+        private final LongAdder retries = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final AtomicLong maxNanos = new AtomicLong();
+        private final AtomicLongArray buckets = new AtomicLongArray(BUCKET_BOUNDS_MILLIS.length + 1);
+        private final Set<String> queryTexts = ConcurrentHashMap.newKeySet();
+        private final LongAdder queryTextCalls = new LongAdder();
+        private final LongAdder reusedQueryTexts = new LongAdder();
+        private final LongAdder untrackedQueryTexts = new LongAdder();
+
+        private OperationStats(String operation) {
+            this.operation = operation;
+        }
+
+        private void record(long nanos, boolean failed) {
+            count.increment();
+            if (failed) {
+                errors.increment();
+            }
+            totalNanos.add(nanos);
+            maxNanos.accumulateAndGet(nanos, Math::max);
+            long millis = nanos / 1_000_000;
+            int bucket = 0;
+            while (bucket < BUCKET_BOUNDS_MILLIS.length && millis > BUCKET_BOUNDS_MILLIS[bucket]) {
+                bucket++;
+            }
+            buckets.incrementAndGet(bucket);
+        }
+
+        private void recordQueryText(String query) {
+            queryTextCalls.increment();
+            if (queryTexts.contains(query)) {
+                reusedQueryTexts.increment();
+            } else if (queryTexts.size() >= MAX_TRACKED_QUERY_TEXTS) {
+                untrackedQueryTexts.increment();
+            } else if (!queryTexts.add(query)) {
+                reusedQueryTexts.increment();
+            }
+        }
+
+        private GraphOperationStatsVO toVO() {
+            GraphOperationStatsVO vo = new GraphOperationStatsVO();
+            long total = count.sum();
+            vo.setOperation(operation);
+            vo.setCount(total);
+            vo.setErrors(errors.sum());
+            vo.setRetries(retries.sum());
+            vo.setMeanMillis(total == 0 ? 0 : totalNanos.sum() / 1_000_000.0 / total);
+            vo.setMaxMillis(maxNanos.get() / 1_000_000.0);
+            long textCalls = queryTextCalls.sum();
+            vo.setDistinctQueryTexts(queryTexts.size() + untrackedQueryTexts.sum());
+            vo.setQueryTextReuseRate(textCalls == 0 ? 0 : (double) reusedQueryTexts.sum() / textCalls);
+            long[] snapshot = new long[buckets.length()];
+            Map<String, Long> histogram = new LinkedHashMap<>();
+            for (int i = 0; i < snapshot.length; i++) {
+                snapshot[i] = buckets.get(i);
+                histogram.put(i < BUCKET_BOUNDS_MILLIS.length ? "le_" + BUCKET_BOUNDS_MILLIS[i] + "ms" : "gt_"
+                        + BUCKET_BOUNDS_MILLIS[BUCKET_BOUNDS_MILLIS.length - 1] + "ms", snapshot[i]);
+            }
+            vo.setHistogram(histogram);
+            vo.setP50Millis(percentile(snapshot, 0.50));
+            vo.setP95Millis(percentile(snapshot, 0.95));
+            vo.setP99Millis(percentile(snapshot, 0.99));
+            return vo;
+        }
+
+        /**
+         * 返回累计占比达到 quantile 的桶上界；落在最后一个桶时返回实际最大值
+         */
+        private long percentile(long[] snapshot, double quantile) {
+            long total = 0;
+            for (long c : snapshot) {
+                total += c;
+            }
+            if (total == 0) {
+                return 0;
+            }
+            long threshold = (long) Math.ceil(total * quantile);
+            long seen = 0;
+            for (int i = 0; i < BUCKET_BOUNDS_MILLIS.length; i++) {
+                seen += snapshot[i];
+                if (seen >= threshold) {
+                    return BUCKET_BOUNDS_MILLIS[i];
+                }
+            }
+            return maxNanos.get() / 1_000_000;
+        }
+    }
+}
+// END OF FILE: src/main/java/com/scy/mytemplate/manager/GraphMetricsRecorder.java
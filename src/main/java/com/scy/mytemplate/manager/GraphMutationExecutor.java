@@ -0,0 +1,327 @@
+// FILE: src/main/java/com/scy/mytemplate/manager/GraphMutationExecutor.java
+package com.scy.mytemplate.manager;
+
+import com.scy.mytemplate.common.ErrorCode;
+import com.scy.mytemplate.exception.BusinessException;
+import com.scy.mytemplate.manager.graph.GraphStore;
+import com.scy.mytemplate.model.vo.GraphMutationStatsVO;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.annotation.Resource;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 图谱自动关联专用执行器。
+ * 更新节点等请求只负责把节点的自动关联登记到这里，由独立的工作线程在 MySQL 事务提交后执行，
+ * 请求延迟不再依赖 Neo4j。上传产生的节点写入由 {@link GraphOutbox} 投递。
+ * <ul>
+ *     <li>有界队列：待执行的 key 数量达到上限时不阻塞提交方（通常是事务提交后的请求线程），
+ *     记录暂存到重试调度器按退避重新入队，超过最大次数后丢弃；同 key 的执行始终只在工作线程中进行。</li>
+ *     <li>合并：同一个节点尚未开始执行时，后续提交会并入同一条待执行记录，重复的自动关联只执行一次。</li>
+ *     <li>事务感知：在事务内提交时，登记到 afterCommit 回调，事务回滚则不会执行。</li>
+ *     <li>失败重试：按指数退避重新入队，超过最大次数后丢弃并记录日志。</li>
+ * </ul>
+ *
+ * @author Bedrock
+ */
+@Component
+@Slf4j
+public class GraphMutationExecutor {
+
+    @Resource
+    private GraphStore graphStore;
+
+    @Value("${graph.mutation.queue-capacity:10000}")
+    private int queueCapacity;
+
+    @Value("${graph.mutation.worker-threads:2}")
+    private int workerThreads;
+
+    @Value("${graph.mutation.max-attempts:5}")
+    private int maxAttempts;
+
+    @Value("${graph.mutation.initial-backoff-ms:200}")
+    private long initialBackoffMs;
+
+    @Value("${graph.mutation.max-backoff-ms:10000}")
+    private long maxBackoffMs;
+
+    /**
+     * 按入队顺序排列的待执行记录，key 为节点名称
+     */
+    private final LinkedHashMap<String, PendingMutation> pending = new LinkedHashMap<>();
+
+    /**
+     * 正在执行的 key，同一个 key 不会被两个工作线程同时执行
+     */
+    private final Set<String> inFlight = new HashSet<>();
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition notEmpty = lock.newCondition();
+
+    private final AtomicLong submittedCount = new AtomicLong();
+    private final AtomicLong coalescedCount = new AtomicLong();
+    private final AtomicLong completedCount = new AtomicLong();
+    private final AtomicLong retriedCount = new AtomicLong();
+    private final AtomicLong droppedCount = new AtomicLong();
+    private final AtomicLong deferredCount = new AtomicLong();
+    private final AtomicLong lastLagMillis = new AtomicLong();
+    private final AtomicLong maxLagMillis = new AtomicLong();
+
+    private final List<Thread> workers = new ArrayList<>();
+    private ScheduledExecutorService retryScheduler;
+    private volatile boolean running;
+
+    @PostConstruct
+    public void start() {
+        running = true;
+        retryScheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "graph-mutation-retry");
+            thread.setDaemon(true);
+            return thread;
+        });
+        for (int i = 0; i < workerThreads; i++) {
+            Thread worker = new Thread(this::workLoop, "graph-mutation-" + i);
+            worker.setDaemon(true);
+            worker.start();
+            workers.add(worker);
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        workers.forEach(Thread::interrupt);
+        retryScheduler.shutdownNow();
+        lock.lock();
+        try {
+            if (!pending.isEmpty()) {
+                log.warn("图谱写执行器关闭时仍有 {} 个待执行任务未完成", pending.size());
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 为节点提交一次自动关联，重复提交会被合并。
+     * 若当前处于 Spring 事务中，则推迟到事务提交之后再入队。
+     *
+     * @param nodeName 节点名称
+     */
+    public void submitAutoLink(String nodeName) {
+        afterCommit(() -> enqueue(nodeName));
+    }
+
+    /**
+     * 当前执行器的队列深度与延迟指标
+     */
+    public GraphMutationStatsVO getStats() {
+        GraphMutationStatsVO stats = new GraphMutationStatsVO();
+        lock.lock();
+        try {
+            stats.setQueueDepth(pending.size());
+            stats.setInFlight(inFlight.size());
+            Iterator<PendingMutation> iterator = pending.values().iterator();
+            stats.setOldestPendingLagMillis(iterator.hasNext() ? System.currentTimeMillis() - iterator.next().enqueueTime : 0);
+        } finally {
+            lock.unlock();
+        }
+        stats.setQueueCapacity(queueCapacity);
+        stats.setSubmitted(submittedCount.get());
+        stats.setCoalesced(coalescedCount.get());
+        stats.setCompleted(completedCount.get());
+        stats.setRetried(retriedCount.get());
+        stats.setDropped(droppedCount.get());
+        stats.setDeferred(deferredCount.get());
+        stats.setLastLagMillis(lastLagMillis.get());
+        stats.setMaxLagMillis(maxLagMillis.get());
+        return stats;
+    }
+
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private void enqueue(String key) {
+        submittedCount.incrementAndGet();
+        PendingMutation mutation = new PendingMutation(key);
+        if (!offer(mutation)) {
+            // 队列已满：不在提交线程中等待或执行，暂存后按退避重新入队
+            defer(mutation);
+        }
+    }
+
+    /**
+     * 队列已满时暂存记录，退避后重新入队；仍然排不上则继续退避，累计达到最大次数后丢弃。
+     *
+     * @param mutation 待执行记录
+     */
+    private void defer(PendingMutation mutation) {
+        mutation.deferrals++;
+        if (mutation.deferrals >= maxAttempts || !running) {
+            droppedCount.incrementAndGet();
+            log.error("图谱写队列持续已满 (容量 {})，任务被丢弃: key={}", queueCapacity, mutation.key);
+            return;
+        }
+        long backoff = backoff(mutation.deferrals);
+        deferredCount.incrementAndGet();
+        log.warn("图谱写队列已满 (容量 {})，{} ms 后重新入队: key={}", queueCapacity, backoff, mutation.key);
+        retryScheduler.schedule(() -> {
+            if (!offer(mutation)) {
+                defer(mutation);
+            }
+        }, backoff, TimeUnit.MILLISECONDS);
+    }
+
+    private long backoff(int attempts) {
+        return Math.min(maxBackoffMs, initialBackoffMs << Math.min(attempts - 1, 20));
+    }
+
+    /**
+     * 入队，不等待；同一个 key 已在等待时合并进去。
+     *
+     * @param mutation 待执行记录
+     * @return 是否成功入队，队列已满时返回 false
+     */
+    private boolean offer(PendingMutation mutation) {
+        lock.lock();
+        try {
+            PendingMutation existing = pending.get(mutation.key);
+            if (existing != null) {
+                coalescedCount.incrementAndGet();
+                existing.attempts = Math.max(existing.attempts, mutation.attempts);
+                return true;
+            }
+            if (pending.size() >= queueCapacity) {
+                return false;
+            }
+            pending.put(mutation.key, mutation);
+            notEmpty.signal();
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private PendingMutation take() throws InterruptedException {
+        lock.lock();
+        try {
+            while (true) {
+                Iterator<PendingMutation> iterator = pending.values().iterator();
+                while (iterator.hasNext()) {
+                    PendingMutation candidate = iterator.next();
+                    if (!inFlight.contains(candidate.key)) {
+                        iterator.remove();
+                        inFlight.add(candidate.key);
+                        return candidate;
+                    }
+                }
+                notEmpty.await();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void release(String key) {
+        lock.lock();
+        try {
+            inFlight.remove(key);
+            // 同 key 的后续记录可能因为本 key 在执行而被跳过，这里唤醒工作线程重新检查
+            notEmpty.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void workLoop() {
+        while (running) {
+            PendingMutation mutation;
+            try {
+                mutation = take();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            try {
+                execute(mutation);
+            } finally {
+                release(mutation.key);
+            }
+        }
+    }
+
+    private void execute(PendingMutation mutation) {
+        long lag = System.currentTimeMillis() - mutation.enqueueTime;
+        lastLagMillis.set(lag);
+        maxLagMillis.accumulateAndGet(lag, Math::max);
+        mutation.attempts++;
+        try {
+            graphStore.relink(Collections.singletonList(mutation.key));
+            completedCount.incrementAndGet();
+        } catch (Exception e) {
+            handleFailure(mutation, e);
+        }
+    }
+
+    private void handleFailure(PendingMutation mutation, Exception e) {
+        boolean retryable = !(e instanceof BusinessException)
+                || ((BusinessException) e).getCode() == ErrorCode.SYSTEM_ERROR.getCode();
+        if (!retryable || mutation.attempts >= maxAttempts || !running) {
+            droppedCount.incrementAndGet();
+            log.error("图谱写操作最终失败，已放弃: key={}, attempts={}", mutation.key, mutation.attempts, e);
+            return;
+        }
+        long backoff = backoff(mutation.attempts);
+        retriedCount.incrementAndGet();
+        log.warn("图谱写操作失败，{} ms 后重试 (第 {} 次): key={}, error={}", backoff, mutation.attempts, mutation.key, e.getMessage());
+        retryScheduler.schedule(() -> {
+            if (!offer(mutation)) {
+                defer(mutation);
+            }
+        }, backoff, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * 一个节点上待执行的自动关联
+     */
+    private static class PendingMutation {
+        private final String key;
+        private final long enqueueTime = System.currentTimeMillis();
+        private int attempts;
+        private int deferrals;
+
+        private PendingMutation(String key) {
+            this.key = key;
+        }
+    }
+}
+// END OF FILE: src/main/java/com/scy/mytemplate/manager/GraphMutationExecutor.java
@@ -0,0 +1,146 @@
+// FILE: src/main/java/com/scy/mytemplate/manager/GraphOutbox.java
+package com.scy.mytemplate.manager;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.scy.mytemplate.common.ErrorCode;
+import com.scy.mytemplate.exception.BusinessException;
+import com.scy.mytemplate.mapper.GraphOutboxMapper;
+import com.scy.mytemplate.model.dto.node.NodeCreateRequest;
+import com.scy.mytemplate.model.entity.GraphOutboxEntry;
+import lombok.Data;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.annotation.Resource;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 知识图谱写操作发件箱。
+ * 业务代码在修改 Images/Folders 的同一个 MySQL 事务中调用本组件，图谱写操作以记录的形式写入 GraphOutbox 表：
+ * 事务回滚则记录随之消失，事务提交则记录一定会被 {@link GraphOutboxRelay} 投递到 Neo4j，请求延迟不再依赖 Neo4j。
+ * 大批量的操作按 graph.ingest.chunk-size 拆成多条记录，单条记录的参数大小有上限。
+ *
+ * @author Bedrock
+ */
+@Component
+@Slf4j
+public class GraphOutbox {
+
+    public static final String OP_CREATE_NODES = "CREATE_NODES";
+
+    public static final String OP_DELETE_NODES = "DELETE_NODES";
+
+    public static final String OP_UPDATE_NODES = "UPDATE_NODES";
+
+    public static final int STATUS_PENDING = 0;
+
+    public static final int STATUS_DEAD = 1;
+
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Resource
+    private GraphOutboxMapper graphOutboxMapper;
+
+    @Resource
+    private GraphOutboxRelay graphOutboxRelay;
+
+    @Value("${graph.ingest.chunk-size:500}")
+    private int entrySize;
+
+    /**
+     * 登记节点创建（只创建不存在的节点，重放或迟到的创建不会覆盖已有节点的属性），投递时会对节点执行自动关联
+     *
+     * @param requests 节点名称与属性
+     */
+    public void createNodes(List<NodeCreateRequest> requests) {
+        for (int from = 0; from < requests.size(); from += entrySize) {
+            List<NodeCreateRequest> chunk = requests.subList(from, Math.min(from + entrySize, requests.size()));
+            append(OP_CREATE_NODES, new ArrayList<>(chunk), chunk.size());
+        }
+    }
+
+    /**
+     * 登记节点删除（节点不存在时什么也不做，重放安全）
+     *
+     * @param nodeNames 节点名称
+     */
+    public void deleteNodes(Collection<String> nodeNames) {
+        List<String> names = new ArrayList<>(nodeNames);
+        for (int from = 0; from < names.size(); from += entrySize) {
+            List<String> chunk = names.subList(from, Math.min(from + entrySize, names.size()));
+            append(OP_DELETE_NODES, new ArrayList<>(chunk), chunk.size());
+        }
+    }
+
+    /**
+     * 登记节点属性更新（SET 与 REMOVE 均为幂等操作），如文件夹合并后的权限变更。
+     * 投递顺序在此前已提交的创建记录之后，不会被尚未投递的创建跳过
+     *
+     * @param nodeNames        节点名称
+     * @param setProperties    要设置的属性
+     * @param removeProperties 要移除的属性名
+     */
+    public void updateNodes(Collection<String> nodeNames, Map<String, Object> setProperties, Collection<String> removeProperties) {
+        List<String> names = new ArrayList<>(nodeNames);
+        for (int from = 0; from < names.size(); from += entrySize) {
+            UpdatePayload payload = new UpdatePayload();
+            payload.setNames(new ArrayList<>(names.subList(from, Math.min(from + entrySize, names.size()))));
+            payload.setSetProperties(setProperties);
+            payload.setRemoveProperties(new ArrayList<>(removeProperties));
+            append(OP_UPDATE_NODES, payload, payload.getNames().size());
+        }
+    }
+
+    private void append(String operation, Object payload, int itemCount) {
+        if (itemCount == 0) {
+            return;
+        }
+        GraphOutboxEntry entry = new GraphOutboxEntry();
+        entry.setOperation(operation);
+        try {
+            entry.setPayload(objectMapper.writeValueAsString(payload));
+        } catch (JsonProcessingException e) {
+            log.error("序列化图谱写操作失败: {}", operation, e);
+            throw new BusinessException(ErrorCode.SYSTEM_ERROR, "登记知识图谱写操作失败");
+        }
+        entry.setItemCount(itemCount);
+        entry.setStatus(STATUS_PENDING);
+        entry.setAttempts(0);
+        graphOutboxMapper.insert(entry);
+        wakeRelayAfterCommit();
+    }
+
+    /**
+     * 事务提交后立即唤醒投递线程，不必等到下一次轮询
+     */
+    private void wakeRelayAfterCommit() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    graphOutboxRelay.wakeUp();
+                }
+            });
+        } else {
+            graphOutboxRelay.wakeUp();
+        }
+    }
+
+    /**
+     * UPDATE_NODES 记录的参数
+     */
+    @Data
+    public static class UpdatePayload {
+        private List<String> names;
+        private Map<String, Object> setProperties;
+        private List<String> removeProperties;
+    }
+}
+// END OF FILE: src/main/java/com/scy/mytemplate/manager/GraphOutbox.java
@@ -0,0 +1,328 @@
+// FILE: src/main/java/com/scy/mytemplate/manager/GraphOutboxRelay.java
+package com.scy.mytemplate.manager;
+
+import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
+import com.baomidou.mybatisplus.core.conditions.update.UpdateWrapper;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.scy.mytemplate.common.ErrorCode;
+import com.scy.mytemplate.exception.BusinessException;
+import com.scy.mytemplate.manager.GraphOutbox.UpdatePayload;
+import com.scy.mytemplate.mapper.GraphOutboxMapper;
+import com.scy.mytemplate.model.dto.node.NodeCreateRequest;
+import com.scy.mytemplate.model.entity.GraphOutboxEntry;
+import com.scy.mytemplate.model.vo.GraphOutboxStatsVO;
+import com.scy.mytemplate.service.GraphService;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.annotation.Resource;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
+
+/**
+ * 知识图谱发件箱投递线程。
+ * 单线程按 id 顺序读取 GraphOutbox 中的待投递记录，把相邻的同类记录（创建或删除）合并成一次投递，
+ * 由 GraphService 按分块 UNWIND 写入 Neo4j；投递成功后删除这些记录，删除即断点，重启后从剩余的最小 id 继续。
+ * <ul>
+ *     <li>按 status + id 读取而不是记录"已投递到的 id"：并发事务的自增 id 可能晚于更大的 id 提交，不会因此漏投。</li>
+ *     <li>Neo4j 不可用等可重试的失败按指数退避重试，期间后续记录不会越过失败的记录，保证同一节点的操作顺序。</li>
+ *     <li>参数错误等不可重试的失败先拆成单条逐一投递，仍然失败的记录标记为搁置，不再阻塞后续投递。</li>
+ *     <li>graph.outbox.relay-enabled 控制本实例是否投递；多实例部署时只在一个实例（或专门的投递实例）上开启。</li>
+ * </ul>
+ *
+ * @author Bedrock
+ */
+@Component
+@Slf4j
+public class GraphOutboxRelay {
+
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+
+    private static final int MAX_ERROR_LENGTH = 500;
+
+    @Resource
+    private GraphOutboxMapper graphOutboxMapper;
+
+    @Resource
+    private GraphService graphService;
+
+    @Value("${graph.outbox.relay-enabled:true}")
+    private boolean relayEnabled;
+
+    @Value("${graph.outbox.batch-size:200}")
+    private int batchSize;
+
+    @Value("${graph.outbox.max-items-per-delivery:5000}")
+    private int maxItemsPerDelivery;
+
+    @Value("${graph.outbox.poll-interval-ms:1000}")
+    private long pollIntervalMs;
+
+    @Value("${graph.outbox.initial-backoff-ms:500}")
+    private long initialBackoffMs;
+
+    @Value("${graph.outbox.max-backoff-ms:30000}")
+    private long maxBackoffMs;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition signal = lock.newCondition();
+    private boolean signalled;
+
+    private final AtomicLong deliveries = new AtomicLong();
+    private final AtomicLong relayedEntries = new AtomicLong();
+    private final AtomicLong relayedItems = new AtomicLong();
+    private final AtomicLong failedDeliveries = new AtomicLong();
+    private final AtomicLong deadEntries = new AtomicLong();
+    private final AtomicLong lastLagMillis = new AtomicLong();
+    private final AtomicLong maxLagMillis = new AtomicLong();
+
+    private Thread worker;
+    private volatile boolean running;
+
+    @PostConstruct
+    public void start() {
+        if (!relayEnabled) {
+            log.info("本实例未开启知识图谱发件箱投递");
+            return;
+        }
+        running = true;
+        worker = new Thread(this::relayLoop, "graph-outbox-relay");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        if (worker != null) {
+            worker.interrupt();
+        }
+    }
+
+    /**
+     * 通知投递线程有新的记录提交
+     */
+    public void wakeUp() {
+        lock.lock();
+        try {
+            signalled = true;
+            signal.signal();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 将搁置的记录重新放回待投递状态（修复数据或 Neo4j 后由管理员触发）
+     *
+     * @return 重新放回的记录数
+     */
+    public int requeueDead() {
+        int requeued = graphOutboxMapper.update(null, new UpdateWrapper<GraphOutboxEntry>()
+                .eq("status", GraphOutbox.STATUS_DEAD)
+                .set("status", GraphOutbox.STATUS_PENDING)
+                .set("attempts", 0));
+        wakeUp();
+        return requeued;
+    }
+
+    /**
+     * 发件箱积压与投递指标
+     */
+    public GraphOutboxStatsVO getStats() {
+        GraphOutboxStatsVO stats = new GraphOutboxStatsVO();
+        stats.setRelayEnabled(relayEnabled);
+        stats.setPending(graphOutboxMapper.selectCount(new QueryWrapper<GraphOutboxEntry>()
+                .eq("status", GraphOutbox.STATUS_PENDING)));
+        stats.setDead(graphOutboxMapper.selectCount(new QueryWrapper<GraphOutboxEntry>()
+                .eq("status", GraphOutbox.STATUS_DEAD)));
+        List<GraphOutboxEntry> oldest = graphOutboxMapper.selectList(new QueryWrapper<GraphOutboxEntry>()
+                .select("id", "createTime")
+                .eq("status", GraphOutbox.STATUS_PENDING)
+                .orderByAsc("id")
+                .last("LIMIT 1"));
+        stats.setOldestPendingLagMillis(oldest.isEmpty() ? 0 : System.currentTimeMillis() - oldest.get(0).getCreateTime().getTime());
+        stats.setDeliveries(deliveries.get());
+        stats.setRelayedEntries(relayedEntries.get());
+        stats.setRelayedItems(relayedItems.get());
+        stats.setFailedDeliveries(failedDeliveries.get());
+        stats.setDeadEntries(deadEntries.get());
+        stats.setLastLagMillis(lastLagMillis.get());
+        stats.setMaxLagMillis(maxLagMillis.get());
+        return stats;
+    }
+
+    private void relayLoop() {
+        int consecutiveFailures = 0;
+        while (running) {
+            long waitMs;
+            try {
+                waitMs = relayBatch() ? 0 : pollIntervalMs;
+                consecutiveFailures = 0;
+            } catch (Exception e) {
+                consecutiveFailures++;
+                waitMs = Math.min(maxBackoffMs, initialBackoffMs << Math.min(consecutiveFailures - 1, 20));
+                log.warn("知识图谱发件箱投递失败，{} ms 后重试 (连续第 {} 次): {}", waitMs, consecutiveFailures, e.getMessage());
+            }
+            // 退避期间不响应新提交的通知，避免 Neo4j 不可用时被持续的写入频繁唤醒
+            if (waitMs > 0 && !await(waitMs, consecutiveFailures == 0)) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * 等待新的提交通知或超时；线程被中断时返回 false
+     */
+    private boolean await(long millis, boolean wakeOnSignal) {
+        long nanos = TimeUnit.MILLISECONDS.toNanos(millis);
+        lock.lock();
+        try {
+            while (!(wakeOnSignal && signalled) && nanos > 0) {
+                nanos = signal.awaitNanos(nanos);
+            }
+            signalled = false;
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 投递一批记录
+     *
+     * @return 是否读满了一批（可能还有积压，应立即继续）
+     */
+    private boolean relayBatch() {
+        List<GraphOutboxEntry> batch = graphOutboxMapper.selectList(new QueryWrapper<GraphOutboxEntry>()
+                .eq("status", GraphOutbox.STATUS_PENDING)
+                .orderByAsc("id")
+                .last("LIMIT " + batchSize));
+        int from = 0;
+        while (from < batch.size()) {
+            int to = from + 1;
+            int items = batch.get(from).getItemCount();
+            while (to < batch.size() && coalescible(batch.get(from), batch.get(to))
+                    && items + batch.get(to).getItemCount() <= maxItemsPerDelivery) {
+                items += batch.get(to).getItemCount();
+                to++;
+            }
+            deliverGroup(batch.subList(from, to));
+            from = to;
+        }
+        return batch.size() == batchSize;
+    }
+
+    /**
+     * 相邻的创建记录或相邻的删除记录可以合并投递；属性更新的参数各不相同，逐条投递
+     */
+    private boolean coalescible(GraphOutboxEntry first, GraphOutboxEntry next) {
+        return first.getOperation().equals(next.getOperation())
+                && !GraphOutbox.OP_UPDATE_NODES.equals(first.getOperation());
+    }
+
+    private void deliverGroup(List<GraphOutboxEntry> group) {
+        try {
+            deliver(group);
+        } catch (Exception e) {
+            failedDeliveries.incrementAndGet();
+            if (isRetryable(e)) {
+                recordFailure(group.get(0), e, false);
+                throw e instanceof RuntimeException ? (RuntimeException) e : new IllegalStateException(e);
+            }
+            if (group.size() == 1) {
+                recordFailure(group.get(0), e, true);
+                return;
+            }
+            // 合并投递因参数错误失败时拆开逐条投递，只搁置真正有问题的记录
+            for (GraphOutboxEntry entry : group) {
+                deliverGroup(Collections.singletonList(entry));
+            }
+            return;
+        }
+        List<Long> ids = group.stream().map(GraphOutboxEntry::getId).collect(Collectors.toList());
+        graphOutboxMapper.deleteBatchIds(ids);
+        long lag = System.currentTimeMillis() - group.get(0).getCreateTime().getTime();
+        lastLagMillis.set(lag);
+        maxLagMillis.accumulateAndGet(lag, Math::max);
+        deliveries.incrementAndGet();
+        relayedEntries.addAndGet(group.size());
+        relayedItems.addAndGet(group.stream().mapToInt(GraphOutboxEntry::getItemCount).sum());
+    }
+
+    private void deliver(List<GraphOutboxEntry> group) throws IOException {
+        String operation = group.get(0).getOperation();
+        switch (operation) {
+            case GraphOutbox.OP_CREATE_NODES: {
+                List<NodeCreateRequest> requests = new ArrayList<>();
+                for (GraphOutboxEntry entry : group) {
+                    requests.addAll(objectMapper.readValue(entry.getPayload(), new TypeReference<List<NodeCreateRequest>>() {
+                    }));
+                }
+                graphService.createNodesBatch(requests, true);
+                break;
+            }
+            case GraphOutbox.OP_DELETE_NODES: {
+                List<String> names = new ArrayList<>();
+                for (GraphOutboxEntry entry : group) {
+                    names.addAll(objectMapper.readValue(entry.getPayload(), new TypeReference<List<String>>() {
+                    }));
+                }
+                graphService.deleteNodes(names);
+                break;
+            }
+            case GraphOutbox.OP_UPDATE_NODES: {
+                UpdatePayload payload = objectMapper.readValue(group.get(0).getPayload(), UpdatePayload.class);
+                graphService.updateNodePermissionsBatch(payload.getNames(), payload.getSetProperties(), payload.getRemoveProperties());
+                break;
+            }
+            default:
+                throw new BusinessException(ErrorCode.PARAMS_ERROR, "未知的图谱操作: " + operation);
+        }
+    }
+
+    /**
+     * 只有系统错误（Neo4j 不可用、超时等）值得重试；参数错误与无法解析的记录重试也不会成功
+     */
+    private boolean isRetryable(Exception e) {
+        if (e instanceof IOException) {
+            return false;
+        }
+        return !(e instanceof BusinessException) || ((BusinessException) e).getCode() == ErrorCode.SYSTEM_ERROR.getCode();
+    }
+
+    private void recordFailure(GraphOutboxEntry entry, Exception e, boolean dead) {
+        if (dead) {
+            deadEntries.incrementAndGet();
+            log.error("知识图谱发件箱记录无法投递，已搁置: id={}, operation={}", entry.getId(), entry.getOperation(), e);
+        }
+        UpdateWrapper<GraphOutboxEntry> wrapper = new UpdateWrapper<GraphOutboxEntry>()
+                .eq("id", entry.getId())
+                .setSql("attempts = attempts + 1")
+                .set("lastError", StringUtils.abbreviate(String.valueOf(e.getMessage()), MAX_ERROR_LENGTH));
+        if (dead) {
+            wrapper.set("status", GraphOutbox.STATUS_DEAD);
+        }
+        try {
+            graphOutboxMapper.update(null, wrapper);
+        } catch (Exception updateError) {
+            log.warn("记录发件箱投递失败信息时出错: id={}", entry.getId(), updateError);
+        }
+    }
+}
+// END OF FILE: src/main/java/com/scy/mytemplate/manager/GraphOutboxRelay.java
@@ -0,0 +1,248 @@
+// FILE: src/main/java/com/scy/mytemplate/manager/GraphSchemaManager.java
+package com.scy.mytemplate.manager;
+
+import com.scy.mytemplate.model.vo.GraphSchemaItemVO;
+import com.scy.mytemplate.model.vo.GraphSchemaStatusVO;
+import lombok.extern.slf4j.Slf4j;
+import org.neo4j.driver.Driver;
+import org.neo4j.driver.Record;
+import org.neo4j.driver.Session;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.Resource;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * 图谱约束与索引管理。
+ * 应用启动完成后统一创建查询依赖的约束和索引，并等待它们进入 ONLINE 状态，先于其他启动任务（如倒排索引补建）执行。
+ * 语句均为 IF NOT EXISTS 形式，可重复执行；单条失败只记录日志，不影响应用启动，当前状态可通过管理接口查看。
+ *
+ * @author Bedrock
+ */
+@Component
+@Slf4j
+public class GraphSchemaManager {
+
+    private static final String KIND_CONSTRAINT = "constraint";
+    private static final String KIND_INDEX = "index";
+
+    private static final String VALUE_KEY_CONSTRAINT = "property_value_value_key_unique";
+
+    /**
+     * 期望存在的约束和索引。
+     * 节点名称唯一约束同时提供 name 上的索引；可见性谓词按 space / ownerUserId / ownerOrganizationId 过滤节点；
+     * 自动关联按 valueKey MERGE 枢纽节点，唯一约束让并发的 MERGE 取得约束锁，同一取值只会有一个枢纽节点。
+     * 枢纽节点使用单属性约束而不是 (key, value) 复合唯一约束，后者在 Neo4j 4.4 上不可用。
+     */
+    private static final List<SchemaItem> SCHEMA_ITEMS = List.of(
+            new SchemaItem("circuit_node_name_unique", KIND_CONSTRAINT,
+                    "CREATE CONSTRAINT circuit_node_name_unique IF NOT EXISTS FOR (n:CircuitNode) REQUIRE n.name IS UNIQUE"),
+            new SchemaItem("circuit_node_space", KIND_INDEX,
+                    "CREATE INDEX circuit_node_space IF NOT EXISTS FOR (n:CircuitNode) ON (n.space)"),
+            new SchemaItem("circuit_node_owner_user", KIND_INDEX,
+                    "CREATE INDEX circuit_node_owner_user IF NOT EXISTS FOR (n:CircuitNode) ON (n.ownerUserId)"),
+            new SchemaItem("circuit_node_owner_organization", KIND_INDEX,
+                    "CREATE INDEX circuit_node_owner_organization IF NOT EXISTS FOR (n:CircuitNode) ON (n.ownerOrganizationId)"),
+            new SchemaItem(VALUE_KEY_CONSTRAINT, KIND_CONSTRAINT,
+                    "CREATE CONSTRAINT " + VALUE_KEY_CONSTRAINT + " IF NOT EXISTS FOR (pv:PropertyValue) REQUIRE pv.valueKey IS UNIQUE")
+    );
+
+    /**
+     * 旧版本按 (key, value) 建立的普通索引，valueKey 唯一约束上线后才删除，约束建立失败时继续保留
+     */
+    private static final String DROP_LEGACY_VALUE_INDEX = "DROP INDEX property_value_key_value IF EXISTS";
+
+    private static final String CREATE_LEGACY_VALUE_INDEX =
+            "CREATE INDEX property_value_key_value IF NOT EXISTS FOR (pv:PropertyValue) ON (pv.key, pv.value)";
+
+    /**
+     * 为旧版本创建的枢纽节点补写 valueKey，与 {@link AutoRelationshipManager} 合并枢纽节点时的取值一致
+     */
+    private static final String BACKFILL_VALUE_KEY_QUERY =
+            "CALL apoc.periodic.iterate(" +
+                    "'MATCH (pv:PropertyValue) WHERE pv.valueKey IS NULL RETURN pv', " +
+                    "'SET pv.valueKey = apoc.convert.toJson([pv.key, pv.value])', " +
+                    "{batchSize: 10000})";
+
+    /**
+     * 合并没有约束时并发 MERGE 产生的重复枢纽节点，返回挂在被合并枢纽上的节点名称以便重新关联
+     */
+    private static final String MERGE_DUPLICATE_VALUES_QUERY =
+            "MATCH (pv:PropertyValue) " +
+                    "WITH pv.valueKey AS valueKey, collect(pv) AS hubs WHERE size(hubs) > 1 " +
+                    "CALL apoc.refactor.mergeNodes(hubs, {properties: 'discard', mergeRels: true}) YIELD node " +
+                    "MATCH (n:CircuitNode)-[:HAS_VALUE]->(node) " +
+                    "RETURN collect(DISTINCT n.name) AS names";
+
+    @Resource
+    private Driver driver;
+
+    @Resource
+    private AutoRelationshipManager autoRelationshipManager;
+
+    @Value("${graph.schema.await-timeout-seconds:300}")
+    private long awaitTimeoutSeconds;
+
+    @Value("${graph.store.type:neo4j}")
+    private String storeType;
+
+    private volatile String lastError;
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void onApplicationReady() {
+        // 进程内图谱存储没有约束和索引需要创建
+        if ("neo4j".equals(storeType)) {
+            ensureSchema();
+        }
+    }
+
+    /**
+     * 创建缺失的约束和索引，并等待全部进入 ONLINE 状态
+     */
+    public void ensureSchema() {
+        List<String> errors = new ArrayList<>();
+        try (Session session = driver.session()) {
+            prepareValueHubs(session, errors);
+            for (SchemaItem item : SCHEMA_ITEMS) {
+                try {
+                    session.run(item.statement).consume();
+                } catch (Exception e) {
+                    // 常见原因：历史数据中存在重名节点，唯一约束无法建立
+                    log.error("创建图谱{}失败: {}", item.kind, item.statement, e);
+                    errors.add(item.name + ": " + e.getMessage());
+                }
+            }
+            try {
+                session.run("CALL db.awaitIndexes($timeout)", Map.of("timeout", awaitTimeoutSeconds)).consume();
+            } catch (Exception e) {
+                log.error("等待图谱索引上线超时或失败", e);
+                errors.add("awaitIndexes: " + e.getMessage());
+            }
+        } catch (Exception e) {
+            log.error("初始化图谱约束与索引失败", e);
+            errors.add(e.getMessage());
+        }
+        GraphSchemaStatusVO status = getStatus();
+        reconcileLegacyValueIndex(status, errors);
+        lastError = errors.isEmpty() ? null : String.join("; ", errors);
+        if (status.isReady()) {
+            log.info("图谱约束与索引已就绪，共 {} 项。", SCHEMA_ITEMS.size());
+        } else {
+            log.warn("图谱约束与索引未全部就绪: {}", status.getItems().stream()
+                    .filter(item -> !item.isPresent() || !"ONLINE".equals(item.getState()))
+                    .map(GraphSchemaItemVO::getName)
+                    .collect(Collectors.toList()));
+        }
+    }
+
+    /**
+     * 建立枢纽节点唯一约束之前的迁移：补写 valueKey，合并重复的枢纽节点，并重新关联受影响的节点补齐此前漏建的关系
+     */
+    private void prepareValueHubs(Session session, List<String> errors) {
+        try {
+            session.run(BACKFILL_VALUE_KEY_QUERY).consume();
+            List<String> names = session.writeTransaction(tx -> tx.run(MERGE_DUPLICATE_VALUES_QUERY)
+                    .single().get("names").asList(v -> v.asString()));
+            if (!names.isEmpty()) {
+                log.info("已合并重复的属性值枢纽节点，重新关联 {} 个节点", names.size());
+                autoRelationshipManager.relink(names);
+            }
+        } catch (Exception e) {
+            log.error("合并重复的属性值枢纽节点失败", e);
+            errors.add("prepareValueHubs: " + e.getMessage());
+        }
+    }
+
+    /**
+     * valueKey 唯一约束确认上线后删除旧的 (key, value) 索引；约束未上线时保留（或重新创建）旧索引，枢纽节点查找不会退化为标签扫描
+     */
+    private void reconcileLegacyValueIndex(GraphSchemaStatusVO status, List<String> errors) {
+        boolean replacementOnline = status.getItems().stream()
+                .anyMatch(item -> VALUE_KEY_CONSTRAINT.equals(item.getName()) && item.isPresent() && "ONLINE".equals(item.getState()));
+        try (Session session = driver.session()) {
+            if (replacementOnline) {
+                session.run(DROP_LEGACY_VALUE_INDEX).consume();
+            } else {
+                log.warn("属性值枢纽节点唯一约束 {} 尚未上线，保留旧索引 property_value_key_value", VALUE_KEY_CONSTRAINT);
+                session.run(CREATE_LEGACY_VALUE_INDEX).consume();
+            }
+        } catch (Exception e) {
+            log.error("调整旧的属性值索引失败", e);
+            errors.add("legacyValueIndex: " + e.getMessage());
+        }
+    }
+
+    /**
+     * 查询各约束和索引在数据库中的当前状态
+     */
+    public GraphSchemaStatusVO getStatus() {
+        List<String> names = SCHEMA_ITEMS.stream().map(item -> item.name).collect(Collectors.toList());
+        Map<String, Record> indexes = new HashMap<>();
+        Set<String> constraints = new HashSet<>();
+        String error = lastError;
+        try (Session session = driver.session()) {
+            // 唯一约束的后备索引与约束同名，因此约束的上线状态也从 SHOW INDEXES 中读取
+            session.run("SHOW INDEXES YIELD name, state, populationPercent WHERE name IN $names", Map.of("names", names))
+                    .forEachRemaining(record -> indexes.put(record.get("name").asString(), record));
+            session.run("SHOW CONSTRAINTS YIELD name WHERE name IN $names", Map.of("names", names))
+                    .forEachRemaining(record -> constraints.add(record.get("name").asString()));
+        } catch (Exception e) {
+            log.error("查询图谱约束与索引状态失败", e);
+            error = e.getMessage();
+        }
+
+        List<GraphSchemaItemVO> items = new ArrayList<>();
+        boolean ready = true;
+        for (SchemaItem item : SCHEMA_ITEMS) {
+            GraphSchemaItemVO vo = new GraphSchemaItemVO();
+            vo.setName(item.name);
+            vo.setKind(item.kind);
+            vo.setStatement(item.statement);
+            Record index = indexes.get(item.name);
+            boolean present = index != null && (!KIND_CONSTRAINT.equals(item.kind) || constraints.contains(item.name));
+            vo.setPresent(present);
+            if (index != null) {
+                vo.setState(index.get("state").asString());
+                vo.setPopulationPercent(index.get("populationPercent").asDouble());
+            }
+            ready &= present && "ONLINE".equals(vo.getState());
+            items.add(vo);
+        }
+
+        GraphSchemaStatusVO status = new GraphSchemaStatusVO();
+        status.setReady(ready);
+        status.setItems(items);
+        status.setLastError(error);
+        status.setCheckedTime(new Date());
+        return status;
+    }
+
+    /**
+     * 一项期望存在的约束或索引
+     */
+    private static class SchemaItem {
+        private final String name;
+        private final String kind;
+        private final String statement;
+
+        private SchemaItem(String name, String kind, String statement) {
+            this.name = name;
+            this.kind = kind;
+            this.statement = statement;
+        }
+    }
+}
+// END OF FILE: src/main/java/com/scy/mytemplate/manager/GraphSchemaManager.java
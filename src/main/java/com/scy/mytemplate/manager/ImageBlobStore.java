@@ -0,0 +1,393 @@
+// FILE: src/main/java/com/scy/mytemplate/manager/ImageBlobStore.java
+package com.scy.mytemplate.manager;
+
+import cn.hutool.core.util.HexUtil;
+import com.scy.mytemplate.common.ErrorCode;
+import com.scy.mytemplate.exception.BusinessException;
+import com.scy.mytemplate.manager.ImageIngestPipeline.Stage;
+import com.scy.mytemplate.mapper.ImageBlobMapper;
+import com.scy.mytemplate.model.entity.Image;
+import com.scy.mytemplate.model.entity.ImageBlob;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.multipart.MultipartFile;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.Resource;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * 内容寻址的图片文件存储。
+ * 物理文件按内容的 SHA-256 保存在 {upload-dir}/blobs/xx/yy/hash，相同内容只保存一份；
+ * ImageBlobs 表记录每个文件被多少张未删除的图片引用。复制和重复上传只增加引用计数，
+ * 删除图片只减少引用计数，计数归零超过宽限期的文件由定时任务回收。
+ * <p>
+ * 并发约定：引用计数的增减都在调用方的事务中执行，ImageBlobs 行锁一直持有到事务结束；
+ * 回收任务在持有同一行锁的事务中删除文件，因此不会删掉刚被重新引用的文件。
+ *
+ * @author Bedrock
+ */
+@Component
+@Slf4j
+public class ImageBlobStore {
+
+    private static final String BLOB_DIR = "blobs";
+
+    private static final String STAGING_DIR = "staging";
+
+    /**
+     * 批量增减引用计数时每条语句的记录数
+     */
+    private static final int ACQUIRE_BATCH_SIZE = 500;
+
+    @Resource
+    private ImageBlobMapper imageBlobMapper;
+
+    @Resource
+    private PlatformTransactionManager transactionManager;
+
+    @Resource
+    private ImageIngestPipeline imageIngestPipeline;
+
+    @Value("${file.upload-dir}")
+    private String uploadDir;
+
+    @Value("${file.blob.orphan-grace-minutes:30}")
+    private long orphanGraceMinutes;
+
+    @Value("${file.blob.sweep-batch-size:500}")
+    private int sweepBatchSize;
+
+    /**
+     * 回收与回滚清理使用独立事务，不受调用方事务状态影响
+     */
+    private TransactionTemplate requiresNewTemplate;
+
+    @PostConstruct
+    public void init() {
+        requiresNewTemplate = new TransactionTemplate(transactionManager);
+        requiresNewTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    // region 写入
+
+    /**
+     * 把上传文件写入暂存区并计算 SHA-256，暂存文件需随后 {@link #commit} 或 {@link #discard}
+     */
+    public StagedBlob stage(MultipartFile file) throws IOException {
+        try (InputStream input = file.getInputStream()) {
+            return stage(input);
+        }
+    }
+
+    /**
+     * 把已有的物理文件（如历史图片）复制到暂存区并计算 SHA-256
+     */
+    public StagedBlob stage(Path source) throws IOException {
+        try (InputStream input = Files.newInputStream(source)) {
+            return stage(input);
+        }
+    }
+
+    /**
+     * 在当前事务内把暂存文件登记为正式文件，引用计数加一。
+     * 相同内容的文件已存在时直接丢弃暂存文件；事务回滚且该文件不再被引用时，回滚后删除新放入的文件。
+     */
+    public void commit(StagedBlob staged) {
+        imageBlobMapper.acquire(staged.getHash(), staged.getSize(), 1);
+        Path target = blobPath(staged.getHash());
+        boolean created = false;
+        try {
+            if (Files.exists(target)) {
+                Files.deleteIfExists(staged.getFile());
+            } else {
+                Files.createDirectories(target.getParent());
+                Files.move(staged.getFile(), target, StandardCopyOption.ATOMIC_MOVE);
+                created = true;
+            }
+        } catch (IOException e) {
+            log.error("保存内容寻址文件失败: {}", target, e);
+            throw new BusinessException(ErrorCode.SYSTEM_ERROR, "文件保存失败");
+        }
+        if (created) {
+            afterCompletion(committed -> {
+                if (!committed) {
+                    reclaimIfUnreferenced(staged.getHash());
+                }
+            });
+        }
+    }
+
+    /**
+     * 丢弃尚未登记的暂存文件，已经登记过的暂存文件不受影响
+     */
+    public void discard(StagedBlob staged) {
+        if (staged == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(staged.getFile());
+        } catch (IOException e) {
+            log.warn("删除暂存文件失败: {}", staged.getFile(), e);
+        }
+    }
+
+    // endregion
+
+    // region 引用计数
+
+    /**
+     * 在当前事务内为一批图片引用的文件各增加一次引用（复制图片时使用），历史图片会被忽略
+     */
+    public void retain(Collection<Image> images) {
+        List<ImageBlob> rows = countByHash(images);
+        for (int from = 0; from < rows.size(); from += ACQUIRE_BATCH_SIZE) {
+            imageBlobMapper.acquireAll(rows.subList(from, Math.min(from + ACQUIRE_BATCH_SIZE, rows.size())));
+        }
+    }
+
+    /**
+     * 在当前事务内释放一张图片对物理文件的引用
+     */
+    public void release(Image image) {
+        release(Collections.singletonList(image));
+    }
+
+    /**
+     * 在当前事务内释放一批图片对物理文件的引用，同一文件的多次引用合并为一次扣减。
+     * 历史图片独占自己的文件，事务提交后在落盘线程池中异步删除，不占用请求线程。
+     */
+    public void release(Collection<Image> images) {
+        List<ImageBlob> rows = countByHash(images);
+        for (int from = 0; from < rows.size(); from += ACQUIRE_BATCH_SIZE) {
+            imageBlobMapper.releaseAll(rows.subList(from, Math.min(from + ACQUIRE_BATCH_SIZE, rows.size())));
+        }
+        List<Path> legacyFiles = new ArrayList<>();
+        for (Image image : images) {
+            if (image.getBlobHash() == null) {
+                legacyFiles.add(resolve(image));
+            }
+        }
+        if (legacyFiles.isEmpty()) {
+            return;
+        }
+        afterCompletion(committed -> {
+            if (committed) {
+                imageIngestPipeline.supply(Stage.DISK, () -> deleteLegacyFiles(legacyFiles));
+            }
+        });
+    }
+
+    private int deleteLegacyFiles(List<Path> legacyFiles) {
+        int deleted = 0;
+        for (Path legacyFile : legacyFiles) {
+            try {
+                if (Files.deleteIfExists(legacyFile)) {
+                    deleted++;
+                }
+            } catch (IOException e) {
+                log.error("删除物理文件失败: {}", legacyFile, e);
+            }
+        }
+        return deleted;
+    }
+
+    /**
+     * 按内容哈希汇总引用次数，每条记录的 refCount 字段即为增减量，历史图片会被忽略
+     */
+    private List<ImageBlob> countByHash(Collection<Image> images) {
+        Map<String, ImageBlob> deltas = new LinkedHashMap<>();
+        for (Image image : images) {
+            if (image.getBlobHash() == null) {
+                continue;
+            }
+            ImageBlob delta = deltas.computeIfAbsent(image.getBlobHash(), hash -> {
+                ImageBlob blob = new ImageBlob();
+                blob.setHash(hash);
+                blob.setFileSize(image.getFileSize() == null ? 0L : image.getFileSize());
+                blob.setRefCount(0);
+                return blob;
+            });
+            delta.setRefCount(delta.getRefCount() + 1);
+        }
+        return new ArrayList<>(deltas.values());
+    }
+
+    // endregion
+
+    /**
+     * 图片对应的物理文件路径
+     */
+    public Path resolve(Image image) {
+        return resolve(image.getBlobHash(), image.getStoragePath());
+    }
+
+    /**
+     * 按内容哈希（历史图片为空）和存储路径定位物理文件
+     */
+    public Path resolve(String blobHash, String storagePath) {
+        if (blobHash != null) {
+            return blobPath(blobHash);
+        }
+        return Paths.get(uploadDir).resolve(storagePath).normalize();
+    }
+
+    /**
+     * 定期回收引用计数归零超过宽限期的文件，以及异常中断后遗留的暂存文件
+     */
+    @Scheduled(fixedDelayString = "${file.blob.sweep-interval-ms:600000}", initialDelay = 60000)
+    public void sweepOrphans() {
+        Date before = new Date(System.currentTimeMillis() - orphanGraceMinutes * 60 * 1000);
+        int reclaimed = 0;
+        for (String hash : imageBlobMapper.findOrphans(before, sweepBatchSize)) {
+            try {
+                Boolean deleted = requiresNewTemplate.execute(status -> {
+                    // 删除行与删除文件在同一事务中完成：期间其他事务的重新引用会等待行锁
+                    if (imageBlobMapper.deleteOrphan(hash, before) == 0) {
+                        return false;
+                    }
+                    deleteBlobFile(hash);
+                    return true;
+                });
+                if (Boolean.TRUE.equals(deleted)) {
+                    reclaimed++;
+                }
+            } catch (Exception e) {
+                log.warn("回收内容寻址文件 {} 失败，将在下一轮重试", hash, e);
+            }
+        }
+        int staleStaged = sweepStaging(before);
+        if (reclaimed > 0 || staleStaged > 0) {
+            log.info("内容寻址存储回收完成: 删除孤儿文件 {} 个, 过期暂存文件 {} 个", reclaimed, staleStaged);
+        }
+    }
+
+    private StagedBlob stage(InputStream input) throws IOException {
+        Path stagingDir = Paths.get(uploadDir, BLOB_DIR, STAGING_DIR);
+        Files.createDirectories(stagingDir);
+        Path temp = Files.createTempFile(stagingDir, "upload-", ".tmp");
+        MessageDigest digest = newDigest();
+        long size;
+        try (DigestInputStream digestInput = new DigestInputStream(input, digest)) {
+            size = Files.copy(digestInput, temp, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            Files.deleteIfExists(temp);
+            throw e;
+        }
+        return new StagedBlob(HexUtil.encodeHexStr(digest.digest()), size, temp);
+    }
+
+    /**
+     * 事务回滚后，若文件不再被任何图片引用则立即删除
+     */
+    private void reclaimIfUnreferenced(String hash) {
+        try {
+            requiresNewTemplate.execute(status -> {
+                ImageBlob blob = imageBlobMapper.selectForUpdate(hash);
+                if (blob != null && blob.getRefCount() > 0) {
+                    return null;
+                }
+                if (blob != null) {
+                    imageBlobMapper.deleteById(hash);
+                }
+                deleteBlobFile(hash);
+                return null;
+            });
+        } catch (Exception e) {
+            log.warn("回滚后清理内容寻址文件 {} 失败，将由定时任务回收", hash, e);
+        }
+    }
+
+    private void deleteBlobFile(String hash) {
+        try {
+            Files.deleteIfExists(blobPath(hash));
+        } catch (IOException e) {
+            throw new BusinessException(ErrorCode.SYSTEM_ERROR, "删除文件失败: " + e.getMessage());
+        }
+    }
+
+    private int sweepStaging(Date before) {
+        Path stagingDir = Paths.get(uploadDir, BLOB_DIR, STAGING_DIR);
+        if (!Files.isDirectory(stagingDir)) {
+            return 0;
+        }
+        int deleted = 0;
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(stagingDir)) {
+            for (Path file : files) {
+                if (Files.getLastModifiedTime(file).toMillis() < before.getTime() && Files.deleteIfExists(file)) {
+                    deleted++;
+                }
+            }
+        } catch (IOException e) {
+            log.warn("清理暂存目录失败: {}", stagingDir, e);
+        }
+        return deleted;
+    }
+
+    private Path blobPath(String hash) {
+        return Paths.get(uploadDir, BLOB_DIR, hash.substring(0, 2), hash.substring(2, 4), hash);
+    }
+
+    private void afterCompletion(Consumer<Boolean> action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    action.accept(status == STATUS_COMMITTED);
+                }
+            });
+        } else {
+            action.accept(true);
+        }
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * 已写入暂存区、尚未登记的文件
+     */
+    @Getter
+    public static class StagedBlob {
+        private final String hash;
+        private final long size;
+        private final Path file;
+
+        private StagedBlob(String hash, long size, Path file) {
+            this.hash = hash;
+            this.size = size;
+            this.file = file;
+        }
+    }
+}
+// END OF FILE: src/main/java/com/scy/mytemplate/manager/ImageBlobStore.java
@@ -0,0 +1,367 @@
+// FILE: src/main/java/com/scy/mytemplate/manager/ImageDownloadManager.java
+package com.scy.mytemplate.manager;
+
+import cn.hutool.cache.CacheUtil;
+import cn.hutool.cache.impl.LRUCache;
+import com.scy.mytemplate.common.ErrorCode;
+import com.scy.mytemplate.exception.BusinessException;
+import com.scy.mytemplate.mapper.ImageMapper;
+import com.scy.mytemplate.model.entity.Folder;
+import com.scy.mytemplate.model.entity.Image;
+import com.scy.mytemplate.model.entity.User;
+import com.scy.mytemplate.model.enums.PermissionEnum;
+import com.scy.mytemplate.service.PermissionService;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.Resource;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Collection;
+import java.util.Collections;
+
+/**
+ * 图片文件下载。
+ * 图片元数据（物理路径、大小、修改时间、ETag、文件名）按 imageId 缓存，权限判定走 {@link PermissionCacheManager}，
+ * 重复下载同一张图片不再访问数据库。响应支持：
+ * <ul>
+ *     <li>强 ETag：内容寻址文件使用内容哈希，历史文件使用 大小-修改时间</li>
+ *     <li>If-None-Match / If-Modified-Since 条件请求，命中时返回 304</li>
+ *     <li>单区间 Range / If-Range 请求，返回 206；多区间请求按完整文件返回</li>
+ *     <li>按文件夹空间区分 Cache-Control：平台公共空间允许共享缓存，其余空间只允许浏览器私有缓存并每次校验</li>
+ * </ul>
+ * 文件内容优先交给 Tomcat sendfile 由内核直接发送，连接器不支持 sendfile 时退回 FileChannel.transferTo。
+ *
+ * @author Bedrock
+ */
+@Component
+@Slf4j
+public class ImageDownloadManager {
+
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    private static final String BYTES_UNIT = "bytes";
+
+    private static final String PLATFORM_PUBLIC = "platform_public";
+
+    /**
+     * 不可满足的区间
+     */
+    private static final long[] UNSATISFIABLE = new long[0];
+
+    @Resource
+    private ImageMapper imageMapper;
+
+    @Resource
+    private ImageBlobStore imageBlobStore;
+
+    @Resource
+    private PermissionService permissionService;
+
+    @Resource
+    private PermissionCacheManager permissionCacheManager;
+
+    @Value("${file.download.meta-capacity:10000}")
+    private int metaCapacity;
+
+    @Value("${file.download.meta-ttl-seconds:300}")
+    private long metaTtlSeconds;
+
+    @Value("${file.download.public-max-age-seconds:86400}")
+    private long publicMaxAgeSeconds;
+
+    private LRUCache<String, ImageFile> metaCache;
+
+    @PostConstruct
+    public void init() {
+        metaCache = CacheUtil.newLRUCache(metaCapacity, metaTtlSeconds * 1000);
+    }
+
+    /**
+     * 解析图片的下载元数据并校验读权限
+     *
+     * @param imageId     图片ID
+     * @param currentUser 当前用户
+     * @return 下载元数据
+     */
+    public ImageFile resolve(String imageId, User currentUser) {
+        ImageFile file = metaCache.get(imageId, false);
+        if (file == null) {
+            file = load(imageId);
+            metaCache.put(imageId, file);
+        }
+        permissionService.checkNodePermission(file.getStoragePath(), currentUser, PermissionEnum.READ);
+        return file;
+    }
+
+    /**
+     * 图片被删除或改名后调用，在事务中调用时提交后再清除一次
+     */
+    public void evict(String imageId) {
+        evict(Collections.singletonList(imageId));
+    }
+
+    /**
+     * 一批图片被删除后调用，在事务中调用时提交后再清除一次
+     */
+    public void evict(Collection<String> imageIds) {
+        imageIds.forEach(metaCache::remove);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    imageIds.forEach(metaCache::remove);
+                }
+            });
+        }
+    }
+
+    /**
+     * 按条件请求与 Range 头写出响应，HEAD 请求只写响应头
+     */
+    public void send(ImageFile file, HttpServletRequest request, HttpServletResponse response) throws IOException {
+        response.setHeader(HttpHeaders.ETAG, file.getEtag());
+        response.setDateHeader(HttpHeaders.LAST_MODIFIED, file.getLastModified());
+        response.setHeader(HttpHeaders.CACHE_CONTROL, cacheControl(file));
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, BYTES_UNIT);
+
+        if (isNotModified(request, file)) {
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return;
+        }
+
+        long start = 0;
+        long end = file.getSize() - 1;
+        String range = request.getHeader(HttpHeaders.RANGE);
+        if (range != null && isRangeApplicable(request, file)) {
+            long[] parsed = parseRange(range, file.getSize());
+            if (parsed == UNSATISFIABLE) {
+                response.setStatus(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+                response.setHeader(HttpHeaders.CONTENT_RANGE, BYTES_UNIT + " */" + file.getSize());
+                return;
+            }
+            if (parsed != null) {
+                start = parsed[0];
+                end = parsed[1];
+                response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+                response.setHeader(HttpHeaders.CONTENT_RANGE, BYTES_UNIT + " " + start + "-" + end + "/" + file.getSize());
+            }
+        }
+
+        long length = end - start + 1;
+        response.setContentType(file.getContentType());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, file.getContentDisposition());
+        response.setContentLengthLong(length);
+        if ("HEAD".equalsIgnoreCase(request.getMethod()) || length <= 0) {
+            return;
+        }
+
+        if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+            request.setAttribute(SENDFILE_FILENAME, file.getPath().toAbsolutePath().toString());
+            request.setAttribute(SENDFILE_START, start);
+            request.setAttribute(SENDFILE_END, end + 1);
+            return;
+        }
+        try (FileChannel channel = FileChannel.open(file.getPath(), StandardOpenOption.READ)) {
+            WritableByteChannel out = Channels.newChannel(response.getOutputStream());
+            long position = start;
+            long remaining = length;
+            while (remaining > 0) {
+                long written = channel.transferTo(position, remaining, out);
+                if (written <= 0) {
+                    // 文件在发送过程中被截断
+                    break;
+                }
+                position += written;
+                remaining -= written;
+            }
+        }
+    }
+
+    private ImageFile load(String imageId) {
+        Image image = imageMapper.selectById(imageId);
+        if (image == null) {
+            throw new BusinessException(ErrorCode.NOT_FOUND_ERROR, "图片不存在");
+        }
+        Path path = imageBlobStore.resolve(image);
+        BasicFileAttributes attributes;
+        try {
+            attributes = Files.readAttributes(path, BasicFileAttributes.class);
+        } catch (IOException e) {
+            log.error("物理文件不存在或不可读: {}", path);
+            throw new BusinessException(ErrorCode.NOT_FOUND_ERROR, "无法读取文件或文件不存在");
+        }
+        long size = attributes.size();
+        // HTTP 日期只精确到秒，比较前统一截断
+        long lastModified = attributes.lastModifiedTime().toMillis() / 1000 * 1000;
+        String etag = image.getBlobHash() != null
+                ? "\"" + image.getBlobHash() + "\""
+                : "\"" + Long.toHexString(size) + "-" + Long.toHexString(lastModified) + "\"";
+        String filename = image.getOriginalFilename() == null ? path.getFileName().toString() : image.getOriginalFilename();
+        // 内容寻址文件没有扩展名，Content-Type 由原始文件名推断
+        MediaType mediaType = MediaTypeFactory.getMediaType(filename).orElse(MediaType.APPLICATION_OCTET_STREAM);
+        String disposition = ContentDisposition.builder("inline")
+                .filename(filename, StandardCharsets.UTF_8)
+                .build()
+                .toString();
+        // 内容寻址文件以哈希区分内容，相同内容的不同图片共享派生资源（如缩略图）
+        String contentKey = image.getBlobHash() != null
+                ? image.getBlobHash()
+                : image.getId() + "-" + Long.toHexString(size) + "-" + Long.toHexString(lastModified);
+        return new ImageFile(image.getStoragePath(), path, contentKey, size, lastModified, etag,
+                mediaType.toString(), disposition);
+    }
+
+    /**
+     * 按图片所在文件夹的空间决定 Cache-Control，缩略图等派生资源沿用同一规则
+     */
+    public String cacheControl(ImageFile file) {
+        String folderId = permissionCacheManager.getFolderIdByStoragePath(file.getStoragePath());
+        Folder folder = folderId == null ? null : permissionCacheManager.getFolder(folderId);
+        if (folder != null && PLATFORM_PUBLIC.equals(folder.getSpace())) {
+            return "public, max-age=" + publicMaxAgeSeconds;
+        }
+        // 私有空间的权限可能随时收回，浏览器每次都要带着 ETag 回来校验
+        return "private, no-cache";
+    }
+
+    /**
+     * If-None-Match 优先；没有 If-None-Match 时才看 If-Modified-Since
+     */
+    private boolean isNotModified(HttpServletRequest request, ImageFile file) {
+        String ifNoneMatch = request.getHeader(HttpHeaders.IF_NONE_MATCH);
+        if (ifNoneMatch != null) {
+            for (String tag : ifNoneMatch.split(",")) {
+                tag = tag.trim();
+                if ("*".equals(tag) || file.getEtag().equals(stripWeak(tag))) {
+                    return true;
+                }
+            }
+            return false;
+        }
+        long ifModifiedSince = dateHeader(request, HttpHeaders.IF_MODIFIED_SINCE);
+        return ifModifiedSince >= 0 && file.getLastModified() <= ifModifiedSince;
+    }
+
+    /**
+     * If-Range 与当前版本一致（或未携带）时 Range 才生效，否则返回完整文件
+     */
+    private boolean isRangeApplicable(HttpServletRequest request, ImageFile file) {
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        if (ifRange == null) {
+            return true;
+        }
+        ifRange = ifRange.trim();
+        if (ifRange.startsWith("\"") || ifRange.startsWith("W/")) {
+            // If-Range 只接受强比较
+            return file.getEtag().equals(ifRange);
+        }
+        long date = dateHeader(request, HttpHeaders.IF_RANGE);
+        return date >= 0 && file.getLastModified() == date;
+    }
+
+    /**
+     * 解析单区间 Range 头
+     *
+     * @return [start, end]（闭区间）；格式错误或多区间时返回 null，表示按完整文件响应
+     */
+    private static long[] parseRange(String header, long size) {
+        String prefix = BYTES_UNIT + "=";
+        if (!header.startsWith(prefix)) {
+            return null;
+        }
+        String spec = header.substring(prefix.length()).trim();
+        int dash = spec.indexOf('-');
+        if (dash < 0 || spec.indexOf(',') >= 0) {
+            return null;
+        }
+        try {
+            String first = spec.substring(0, dash).trim();
+            String last = spec.substring(dash + 1).trim();
+            long start;
+            long end;
+            if (first.isEmpty()) {
+                // 后缀区间：最后 N 个字节
+                long suffix = Long.parseLong(last);
+                if (suffix <= 0 || size == 0) {
+                    return UNSATISFIABLE;
+                }
+                start = Math.max(0, size - suffix);
+                end = size - 1;
+            } else {
+                start = Long.parseLong(first);
+                end = last.isEmpty() ? size - 1 : Math.min(Long.parseLong(last), size - 1);
+                if (start < 0 || (!last.isEmpty() && Long.parseLong(last) < start)) {
+                    return null;
+                }
+                if (start >= size) {
+                    return UNSATISFIABLE;
+                }
+            }
+            return new long[]{start, end};
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static String stripWeak(String tag) {
+        return tag.startsWith("W/") ? tag.substring(2) : tag;
+    }
+
+    private static long dateHeader(HttpServletRequest request, String name) {
+        try {
+            return request.getDateHeader(name);
+        } catch (IllegalArgumentException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * 缓存的图片下载元数据。物理文件内容不可变（内容寻址文件按哈希命名，历史文件不会被覆盖），缓存期间无需重新读取
+     */
+    @Getter
+    public static class ImageFile {
+        private final String storagePath;
+        private final Path path;
+        private final String contentKey;
+        private final long size;
+        private final long lastModified;
+        private final String etag;
+        private final String contentType;
+        private final String contentDisposition;
+
+        private ImageFile(String storagePath, Path path, String contentKey, long size, long lastModified, String etag,
+                          String contentType, String contentDisposition) {
+            this.storagePath = storagePath;
+            this.path = path;
+            this.contentKey = contentKey;
+            this.size = size;
+            this.lastModified = lastModified;
+            this.etag = etag;
+            this.contentType = contentType;
+            this.contentDisposition = contentDisposition;
+        }
+    }
+}
+// END OF FILE: src/main/java/com/scy/mytemplate/manager/ImageDownloadManager.java
@@ -0,0 +1,130 @@
+// FILE: src/main/java/com/scy/mytemplate/manager/ImageIngestPipeline.java
+package com.scy.mytemplate.manager;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+
+/**
+ * 图片批量入库流水线。
+ * 每个处理阶段（落盘、尺寸探测、标注解析、入库）拥有独立的有界线程池，
+ * 各阶段的并发度单独配置，互不抢占；队列满时由提交线程直接执行，对上游形成反压。
+ * 线程池只在本组件内部使用，不注册为 Spring Bean，避免覆盖 Spring Boot 默认的任务执行器。
+ *
+ * @author Bedrock
+ */
+@Component
+@Slf4j
+public class ImageIngestPipeline {
+
+    /**
+     * 流水线阶段
+     */
+    public enum Stage {
+        DISK("disk"),
+        PROBE("probe"),
+        PARSE("parse"),
+        PERSIST("persist");
+
+        private final String value;
+
+        Stage(String value) {
+            this.value = value;
+        }
+
+        public String getValue() {
+            return value;
+        }
+    }
+
+    @Value("${file.ingest.disk-threads:4}")
+    private int diskThreads;
+
+    @Value("${file.ingest.probe-threads:4}")
+    private int probeThreads;
+
+    @Value("${file.ingest.parse-threads:2}")
+    private int parseThreads;
+
+    @Value("${file.ingest.persist-threads:4}")
+    private int persistThreads;
+
+    @Value("${file.ingest.queue-capacity:1000}")
+    private int queueCapacity;
+
+    private final Map<Stage, ThreadPoolExecutor> executors = new EnumMap<>(Stage.class);
+
+    @PostConstruct
+    public void start() {
+        executors.put(Stage.DISK, newStageExecutor(Stage.DISK, diskThreads));
+        executors.put(Stage.PROBE, newStageExecutor(Stage.PROBE, probeThreads));
+        executors.put(Stage.PARSE, newStageExecutor(Stage.PARSE, parseThreads));
+        executors.put(Stage.PERSIST, newStageExecutor(Stage.PERSIST, persistThreads));
+    }
+
+    @PreDestroy
+    public void stop() {
+        executors.values().forEach(ThreadPoolExecutor::shutdown);
+        for (Map.Entry<Stage, ThreadPoolExecutor> entry : executors.entrySet()) {
+            try {
+                if (!entry.getValue().awaitTermination(10, TimeUnit.SECONDS)) {
+                    log.warn("入库流水线 {} 阶段关闭超时，剩余任务将被丢弃", entry.getKey().getValue());
+                    entry.getValue().shutdownNow();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                entry.getValue().shutdownNow();
+            }
+        }
+    }
+
+    /**
+     * 在指定阶段的线程池中执行一步处理
+     *
+     * @param stage    阶段
+     * @param supplier 处理逻辑
+     * @return 处理结果
+     */
+    public <T> CompletableFuture<T> supply(Stage stage, Supplier<T> supplier) {
+        return CompletableFuture.supplyAsync(supplier, executors.get(stage));
+    }
+
+    /**
+     * 在上一步完成后，切换到指定阶段的线程池继续处理
+     *
+     * @param previous 上一步
+     * @param stage    阶段
+     * @param step     处理逻辑
+     * @return 处理结果
+     */
+    public <T> CompletableFuture<T> then(CompletableFuture<T> previous, Stage stage, UnaryOperator<T> step) {
+        return previous.thenApplyAsync(step, executors.get(stage));
+    }
+
+    private ThreadPoolExecutor newStageExecutor(Stage stage, int threads) {
+        AtomicInteger counter = new AtomicInteger();
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                r -> {
+                    Thread thread = new Thread(r, "image-ingest-" + stage.getValue() + "-" + counter.getAndIncrement());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+}
+// END OF FILE: src/main/java/com/scy/mytemplate/manager/ImageIngestPipeline.java
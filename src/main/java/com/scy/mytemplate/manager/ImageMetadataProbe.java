@@ -0,0 +1,224 @@
+// FILE: src/main/java/com/scy/mytemplate/manager/ImageMetadataProbe.java
+package com.scy.mytemplate.manager;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+import java.awt.Dimension;
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.util.Iterator;
+
+/**
+ * 图片尺寸探测器。
+ * 只读取 PNG IHDR、JPEG SOFn、BMP 信息头和 GIF 逻辑屏幕描述符中的宽高字段，不解码像素数据，
+ * 大尺寸原理图扫描件也只需读取文件开头的少量字节。无法识别的格式回退到 ImageReader.getWidth/getHeight，
+ * 同样不会解码图像。
+ *
+ * @author Bedrock
+ */
+@Component
+@Slf4j
+public class ImageMetadataProbe {
+
+    /**
+     * 判断格式时需要预读的字节数
+     */
+    private static final int SIGNATURE_LENGTH = 8;
+
+    private static final byte[] PNG_SIGNATURE = {(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n'};
+
+    /**
+     * 探测文件的宽高
+     *
+     * @param file 图片文件
+     * @return 宽高，无法识别时返回 null
+     */
+    public Dimension probe(File file) {
+        try (InputStream input = Files.newInputStream(file.toPath())) {
+            Dimension dimension = probe(input);
+            if (dimension != null) {
+                return dimension;
+            }
+        } catch (IOException e) {
+            log.warn("读取图片文件头失败: {}", file.getAbsolutePath(), e);
+        }
+        // 文件头解析失败（如损坏的 JPEG 段），再交给 ImageReader 尝试一次
+        try (ImageInputStream imageInput = ImageIO.createImageInputStream(file)) {
+            return readWithImageReader(imageInput);
+        } catch (IOException e) {
+            log.warn("读取图片尺寸失败: {}", file.getAbsolutePath(), e);
+            return null;
+        }
+    }
+
+    /**
+     * 从输入流探测宽高，只消费文件头部分的字节，调用方负责关闭流
+     *
+     * @param rawInput 图片输入流，例如上传文件的输入流
+     * @return 宽高，无法识别时返回 null
+     */
+    public Dimension probe(InputStream rawInput) throws IOException {
+        BufferedInputStream input = new BufferedInputStream(rawInput);
+        input.mark(SIGNATURE_LENGTH);
+        byte[] signature = new byte[SIGNATURE_LENGTH];
+        int signatureLength = input.readNBytes(signature, 0, SIGNATURE_LENGTH);
+        input.reset();
+        if (signatureLength < 4) {
+            return null;
+        }
+        DataInputStream data = new DataInputStream(input);
+        try {
+            if (startsWith(signature, PNG_SIGNATURE)) {
+                return readPng(data);
+            }
+            if ((signature[0] & 0xFF) == 0xFF && (signature[1] & 0xFF) == 0xD8) {
+                return readJpeg(data);
+            }
+            if (signature[0] == 'G' && signature[1] == 'I' && signature[2] == 'F') {
+                return readGif(data);
+            }
+            if (signature[0] == 'B' && signature[1] == 'M') {
+                return readBmp(data);
+            }
+        } catch (EOFException e) {
+            log.warn("图片文件头不完整，无法读取尺寸");
+            return null;
+        }
+        try (ImageInputStream imageInput = ImageIO.createImageInputStream(input)) {
+            return readWithImageReader(imageInput);
+        }
+    }
+
+    /**
+     * PNG: 8 字节签名后紧跟 IHDR 块，宽高为大端 32 位整数
+     */
+    private Dimension readPng(DataInputStream data) throws IOException {
+        skipFully(data, 8 + 4);
+        int chunkType = data.readInt();
+        if (chunkType != 0x49484452) {
+            return null;
+        }
+        return new Dimension(data.readInt(), data.readInt());
+    }
+
+    /**
+     * JPEG: 逐段跳过，直到遇到 SOFn 帧头，帧头中依次为精度、高、宽
+     */
+    private Dimension readJpeg(DataInputStream data) throws IOException {
+        skipFully(data, 2);
+        while (true) {
+            int marker = data.readUnsignedByte();
+            if (marker != 0xFF) {
+                return null;
+            }
+            // 标记前允许任意个 0xFF 填充字节
+            while (marker == 0xFF) {
+                marker = data.readUnsignedByte();
+            }
+            if (marker == 0x01 || (marker >= 0xD0 && marker <= 0xD7)) {
+                continue;
+            }
+            if (marker == 0xD9 || marker == 0xDA) {
+                // 图像结束或扫描数据开始之前都没有出现帧头
+                return null;
+            }
+            int length = data.readUnsignedShort();
+            boolean isStartOfFrame = marker >= 0xC0 && marker <= 0xCF
+                    && marker != 0xC4 && marker != 0xC8 && marker != 0xCC;
+            if (isStartOfFrame) {
+                skipFully(data, 1);
+                int height = data.readUnsignedShort();
+                int width = data.readUnsignedShort();
+                return new Dimension(width, height);
+            }
+            skipFully(data, length - 2);
+        }
+    }
+
+    /**
+     * GIF: 逻辑屏幕描述符紧跟 6 字节签名，宽高为小端 16 位整数
+     */
+    private Dimension readGif(DataInputStream data) throws IOException {
+        skipFully(data, 6);
+        int width = readUnsignedShortLE(data);
+        int height = readUnsignedShortLE(data);
+        return new Dimension(width, height);
+    }
+
+    /**
+     * BMP: 14 字节文件头之后是 DIB 信息头；旧式 OS/2 信息头（12 字节）使用 16 位宽高，其余为 32 位，
+     * 高度为负数表示自上而下存储
+     */
+    private Dimension readBmp(DataInputStream data) throws IOException {
+        skipFully(data, 14);
+        int headerSize = readIntLE(data);
+        if (headerSize == 12) {
+            return new Dimension(readUnsignedShortLE(data), readUnsignedShortLE(data));
+        }
+        int width = readIntLE(data);
+        int height = readIntLE(data);
+        return new Dimension(Math.abs(width), Math.abs(height));
+    }
+
+    private Dimension readWithImageReader(ImageInputStream imageInput) throws IOException {
+        if (imageInput == null) {
+            return null;
+        }
+        Iterator<ImageReader> readers = ImageIO.getImageReaders(imageInput);
+        if (!readers.hasNext()) {
+            return null;
+        }
+        ImageReader reader = readers.next();
+        try {
+            reader.setInput(imageInput, true, true);
+            return new Dimension(reader.getWidth(0), reader.getHeight(0));
+        } finally {
+            reader.dispose();
+        }
+    }
+
+    private static boolean startsWith(byte[] bytes, byte[] prefix) {
+        if (bytes.length < prefix.length) {
+            return false;
+        }
+        for (int i = 0; i < prefix.length; i++) {
+            if (bytes[i] != prefix[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static void skipFully(DataInputStream data, int count) throws IOException {
+        int remaining = count;
+        while (remaining > 0) {
+            int skipped = data.skipBytes(remaining);
+            if (skipped <= 0) {
+                // skipBytes 可能在未到流末尾时返回 0，读一个字节区分两种情况
+                data.readUnsignedByte();
+                skipped = 1;
+            }
+            remaining -= skipped;
+        }
+    }
+
+    private static int readUnsignedShortLE(DataInputStream data) throws IOException {
+        int low = data.readUnsignedByte();
+        int high = data.readUnsignedByte();
+        return (high << 8) | low;
+    }
+
+    private static int readIntLE(DataInputStream data) throws IOException {
+        return Integer.reverseBytes(data.readInt());
+    }
+}
+// END OF FILE: src/main/java/com/scy/mytemplate/manager/ImageMetadataProbe.java
@@ -0,0 +1,475 @@
+// FILE: src/main/java/com/scy/mytemplate/manager/ImageThumbnailManager.java
+package com.scy.mytemplate.manager;
+
+import cn.hutool.cache.CacheUtil;
+import cn.hutool.cache.impl.LRUCache;
+import com.scy.mytemplate.common.ErrorCode;
+import com.scy.mytemplate.exception.BusinessException;
+import com.scy.mytemplate.model.entity.Image;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.annotation.Resource;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * 图片缩略图。
+ * 缩略图按固定边长（默认 128/256/512，长边缩放到该尺寸，不放大）在首次请求时生成，两级缓存：
+ * <ul>
+ *     <li>内存热点层：按条数限制的 LRU，存放编码好的 PNG 字节</li>
+ *     <li>磁盘层：{upload-dir}/.thumbs/{边长}/xx/{contentKey}.png，按总字节数限制的 LRU，启动时按修改时间重建索引</li>
+ * </ul>
+ * 缩放在独立的有界线程池中执行，同一张缩略图的并发请求只生成一次；线程池排满时直接拒绝，不占用请求线程做缩放。
+ * 缓存键使用图片的内容键，内容相同的图片（复制、重复上传）共享缩略图。
+ *
+ * @author Bedrock
+ */
+@Component
+@Slf4j
+public class ImageThumbnailManager {
+
+    private static final String THUMB_DIR = ".thumbs";
+
+    private static final String THUMB_SUFFIX = ".png";
+
+    private static final String THUMB_FORMAT = "png";
+
+    @Value("${file.upload-dir}")
+    private String uploadDir;
+
+    @Value("${file.thumbnail.sizes:128,256,512}")
+    private int[] sizes;
+
+    @Value("${file.thumbnail.max-disk-mb:1024}")
+    private long maxDiskMb;
+
+    @Value("${file.thumbnail.memory-capacity:256}")
+    private int memoryCapacity;
+
+    @Value("${file.thumbnail.threads:2}")
+    private int threads;
+
+    @Value("${file.thumbnail.queue-capacity:200}")
+    private int queueCapacity;
+
+    @Value("${file.thumbnail.wait-seconds:30}")
+    private long waitSeconds;
+
+    @Value("${file.thumbnail.prewarm-on-upload:false}")
+    private boolean prewarmOnUpload;
+
+    @Value("${file.thumbnail.prewarm-sizes:256}")
+    private int[] prewarmSizes;
+
+    @Resource
+    private ImageBlobStore imageBlobStore;
+
+    @Resource
+    private ImageDownloadManager imageDownloadManager;
+
+    private final TreeSet<Integer> supportedSizes = new TreeSet<>();
+
+    private final Map<String, CompletableFuture<byte[]>> inFlight = new ConcurrentHashMap<>();
+
+    private LRUCache<String, byte[]> memoryCache;
+
+    private DiskIndex diskIndex;
+
+    private ThreadPoolExecutor executor;
+
+    @PostConstruct
+    public void init() {
+        for (int size : sizes) {
+            supportedSizes.add(size);
+        }
+        memoryCache = CacheUtil.newLRUCache(memoryCapacity);
+        diskIndex = new DiskIndex(maxDiskMb * 1024 * 1024);
+        rebuildDiskIndex();
+        AtomicInteger counter = new AtomicInteger();
+        executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                r -> {
+                    Thread thread = new Thread(r, "image-thumbnail-" + counter.getAndIncrement());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        executor.allowCoreThreadTimeOut(true);
+    }
+
+    @PreDestroy
+    public void stop() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * 写出缩略图，支持 If-None-Match 条件请求，Cache-Control 与原图一致
+     *
+     * @param file 原图的下载元数据（已校验读权限）
+     * @param size 请求的边长，会被归整到最接近的已支持尺寸
+     */
+    public void send(ImageDownloadManager.ImageFile file, int size, HttpServletRequest request,
+                     HttpServletResponse response) throws IOException {
+        int edge = normalizeSize(size);
+        String etag = "\"" + file.getContentKey() + "-" + edge + "\"";
+        response.setHeader(HttpHeaders.ETAG, etag);
+        response.setHeader(HttpHeaders.CACHE_CONTROL, imageDownloadManager.cacheControl(file));
+        String ifNoneMatch = request.getHeader(HttpHeaders.IF_NONE_MATCH);
+        if (ifNoneMatch != null && (ifNoneMatch.contains(etag) || "*".equals(ifNoneMatch.trim()))) {
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return;
+        }
+        byte[] thumbnail = get(file.getContentKey(), file.getPath(), edge);
+        response.setContentType(MediaType.IMAGE_PNG_VALUE);
+        response.setContentLength(thumbnail.length);
+        if (!"HEAD".equalsIgnoreCase(request.getMethod())) {
+            response.getOutputStream().write(thumbnail);
+        }
+    }
+
+    /**
+     * 开启预热时，在当前事务提交后为新上传的图片生成缩略图；线程池繁忙时放弃预热，留待首次请求时生成
+     */
+    public void prewarmAfterCommit(Image image) {
+        if (!prewarmOnUpload || image.getBlobHash() == null) {
+            return;
+        }
+        String contentKey = image.getBlobHash();
+        Path source = imageBlobStore.resolve(image);
+        Runnable prewarm = () -> {
+            for (int size : prewarmSizes) {
+                try {
+                    generateAsync(contentKey, source, normalizeSize(size));
+                } catch (RejectedExecutionException e) {
+                    log.debug("缩略图线程池繁忙，跳过预热: {}", contentKey);
+                    return;
+                }
+            }
+        };
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    prewarm.run();
+                }
+            });
+        } else {
+            prewarm.run();
+        }
+    }
+
+    private byte[] get(String contentKey, Path source, int edge) {
+        String cacheKey = cacheKey(contentKey, edge);
+        byte[] cached = memoryCache.get(cacheKey);
+        if (cached != null) {
+            return cached;
+        }
+        byte[] onDisk = readFromDisk(contentKey, edge);
+        if (onDisk != null) {
+            memoryCache.put(cacheKey, onDisk);
+            return onDisk;
+        }
+        CompletableFuture<byte[]> future;
+        try {
+            future = generateAsync(contentKey, source, edge);
+        } catch (RejectedExecutionException e) {
+            throw new BusinessException(ErrorCode.OPERATION_ERROR, "缩略图生成繁忙，请稍后重试");
+        }
+        try {
+            return future.get(waitSeconds, TimeUnit.SECONDS);
+        } catch (TimeoutException e) {
+            throw new BusinessException(ErrorCode.OPERATION_ERROR, "缩略图生成超时，请稍后重试");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new BusinessException(ErrorCode.SYSTEM_ERROR, "缩略图生成被中断");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof BusinessException) {
+                throw (BusinessException) e.getCause();
+            }
+            log.error("生成缩略图失败: {}", source, e.getCause());
+            throw new BusinessException(ErrorCode.SYSTEM_ERROR, "缩略图生成失败");
+        }
+    }
+
+    /**
+     * 提交生成任务；同一缩略图已在生成中时复用同一个 Future
+     */
+    private CompletableFuture<byte[]> generateAsync(String contentKey, Path source, int edge) {
+        String cacheKey = cacheKey(contentKey, edge);
+        CompletableFuture<byte[]> created = new CompletableFuture<>();
+        CompletableFuture<byte[]> existing = inFlight.putIfAbsent(cacheKey, created);
+        if (existing != null) {
+            return existing;
+        }
+        try {
+            executor.execute(() -> {
+                try {
+                    byte[] thumbnail = readFromDisk(contentKey, edge);
+                    if (thumbnail == null) {
+                        thumbnail = render(source, edge);
+                        writeToDisk(contentKey, edge, thumbnail);
+                    }
+                    memoryCache.put(cacheKey, thumbnail);
+                    created.complete(thumbnail);
+                } catch (Throwable e) {
+                    created.completeExceptionally(e);
+                } finally {
+                    inFlight.remove(cacheKey, created);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            inFlight.remove(cacheKey, created);
+            throw e;
+        }
+        return created;
+    }
+
+    /**
+     * 解码并缩放。大图先用 ImageReader 的子采样按接近两倍目标尺寸解码，避免把整张原图读入内存，再双线性缩放到目标尺寸
+     */
+    private byte[] render(Path source, int edge) throws IOException {
+        BufferedImage decoded;
+        try (ImageInputStream input = ImageIO.createImageInputStream(source.toFile())) {
+            if (input == null) {
+                throw new NoSuchFileException(source.toString());
+            }
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(input);
+            if (!readers.hasNext()) {
+                throw new BusinessException(ErrorCode.OPERATION_ERROR, "不支持的图片格式");
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(input, true, true);
+                int longSide = Math.max(reader.getWidth(0), reader.getHeight(0));
+                ImageReadParam param = reader.getDefaultReadParam();
+                int subsampling = Math.max(1, longSide / (edge * 2));
+                param.setSourceSubsampling(subsampling, subsampling, 0, 0);
+                decoded = reader.read(0, param);
+            } finally {
+                reader.dispose();
+            }
+        }
+        double scale = Math.min(1.0, (double) edge / Math.max(decoded.getWidth(), decoded.getHeight()));
+        int width = Math.max(1, (int) Math.round(decoded.getWidth() * scale));
+        int height = Math.max(1, (int) Math.round(decoded.getHeight() * scale));
+        int type = decoded.getColorModel().hasAlpha() ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB;
+        BufferedImage thumbnail = new BufferedImage(width, height, type);
+        Graphics2D graphics = thumbnail.createGraphics();
+        try {
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            graphics.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+            graphics.drawImage(decoded, 0, 0, width, height, null);
+        } finally {
+            graphics.dispose();
+        }
+        // 原理图以线条为主，PNG 比 JPEG 更清晰且体积相近
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        ImageIO.write(thumbnail, THUMB_FORMAT, output);
+        return output.toByteArray();
+    }
+
+    private byte[] readFromDisk(String contentKey, int edge) {
+        Path path = thumbPath(contentKey, edge);
+        if (!diskIndex.touch(path)) {
+            return null;
+        }
+        try {
+            return Files.readAllBytes(path);
+        } catch (IOException e) {
+            // 文件已被外部删除，索引随之移除
+            diskIndex.remove(path);
+            return null;
+        }
+    }
+
+    private void writeToDisk(String contentKey, int edge, byte[] thumbnail) {
+        Path path = thumbPath(contentKey, edge);
+        try {
+            Files.createDirectories(path.getParent());
+            Path temp = Files.createTempFile(path.getParent(), "thumb-", ".tmp");
+            try {
+                Files.write(temp, thumbnail);
+                Files.move(temp, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } finally {
+                Files.deleteIfExists(temp);
+            }
+        } catch (IOException e) {
+            // 磁盘层写入失败不影响本次响应，下次请求会重新生成
+            log.warn("写入缩略图缓存失败: {}", path, e);
+            return;
+        }
+        for (Path evicted : diskIndex.add(path, thumbnail.length)) {
+            try {
+                Files.deleteIfExists(evicted);
+            } catch (IOException e) {
+                log.warn("删除过期缩略图失败: {}", evicted, e);
+            }
+        }
+    }
+
+    /**
+     * 启动时扫描磁盘缓存目录，按修改时间从旧到新重建 LRU 索引，超出容量的部分立即删除
+     */
+    private void rebuildDiskIndex() {
+        Path root = Paths.get(uploadDir, THUMB_DIR);
+        if (!Files.isDirectory(root)) {
+            return;
+        }
+        List<Path> files;
+        try (Stream<Path> walk = Files.walk(root)) {
+            files = walk.filter(Files::isRegularFile).collect(Collectors.toList());
+        } catch (IOException e) {
+            log.warn("扫描缩略图缓存目录失败: {}", root, e);
+            return;
+        }
+        Set<Path> evicted = new HashSet<>();
+        files.stream()
+                .filter(path -> path.getFileName().toString().endsWith(THUMB_SUFFIX))
+                .sorted(Comparator.comparingLong(ImageThumbnailManager::lastModified))
+                .forEach(path -> {
+                    try {
+                        evicted.addAll(diskIndex.add(path, Files.size(path)));
+                    } catch (IOException e) {
+                        log.warn("读取缩略图大小失败: {}", path, e);
+                    }
+                });
+        for (Path path : files) {
+            try {
+                // 中断写入遗留的临时文件与被挤出容量的旧缩略图
+                if (!path.getFileName().toString().endsWith(THUMB_SUFFIX) || evicted.contains(path)) {
+                    Files.deleteIfExists(path);
+                }
+            } catch (IOException e) {
+                log.warn("删除缩略图缓存文件失败: {}", path, e);
+            }
+        }
+        log.info("缩略图磁盘缓存索引重建完成: {} 个文件, {} 字节", diskIndex.size(), diskIndex.totalBytes());
+    }
+
+    /**
+     * 归整到不小于请求边长的最小已支持尺寸，超过最大尺寸时使用最大尺寸
+     */
+    private int normalizeSize(int size) {
+        Integer ceiling = supportedSizes.ceiling(size);
+        return ceiling != null ? ceiling : supportedSizes.last();
+    }
+
+    private Path thumbPath(String contentKey, int edge) {
+        return Paths.get(uploadDir, THUMB_DIR, String.valueOf(edge), contentKey.substring(0, 2), contentKey + THUMB_SUFFIX);
+    }
+
+    private static String cacheKey(String contentKey, int edge) {
+        return contentKey + ":" + edge;
+    }
+
+    private static long lastModified(Path path) {
+        try {
+            return Files.getLastModifiedTime(path).toMillis();
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+
+    /**
+     * 磁盘缓存的 LRU 索引：记录每个缩略图文件的大小，总字节数超过上限时按最久未访问淘汰
+     */
+    private static class DiskIndex {
+        private final long maxBytes;
+        private final LinkedHashMap<Path, Long> entries = new LinkedHashMap<>(16, 0.75f, true);
+        private long totalBytes;
+
+        private DiskIndex(long maxBytes) {
+            this.maxBytes = maxBytes;
+        }
+
+        /**
+         * 记录一次访问
+         *
+         * @return 文件是否在缓存中
+         */
+        private synchronized boolean touch(Path path) {
+            return entries.get(path) != null;
+        }
+
+        /**
+         * 登记新文件
+         *
+         * @return 因超出容量被淘汰、需要删除的文件
+         */
+        private synchronized List<Path> add(Path path, long bytes) {
+            Long previous = entries.put(path, bytes);
+            totalBytes += bytes - (previous == null ? 0 : previous);
+            List<Path> evicted = new ArrayList<>();
+            Iterator<Map.Entry<Path, Long>> iterator = entries.entrySet().iterator();
+            while (totalBytes > maxBytes && iterator.hasNext()) {
+                Map.Entry<Path, Long> eldest = iterator.next();
+                if (eldest.getKey().equals(path)) {
+                    continue;
+                }
+                totalBytes -= eldest.getValue();
+                evicted.add(eldest.getKey());
+                iterator.remove();
+            }
+            return evicted;
+        }
+
+        private synchronized void remove(Path path) {
+            Long bytes = entries.remove(path);
+            if (bytes != null) {
+                totalBytes -= bytes;
+            }
+        }
+
+        private synchronized int size() {
+            return entries.size();
+        }
+
+        private synchronized long totalBytes() {
+            return totalBytes;
+        }
+    }
+}
+// END OF FILE: src/main/java/com/scy/mytemplate/manager/ImageThumbnailManager.java
@@ -0,0 +1,90 @@
+// FILE: src/main/java/com/scy/mytemplate/manager/LoginUserCache.java
+package com.scy.mytemplate.manager;
+
+import cn.hutool.cache.CacheUtil;
+import cn.hutool.cache.impl.LRUCache;
+import com.scy.mytemplate.model.entity.User;
+import org.springframework.beans.BeanUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import javax.annotation.PostConstruct;
+import javax.servlet.http.HttpServletRequest;
+import java.util.function.Function;
+
+/**
+ * 登录用户缓存。
+ * 两级缓存：同一请求内多次获取登录用户只查询一次（请求属性）；跨请求使用带过期时间和容量上限的进程内 LRU 缓存。
+ * 用户信息被修改或删除时必须调用 {@link #invalidate(String)}，保证角色变更（如封号）及时生效；
+ * 即使遗漏，过期时间也限定了旧数据最长的存活时间。
+ *
+ * @author Bedrock
+ */
+@Component
+public class LoginUserCache {
+
+    /**
+     * 请求内缓存登录用户的属性名
+     */
+    private static final String REQUEST_ATTRIBUTE = LoginUserCache.class.getName() + ".loginUser";
+
+    @Value("${user.login-cache.max-size:1000}")
+    private int maxSize;
+
+    @Value("${user.login-cache.ttl-seconds:30}")
+    private long ttlSeconds;
+
+    private LRUCache<String, User> cache;
+
+    @PostConstruct
+    public void init() {
+        cache = CacheUtil.newLRUCache(maxSize, ttlSeconds * 1000);
+    }
+
+    /**
+     * 获取登录用户的最新信息
+     *
+     * @param request 当前请求
+     * @param userId  会话中保存的用户ID
+     * @param loader  缓存未命中时从数据库加载
+     * @return 用户，不存在时返回 null
+     */
+    public User get(HttpServletRequest request, String userId, Function<String, User> loader) {
+        Object memoized = request.getAttribute(REQUEST_ATTRIBUTE);
+        if (memoized instanceof User && userId.equals(((User) memoized).getId())) {
+            return (User) memoized;
+        }
+        User cached = cache.get(userId, false);
+        if (cached == null) {
+            cached = loader.apply(userId);
+            if (cached == null) {
+                return null;
+            }
+            cache.put(userId, cached);
+        }
+        // 每个请求拿到独立的副本，调用方修改实体不会污染共享缓存
+        User user = new User();
+        BeanUtils.copyProperties(cached, user);
+        request.setAttribute(REQUEST_ATTRIBUTE, user);
+        return user;
+    }
+
+    /**
+     * 用户信息变更后清除缓存，包括当前请求内的缓存
+     *
+     * @param userId 用户ID
+     */
+    public void invalidate(String userId) {
+        if (userId == null) {
+            return;
+        }
+        cache.remove(userId);
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes != null) {
+            attributes.removeAttribute(REQUEST_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+        }
+    }
+}
+// END OF FILE: src/main/java/com/scy/mytemplate/manager/LoginUserCache.java
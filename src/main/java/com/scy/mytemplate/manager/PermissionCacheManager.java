@@ -0,0 +1,361 @@
+// FILE: src/main/java/com/scy/mytemplate/manager/PermissionCacheManager.java
+package com.scy.mytemplate.manager;
+
+import cn.hutool.cache.CacheUtil;
+import cn.hutool.cache.impl.CacheObj;
+import cn.hutool.cache.impl.LRUCache;
+import com.scy.mytemplate.mapper.FolderMapper;
+import com.scy.mytemplate.mapper.ImageMapper;
+import com.scy.mytemplate.mapper.OrganizationMemberMapper;
+import com.scy.mytemplate.model.entity.Folder;
+import com.scy.mytemplate.model.entity.Image;
+import com.scy.mytemplate.model.entity.OrganizationMember;
+import com.scy.mytemplate.model.vo.CacheStatsVO;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.Resource;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * 权限判定缓存。
+ * 节点权限校验原本每次都要查询 图片 -> 文件夹 -> 组织角色 三张表，这里把三步查询结果分别缓存：
+ * <ul>
+ *     <li>storagePath -> folderId</li>
+ *     <li>folderId -> 文件夹的空间与归属（space, ownerUserId, ownerOrganizationId）</li>
+ *     <li>(userId, organizationId) -> 组织内角色，非成员也会被缓存</li>
+ * </ul>
+ * 三个缓存均为有容量上限的 LRU，并带过期时间兜底。权限相关数据变更时由业务代码调用 evict 方法，
+ * 在事务中调用时会在提交后再清除一次，避免并发请求在提交前把旧数据重新读入缓存。
+ *
+ * @author Bedrock
+ */
+@Component
+public class PermissionCacheManager {
+
+    /**
+     * 缓存“不是组织成员”时使用的占位值
+     */
+    private static final String NO_ROLE = "";
+
+    /**
+     * 批量加载时单条 IN 查询的最大参数个数
+     */
+    private static final int IN_BATCH_SIZE = 1000;
+
+    @Resource
+    private ImageMapper imageMapper;
+
+    @Resource
+    private FolderMapper folderMapper;
+
+    @Resource
+    private OrganizationMemberMapper memberMapper;
+
+    @Value("${permission.cache.node-capacity:10000}")
+    private int nodeCapacity;
+
+    @Value("${permission.cache.folder-capacity:2000}")
+    private int folderCapacity;
+
+    @Value("${permission.cache.role-capacity:5000}")
+    private int roleCapacity;
+
+    @Value("${permission.cache.ttl-seconds:300}")
+    private long ttlSeconds;
+
+    private CountingCache<String> folderIdByPath;
+    private CountingCache<Folder> folderById;
+    private CountingCache<String> roleByMember;
+
+    @PostConstruct
+    public void init() {
+        long timeout = ttlSeconds * 1000;
+        folderIdByPath = new CountingCache<>("nodeFolder", nodeCapacity, timeout);
+        folderById = new CountingCache<>("folder", folderCapacity, timeout);
+        roleByMember = new CountingCache<>("orgRole", roleCapacity, timeout);
+    }
+
+    // region 查询
+
+    /**
+     * 节点（图片存储路径）所属的文件夹ID
+     *
+     * @return 文件夹ID，图片不存在时返回 null
+     */
+    public String getFolderIdByStoragePath(String storagePath) {
+        return folderIdByPath.get(storagePath, path -> {
+            Image image = imageMapper.findByStoragePath(path);
+            return image == null ? null : image.getFolderId();
+        });
+    }
+
+    /**
+     * 文件夹的空间与归属信息，只包含权限判断需要的字段
+     *
+     * @return 文件夹，不存在时返回 null
+     */
+    public Folder getFolder(String folderId) {
+        return folderById.get(folderId, id -> {
+            Folder folder = folderMapper.selectById(id);
+            return folder == null ? null : toAccess(folder);
+        });
+    }
+
+    /**
+     * 用户在组织内的角色
+     *
+     * @return 角色，不是组织成员时返回 null
+     */
+    public String getRoleInOrg(String userId, String organizationId) {
+        String role = roleByMember.get(memberKey(userId, organizationId), key -> {
+            String found = memberMapper.findUserRoleInOrg(userId, organizationId);
+            return found == null ? NO_ROLE : found;
+        });
+        return NO_ROLE.equals(role) ? null : role;
+    }
+
+    /**
+     * 批量获取节点所属的文件夹ID，未命中缓存的部分用一条 IN 查询加载
+     *
+     * @return storagePath -> folderId，图片不存在的路径不在结果中
+     */
+    public Map<String, String> getFolderIdsByStoragePaths(Collection<String> storagePaths) {
+        return folderIdByPath.getAll(storagePaths, missing -> {
+            Map<String, String> loaded = new HashMap<>();
+            for (Image image : imageMapper.findByStoragePaths(missing)) {
+                loaded.put(image.getStoragePath(), image.getFolderId());
+            }
+            return loaded;
+        });
+    }
+
+    /**
+     * 批量获取文件夹的空间与归属信息，未命中缓存的部分用一条 IN 查询加载
+     *
+     * @return folderId -> 文件夹，不存在的文件夹不在结果中
+     */
+    public Map<String, Folder> getFolders(Collection<String> folderIds) {
+        return folderById.getAll(folderIds, missing -> {
+            Map<String, Folder> loaded = new HashMap<>();
+            for (Folder folder : folderMapper.selectBatchIds(missing)) {
+                loaded.put(folder.getId(), toAccess(folder));
+            }
+            return loaded;
+        });
+    }
+
+    /**
+     * 批量获取用户在一组组织内的角色，未命中缓存的部分用一条 IN 查询加载
+     *
+     * @return organizationId -> 角色，不是成员的组织不在结果中
+     */
+    public Map<String, String> getRolesInOrgs(String userId, Collection<String> organizationIds) {
+        Set<String> keys = new LinkedHashSet<>();
+        for (String organizationId : organizationIds) {
+            keys.add(memberKey(userId, organizationId));
+        }
+        Map<String, String> byKey = roleByMember.getAll(keys, missing -> {
+            List<String> missingOrgIds = new ArrayList<>(missing.size());
+            for (String key : missing) {
+                missingOrgIds.add(key.substring(userId.length() + 1));
+            }
+            Map<String, String> loaded = new HashMap<>();
+            for (String key : missing) {
+                loaded.put(key, NO_ROLE);
+            }
+            for (OrganizationMember member : memberMapper.findUserRolesInOrgs(userId, missingOrgIds)) {
+                loaded.put(memberKey(userId, member.getOrganizationId()), member.getRoleInOrg());
+            }
+            return loaded;
+        });
+        Map<String, String> roles = new HashMap<>();
+        for (String organizationId : organizationIds) {
+            String role = byKey.get(memberKey(userId, organizationId));
+            if (role != null && !NO_ROLE.equals(role)) {
+                roles.put(organizationId, role);
+            }
+        }
+        return roles;
+    }
+
+    // endregion
+
+    // region 失效
+
+    /**
+     * 图片被删除或移动后调用
+     */
+    public void evictNode(String storagePath) {
+        evict(() -> folderIdByPath.remove(storagePath));
+    }
+
+    /**
+     * 一批图片被删除后调用
+     */
+    public void evictNodes(Collection<String> storagePaths) {
+        evict(() -> storagePaths.forEach(folderIdByPath::remove));
+    }
+
+    /**
+     * 文件夹被删除或空间、归属变更后调用
+     */
+    public void evictFolder(String folderId) {
+        evict(() -> folderById.remove(folderId));
+    }
+
+    /**
+     * 组织成员加入、移除或角色变更后调用
+     */
+    public void evictMember(String userId, String organizationId) {
+        evict(() -> roleByMember.remove(memberKey(userId, organizationId)));
+    }
+
+    /**
+     * 组织解散后调用，清除该组织的全部成员角色
+     */
+    public void evictOrganization(String organizationId) {
+        String suffix = ":" + organizationId;
+        evict(() -> roleByMember.removeIf(key -> key.endsWith(suffix)));
+    }
+
+    // endregion
+
+    /**
+     * 各缓存的命中情况
+     */
+    public List<CacheStatsVO> getStats() {
+        List<CacheStatsVO> stats = new ArrayList<>();
+        stats.add(folderIdByPath.stats());
+        stats.add(folderById.stats());
+        stats.add(roleByMember.stats());
+        return stats;
+    }
+
+    private static Folder toAccess(Folder folder) {
+        Folder access = new Folder();
+        access.setId(folder.getId());
+        access.setSpace(folder.getSpace());
+        access.setOwnerUserId(folder.getOwnerUserId());
+        access.setOwnerOrganizationId(folder.getOwnerOrganizationId());
+        return access;
+    }
+
+    private static String memberKey(String userId, String organizationId) {
+        return userId + ":" + organizationId;
+    }
+
+    private void evict(Runnable action) {
+        action.run();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    action.run();
+                }
+            });
+        }
+    }
+
+    /**
+     * 带命中计数的 LRU 缓存，加载结果为 null 时不缓存
+     */
+    private static class CountingCache<V> {
+        private final String name;
+        private final int capacity;
+        private final LRUCache<String, V> cache;
+        private final AtomicLong hits = new AtomicLong();
+        private final AtomicLong misses = new AtomicLong();
+
+        private CountingCache(String name, int capacity, long timeout) {
+            this.name = name;
+            this.capacity = capacity;
+            this.cache = CacheUtil.newLRUCache(capacity, timeout);
+        }
+
+        private V get(String key, Function<String, V> loader) {
+            if (key == null) {
+                return null;
+            }
+            V value = cache.get(key, false);
+            if (value != null) {
+                hits.incrementAndGet();
+                return value;
+            }
+            misses.incrementAndGet();
+            value = loader.apply(key);
+            if (value != null) {
+                cache.put(key, value);
+            }
+            return value;
+        }
+
+        /**
+         * 批量读取，未命中的 key 交给 bulkLoader 一次性加载
+         */
+        private Map<String, V> getAll(Collection<String> keys, Function<List<String>, Map<String, V>> bulkLoader) {
+            Map<String, V> result = new HashMap<>();
+            List<String> missing = new ArrayList<>();
+            for (String key : new LinkedHashSet<>(keys)) {
+                if (key == null) {
+                    continue;
+                }
+                V value = cache.get(key, false);
+                if (value != null) {
+                    result.put(key, value);
+                } else {
+                    missing.add(key);
+                }
+            }
+            hits.addAndGet(result.size());
+            misses.addAndGet(missing.size());
+            // 分段加载，避免 IN 列表过长
+            for (int from = 0; from < missing.size(); from += IN_BATCH_SIZE) {
+                List<String> chunk = missing.subList(from, Math.min(from + IN_BATCH_SIZE, missing.size()));
+                bulkLoader.apply(chunk).forEach((key, value) -> {
+                    if (value != null) {
+                        cache.put(key, value);
+                        result.put(key, value);
+                    }
+                });
+            }
+            return result;
+        }
+
+        private void remove(String key) {
+            if (key != null) {
+                cache.remove(key);
+            }
+        }
+
+        private void removeIf(Predicate<String> predicate) {
+            List<String> keys = new ArrayList<>();
+            Iterator<CacheObj<String, V>> iterator = cache.cacheObjIterator();
+            while (iterator.hasNext()) {
+                String key = iterator.next().getKey();
+                if (predicate.test(key)) {
+                    keys.add(key);
+                }
+            }
+            keys.forEach(cache::remove);
+        }
+
+        private CacheStatsVO stats() {
+            return CacheStatsVO.of(name, cache.size(), capacity, hits.get(), misses.get());
+        }
+    }
+}
+// END OF FILE: src/main/java/com/scy/mytemplate/manager/PermissionCacheManager.java
@@ -0,0 +1,63 @@
+// FILE: src/main/java/com/scy/mytemplate/manager/graph/GraphAdjacencyBuilder.java
+package com.scy.mytemplate.manager.graph;
+
+import com.scy.mytemplate.model.vo.GraphAdjacencyVO;
+import com.scy.mytemplate.model.vo.GraphEdgeVO;
+import com.scy.mytemplate.model.vo.NodeVO;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 组装 {@link GraphAdjacencyVO}：节点按加入顺序编号，关系以两端节点的编号表示。
+ *
+ * @author Bedrock
+ */
+class GraphAdjacencyBuilder {
+
+    private final GraphAdjacencyVO result = new GraphAdjacencyVO();
+
+    private final Map<String, Integer> indexByName = new HashMap<>();
+
+    boolean containsNode(String name) {
+        return indexByName.containsKey(name);
+    }
+
+    int nodeCount() {
+        return result.getNodes().size();
+    }
+
+    int edgeCount() {
+        return result.getEdges().size();
+    }
+
+    /**
+     * 加入节点，已存在时忽略
+     */
+    void addNode(NodeVO node) {
+        if (!indexByName.containsKey(node.getName())) {
+            indexByName.put(node.getName(), result.getNodes().size());
+            result.getNodes().add(node);
+        }
+    }
+
+    /**
+     * 加入关系，两端节点必须已经加入
+     */
+    void addEdge(String fromNode, String toNode, String type) {
+        GraphEdgeVO edge = new GraphEdgeVO();
+        edge.setSource(indexByName.get(fromNode));
+        edge.setTarget(indexByName.get(toNode));
+        edge.setType(type);
+        result.getEdges().add(edge);
+    }
+
+    void markTruncated() {
+        result.setTruncated(true);
+    }
+
+    GraphAdjacencyVO build() {
+        return result;
+    }
+}
+// END OF FILE: src/main/java/com/scy/mytemplate/manager/graph/GraphAdjacencyBuilder.java
@@ -0,0 +1,182 @@
+// FILE: src/main/java/com/scy/mytemplate/manager/graph/GraphStore.java
+package com.scy.mytemplate.manager.graph;
+
+import com.scy.mytemplate.model.dto.node.NodeCreateRequest;
+import com.scy.mytemplate.model.vo.CursorPageVO;
+import com.scy.mytemplate.model.vo.GraphAdjacencyVO;
+import com.scy.mytemplate.model.vo.NodeVO;
+import com.scy.mytemplate.model.vo.RelationshipVO;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * 知识图谱存储。
+ * 只负责节点与关系的读写、可见性过滤和自动关联，不做权限校验：
+ * 权限、参数校验和批量写入的分块由 GraphService 完成，每次调用对应存储上的一个事务。
+ * 通过 graph.store.type 选择实现：neo4j（默认，经 Bolt 连接 Neo4j）或 memory（进程内实现，用于单元测试、基准测试和压测）。
+ * <p>
+ * 节点以 name 唯一标识，name 不出现在返回的属性中；属性值为 null 表示移除该属性。
+ * 自动关联：两个节点在同一个非保留属性（见 Neo4jConstant.RESERVED_NODE_KEYS）上取值相同时，
+ * 由 {@link #relink} 建立一条 SHARED_{属性名的大驼峰形式} 关系，属性值变化后过期的关系随之清理。
+ *
+ * @author Bedrock
+ */
+public interface GraphStore {
+
+    // region 节点
+
+    /**
+     * 创建节点，同名节点已存在时不做修改
+     *
+     * @return 是否新建了节点
+     */
+    boolean createNode(String name, Map<String, Object> properties);
+
+    /**
+     * 按名称合并写入一批节点：只创建不存在的节点，已存在的节点保持不变。
+     * 可安全重复执行，重放或迟到的创建不会覆盖之后对节点属性的修改（如合并后的权限）。
+     */
+    void mergeNodes(List<NodeCreateRequest> requests);
+
+    /**
+     * 删除节点及其全部关系，并回收不再被引用的自动关联索引
+     */
+    void deleteNode(String name);
+
+    /**
+     * 批量删除节点，不存在的节点直接跳过
+     */
+    void deleteNodes(Collection<String> names);
+
+    /**
+     * 修改节点属性
+     *
+     * @param propertiesToSet    要设置的属性，可为空
+     * @param propertiesToRemove 要移除的属性名，可为空
+     * @return 节点不存在时返回 false
+     */
+    boolean updateNode(String name, Map<String, Object> propertiesToSet, Collection<String> propertiesToRemove);
+
+    /**
+     * 批量修改一组节点的属性
+     *
+     * @return 实际修改的节点数量
+     */
+    int updateNodes(Collection<String> names, Map<String, Object> propertiesToSet, Collection<String> propertiesToRemove);
+
+    /**
+     * @return 节点不存在时返回 null
+     */
+    NodeVO findNode(String name);
+
+    /**
+     * @return 节点名称 -> 节点，不存在的节点不在结果中
+     */
+    Map<String, NodeVO> findNodes(Collection<String> names);
+
+    /**
+     * 可见范围内的全部节点
+     */
+    List<NodeVO> listNodes(GraphVisibility visibility);
+
+    /**
+     * 按名称升序游标分页
+     *
+     * @param cursor 上一页最后一个节点的名称，第一页为空
+     */
+    CursorPageVO<NodeVO> pageNodes(GraphVisibility visibility, String cursor, int pageSize);
+
+    /**
+     * 逐条输出可见范围内的全部节点，不在内存中缓存整个结果
+     */
+    void streamNodes(GraphVisibility visibility, Consumer<NodeVO> consumer);
+
+    // endregion
+
+    // region 关系
+
+    /**
+     * 在两个节点之间创建关系
+     *
+     * @return 任一节点不存在时返回 false
+     */
+    boolean createRelationship(String fromNode, String toNode, String type, Map<String, Object> properties);
+
+    /**
+     * 删除两个节点之间指定类型的关系
+     */
+    void deleteRelationship(String fromNode, String toNode, String type);
+
+    /**
+     * 修改两个节点之间指定类型关系的属性
+     *
+     * @return 关系不存在时返回 false
+     */
+    boolean updateRelationship(String fromNode, String toNode, String type,
+                               Map<String, Object> propertiesToSet, Collection<String> propertiesToRemove);
+
+    /**
+     * @return 关系不存在时返回 null
+     */
+    RelationshipVO findRelationship(String fromNode, String toNode, String type);
+
+    /**
+     * 两端节点都在可见范围内的全部关系
+     */
+    List<RelationshipVO> listRelationships(GraphVisibility visibility);
+
+    /**
+     * 按 (起点名称, 关系ID) 升序游标分页，起点名称可沿唯一约束的索引范围查找
+     *
+     * @param cursor 上一页返回的游标，第一页为空
+     */
+    CursorPageVO<RelationshipVO> pageRelationships(GraphVisibility visibility, String cursor, int pageSize);
+
+    /**
+     * 逐条输出两端节点都在可见范围内的全部关系
+     */
+    void streamRelationships(GraphVisibility visibility, Consumer<RelationshipVO> consumer);
+
+    // endregion
+
+    // region 子图查询
+
+    /**
+     * 从中心节点出发按跳数逐层扩展（不区分关系方向），只经过可见节点。
+     * 返回扩展到的节点和扩展时经过的关系，最外层节点之间的关系不返回。
+     *
+     * @param types     只沿这些类型的关系扩展，为空时不限类型
+     * @param nodeLimit 返回的节点数上限（含中心节点）
+     * @param edgeLimit 返回的关系数上限
+     * @return 中心节点不存在或不可见时返回 null
+     */
+    GraphAdjacencyVO neighborhood(GraphVisibility visibility, String name, int depth, Collection<String> types,
+                                  int nodeLimit, int edgeLimit);
+
+    /**
+     * 两个节点之间不区分方向的最短路径，路径上的节点都必须可见
+     *
+     * @param maxLength 路径的最大跳数
+     * @param types     只经过这些类型的关系，为空时不限类型
+     * @return 任一端点不存在或不可见时返回 null；没有路径时返回空结果
+     */
+    GraphAdjacencyVO shortestPath(GraphVisibility visibility, String fromNode, String toNode, int maxLength,
+                                  Collection<String> types);
+
+    // endregion
+
+    // region 自动关联
+
+    /**
+     * 重新关联一批节点：清理属性值变化后过期的 SHARED_* 关系，再补齐缺失的关系
+     *
+     * @return 新建的关系数量
+     */
+    long relink(Collection<String> names);
+
+    // endregion
+}
+// END OF FILE: src/main/java/com/scy/mytemplate/manager/graph/GraphStore.java
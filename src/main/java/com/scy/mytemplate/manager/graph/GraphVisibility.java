@@ -0,0 +1,52 @@
+// FILE: src/main/java/com/scy/mytemplate/manager/graph/GraphVisibility.java
+package com.scy.mytemplate.manager.graph;
+
+import lombok.Getter;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 节点可见范围。
+ * 平台管理员可见全部节点；其余用户可见平台公共节点、自己的个人节点（user_private / user_public）
+ * 和所属组织的组织公共节点。由 GraphService 根据当前用户构造，交给 {@link GraphStore} 转换成各自的过滤方式。
+ *
+ * @author Bedrock
+ */
+@Getter
+public class GraphVisibility {
+
+    public static final String SPACE_PLATFORM_PUBLIC = "platform_public";
+
+    public static final String SPACE_USER_PRIVATE = "user_private";
+
+    public static final String SPACE_USER_PUBLIC = "user_public";
+
+    public static final String SPACE_ORGANIZATION_PUBLIC = "organization_public";
+
+    private static final GraphVisibility ALL = new GraphVisibility(true, null, Collections.emptyList());
+
+    /**
+     * 是否不做过滤
+     */
+    private final boolean unrestricted;
+
+    private final String userId;
+
+    private final List<String> organizationIds;
+
+    private GraphVisibility(boolean unrestricted, String userId, List<String> organizationIds) {
+        this.unrestricted = unrestricted;
+        this.userId = userId;
+        this.organizationIds = organizationIds;
+    }
+
+    public static GraphVisibility all() {
+        return ALL;
+    }
+
+    public static GraphVisibility of(String userId, List<String> organizationIds) {
+        return new GraphVisibility(false, userId, organizationIds == null ? Collections.emptyList() : organizationIds);
+    }
+}
+// END OF FILE: src/main/java/com/scy/mytemplate/manager/graph/GraphVisibility.java
@@ -0,0 +1,890 @@
+// FILE: src/main/java/com/scy/mytemplate/manager/graph/InMemoryGraphStore.java
+package com.scy.mytemplate.manager.graph;
+
+import com.scy.mytemplate.constant.Neo4jConstant;
+import com.scy.mytemplate.model.dto.node.NodeCreateRequest;
+import com.scy.mytemplate.model.vo.CursorPageVO;
+import com.scy.mytemplate.model.vo.GraphAdjacencyVO;
+import com.scy.mytemplate.model.vo.NodeVO;
+import com.scy.mytemplate.model.vo.RelationshipVO;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+/**
+ * 进程内的图谱存储，供单元测试、JMH 基准和压测在没有 Neo4j 的环境下使用（graph.store.type=memory）。
+ * 不依赖 Spring 容器中的其他组件，可以直接 new 出来使用；数据不持久化，进程退出即丢失。
+ * <ul>
+ *     <li>节点和关系都以 int ID 编址，ID 单调递增、不复用；邻接表是每个节点上的出边 / 入边 int 数组。</li>
+ *     <li>倒排索引：属性名 -> 属性值 -> 节点ID位图（BitSet），覆盖全部属性。可见性过滤是 space / ownerUserId /
+ *     ownerOrganizationId 几个位图的与或运算，自动关联沿属性值位图直接找到共享同一取值的节点。</li>
+ *     <li>节点名称到ID的映射是有序的，按名称游标分页直接从游标位置开始遍历；关系按 (起点名称, 关系ID) 游标分页，与 Neo4j 实现的顺序一致。</li>
+ *     <li>读写锁保护全部结构；流式读取先在读锁内取可见ID快照，再逐条加锁生成视图对象，回调执行期间不持有锁。</li>
+ *     <li>数值按 Neo4j 的类型规则归一（整数为 Long，浮点数为 Double），属性值比较与 Neo4j 一致。</li>
+ * </ul>
+ *
+ * @author Bedrock
+ */
+@Component
+@ConditionalOnProperty(name = "graph.store.type", havingValue = "memory")
+public class InMemoryGraphStore implements GraphStore {
+
+    private static final String KEY_SPACE = "space";
+
+    private static final String KEY_OWNER_USER = "ownerUserId";
+
+    private static final String KEY_OWNER_ORGANIZATION = "ownerOrganizationId";
+
+    private static final String SHARED_PREFIX = "SHARED_";
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * 节点名称 -> 节点ID
+     */
+    private final TreeMap<String, Integer> idsByName = new TreeMap<>();
+
+    /**
+     * 节点ID -> 节点，删除后置为 null
+     */
+    private final List<NodeRecord> nodes = new ArrayList<>();
+
+    /**
+     * 关系ID -> 关系，删除后置为 null
+     */
+    private final List<RelationshipRecord> relationships = new ArrayList<>();
+
+    private final BitSet liveNodes = new BitSet();
+
+    private final BitSet liveRelationships = new BitSet();
+
+    /**
+     * 属性名 -> 属性值 -> 拥有该取值的节点ID
+     */
+    private final Map<String, Map<Object, BitSet>> index = new HashMap<>();
+
+    // region 节点
+
+    @Override
+    public boolean createNode(String name, Map<String, Object> properties) {
+        lock.writeLock().lock();
+        try {
+            if (idsByName.containsKey(name)) {
+                return false;
+            }
+            setProperties(addNode(name), properties, null);
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void mergeNodes(List<NodeCreateRequest> requests) {
+        lock.writeLock().lock();
+        try {
+            for (NodeCreateRequest request : requests) {
+                if (!idsByName.containsKey(request.getName())) {
+                    setProperties(addNode(request.getName()), request.getProperties(), null);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void deleteNode(String name) {
+        deleteNodes(Collections.singletonList(name));
+    }
+
+    @Override
+    public void deleteNodes(Collection<String> names) {
+        lock.writeLock().lock();
+        try {
+            for (String name : names) {
+                Integer id = idsByName.remove(name);
+                if (id == null) {
+                    continue;
+                }
+                NodeRecord node = nodes.get(id);
+                for (int relId : node.out.toArray()) {
+                    removeRelationship(relId);
+                }
+                for (int relId : node.in.toArray()) {
+                    removeRelationship(relId);
+                }
+                for (Map.Entry<String, Object> property : node.properties.entrySet()) {
+                    unindex(id, property.getKey(), property.getValue());
+                }
+                nodes.set(id, null);
+                liveNodes.clear(id);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public boolean updateNode(String name, Map<String, Object> propertiesToSet, Collection<String> propertiesToRemove) {
+        return updateNodes(Collections.singletonList(name), propertiesToSet, propertiesToRemove) > 0;
+    }
+
+    @Override
+    public int updateNodes(Collection<String> names, Map<String, Object> propertiesToSet, Collection<String> propertiesToRemove) {
+        lock.writeLock().lock();
+        try {
+            int updated = 0;
+            for (String name : names) {
+                Integer id = idsByName.get(name);
+                if (id != null) {
+                    setProperties(nodes.get(id), propertiesToSet, propertiesToRemove);
+                    updated++;
+                }
+            }
+            return updated;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public NodeVO findNode(String name) {
+        lock.readLock().lock();
+        try {
+            Integer id = idsByName.get(name);
+            return id == null ? null : toNodeVO(nodes.get(id));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public Map<String, NodeVO> findNodes(Collection<String> names) {
+        Map<String, NodeVO> result = new HashMap<>();
+        lock.readLock().lock();
+        try {
+            for (String name : names) {
+                Integer id = idsByName.get(name);
+                if (id != null) {
+                    result.put(name, toNodeVO(nodes.get(id)));
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return result;
+    }
+
+    @Override
+    public List<NodeVO> listNodes(GraphVisibility visibility) {
+        List<NodeVO> result = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            BitSet visible = visibleNodes(visibility);
+            for (int id = visible.nextSetBit(0); id >= 0; id = visible.nextSetBit(id + 1)) {
+                result.add(toNodeVO(nodes.get(id)));
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return result;
+    }
+
+    @Override
+    public CursorPageVO<NodeVO> pageNodes(GraphVisibility visibility, String cursor, int pageSize) {
+        List<NodeVO> page = new ArrayList<>(pageSize);
+        boolean hasMore = false;
+        lock.readLock().lock();
+        try {
+            BitSet visible = visibleNodes(visibility);
+            Map<String, Integer> candidates = StringUtils.isBlank(cursor) ? idsByName : idsByName.tailMap(cursor, false);
+            for (int id : candidates.values()) {
+                if (!visible.get(id)) {
+                    continue;
+                }
+                if (page.size() == pageSize) {
+                    hasMore = true;
+                    break;
+                }
+                page.add(toNodeVO(nodes.get(id)));
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return CursorPageVO.of(page, hasMore ? page.get(pageSize - 1).getName() : null);
+    }
+
+    @Override
+    public void streamNodes(GraphVisibility visibility, Consumer<NodeVO> consumer) {
+        BitSet visible;
+        lock.readLock().lock();
+        try {
+            visible = visibleNodes(visibility);
+        } finally {
+            lock.readLock().unlock();
+        }
+        for (int id = visible.nextSetBit(0); id >= 0; id = visible.nextSetBit(id + 1)) {
+            NodeVO node;
+            lock.readLock().lock();
+            try {
+                NodeRecord record = nodes.get(id);
+                node = record == null ? null : toNodeVO(record);
+            } finally {
+                lock.readLock().unlock();
+            }
+            if (node != null) {
+                consumer.accept(node);
+            }
+        }
+    }
+
+    // endregion
+
+    // region 关系
+
+    @Override
+    public boolean createRelationship(String fromNode, String toNode, String type, Map<String, Object> properties) {
+        lock.writeLock().lock();
+        try {
+            Integer from = idsByName.get(fromNode);
+            Integer to = idsByName.get(toNode);
+            if (from == null || to == null) {
+                return false;
+            }
+            RelationshipRecord relationship = addRelationship(from, to, type, null);
+            putAll(relationship.properties, properties, null);
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void deleteRelationship(String fromNode, String toNode, String type) {
+        lock.writeLock().lock();
+        try {
+            for (int relId : matchRelationships(fromNode, toNode, type)) {
+                removeRelationship(relId);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public boolean updateRelationship(String fromNode, String toNode, String type,
+                                      Map<String, Object> propertiesToSet, Collection<String> propertiesToRemove) {
+        lock.writeLock().lock();
+        try {
+            int[] matched = matchRelationships(fromNode, toNode, type);
+            for (int relId : matched) {
+                putAll(relationships.get(relId).properties, propertiesToSet, propertiesToRemove);
+            }
+            return matched.length > 0;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public RelationshipVO findRelationship(String fromNode, String toNode, String type) {
+        lock.readLock().lock();
+        try {
+            int[] matched = matchRelationships(fromNode, toNode, type);
+            return matched.length == 0 ? null : toRelationshipVO(relationships.get(matched[0]));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public List<RelationshipVO> listRelationships(GraphVisibility visibility) {
+        List<RelationshipVO> result = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            BitSet visible = visibleNodes(visibility);
+            for (int id = liveRelationships.nextSetBit(0); id >= 0; id = liveRelationships.nextSetBit(id + 1)) {
+                RelationshipRecord relationship = relationships.get(id);
+                if (visible.get(relationship.from) && visible.get(relationship.to)) {
+                    result.add(toRelationshipVO(relationship));
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return result;
+    }
+
+    @Override
+    public CursorPageVO<RelationshipVO> pageRelationships(GraphVisibility visibility, String cursor, int pageSize) {
+        RelationshipCursor after = RelationshipCursor.decode(cursor);
+        List<RelationshipVO> page = new ArrayList<>(pageSize);
+        RelationshipCursor last = null;
+        boolean hasMore = false;
+        lock.readLock().lock();
+        try {
+            // 与 Neo4j 实现相同，按 (起点名称, 关系ID) 排序翻页
+            BitSet visible = visibleNodes(visibility);
+            for (Map.Entry<String, Integer> entry : idsByName.tailMap(after.fromNode, true).entrySet()) {
+                if (hasMore) {
+                    break;
+                }
+                if (!visible.get(entry.getValue())) {
+                    continue;
+                }
+                boolean sameNode = entry.getKey().equals(after.fromNode);
+                int[] out = nodes.get(entry.getValue()).out.toArray();
+                Arrays.sort(out);
+                for (int relId : out) {
+                    RelationshipRecord relationship = relationships.get(relId);
+                    if ((sameNode && relId <= after.relId) || !visible.get(relationship.to)) {
+                        continue;
+                    }
+                    if (page.size() == pageSize) {
+                        hasMore = true;
+                        break;
+                    }
+                    page.add(toRelationshipVO(relationship));
+                    last = new RelationshipCursor(entry.getKey(), relId);
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return CursorPageVO.of(page, hasMore ? last.encode() : null);
+    }
+
+    @Override
+    public void streamRelationships(GraphVisibility visibility, Consumer<RelationshipVO> consumer) {
+        BitSet visible;
+        BitSet candidates;
+        lock.readLock().lock();
+        try {
+            visible = visibleNodes(visibility);
+            candidates = (BitSet) liveRelationships.clone();
+        } finally {
+            lock.readLock().unlock();
+        }
+        for (int id = candidates.nextSetBit(0); id >= 0; id = candidates.nextSetBit(id + 1)) {
+            RelationshipVO vo = null;
+            lock.readLock().lock();
+            try {
+                RelationshipRecord relationship = relationships.get(id);
+                if (relationship != null && visible.get(relationship.from) && visible.get(relationship.to)) {
+                    vo = toRelationshipVO(relationship);
+                }
+            } finally {
+                lock.readLock().unlock();
+            }
+            if (vo != null) {
+                consumer.accept(vo);
+            }
+        }
+    }
+
+    // endregion
+
+    // region 子图查询
+
+    @Override
+    public GraphAdjacencyVO neighborhood(GraphVisibility visibility, String name, int depth, Collection<String> types,
+                                         int nodeLimit, int edgeLimit) {
+        Set<String> typeFilter = new HashSet<>(types);
+        lock.readLock().lock();
+        try {
+            BitSet visible = visibleNodes(visibility);
+            Integer start = idsByName.get(name);
+            if (start == null || !visible.get(start)) {
+                return null;
+            }
+            GraphAdjacencyBuilder builder = new GraphAdjacencyBuilder();
+            builder.addNode(toNodeVO(nodes.get(start)));
+            BitSet seenRelationships = new BitSet();
+            IntList frontier = new IntList();
+            frontier.add(start);
+            for (int level = 0; level < depth && frontier.size() > 0; level++) {
+                IntList next = new IntList();
+                expand:
+                for (int i = 0; i < frontier.size(); i++) {
+                    NodeRecord node = nodes.get(frontier.get(i));
+                    for (IntList adjacency : Arrays.asList(node.out, node.in)) {
+                        for (int j = 0; j < adjacency.size(); j++) {
+                            RelationshipRecord relationship = relationships.get(adjacency.get(j));
+                            int other = relationship.from == node.id ? relationship.to : relationship.from;
+                            if (seenRelationships.get(relationship.id) || !visible.get(other)
+                                    || (!typeFilter.isEmpty() && !typeFilter.contains(relationship.type))) {
+                                continue;
+                            }
+                            if (builder.edgeCount() >= edgeLimit) {
+                                builder.markTruncated();
+                                break expand;
+                            }
+                            seenRelationships.set(relationship.id);
+                            NodeRecord neighbor = nodes.get(other);
+                            if (!builder.containsNode(neighbor.name)) {
+                                if (builder.nodeCount() >= nodeLimit) {
+                                    builder.markTruncated();
+                                    continue;
+                                }
+                                builder.addNode(toNodeVO(neighbor));
+                                next.add(other);
+                            }
+                            builder.addEdge(nodes.get(relationship.from).name, nodes.get(relationship.to).name, relationship.type);
+                        }
+                    }
+                }
+                frontier = next;
+            }
+            return builder.build();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public GraphAdjacencyVO shortestPath(GraphVisibility visibility, String fromNode, String toNode, int maxLength,
+                                         Collection<String> types) {
+        Set<String> typeFilter = new HashSet<>(types);
+        lock.readLock().lock();
+        try {
+            BitSet visible = visibleNodes(visibility);
+            Integer from = idsByName.get(fromNode);
+            Integer to = idsByName.get(toNode);
+            if (from == null || to == null || !visible.get(from) || !visible.get(to)) {
+                return null;
+            }
+            // 广度优先搜索，记录每个节点是经由哪条关系到达的
+            Map<Integer, Integer> reachedVia = new HashMap<>();
+            BitSet visited = new BitSet();
+            visited.set(from);
+            IntList frontier = new IntList();
+            frontier.add(from);
+            boolean found = from.equals(to);
+            for (int length = 0; length < maxLength && !found && frontier.size() > 0; length++) {
+                IntList next = new IntList();
+                search:
+                for (int i = 0; i < frontier.size(); i++) {
+                    NodeRecord node = nodes.get(frontier.get(i));
+                    for (IntList adjacency : Arrays.asList(node.out, node.in)) {
+                        for (int j = 0; j < adjacency.size(); j++) {
+                            RelationshipRecord relationship = relationships.get(adjacency.get(j));
+                            int other = relationship.from == node.id ? relationship.to : relationship.from;
+                            if (visited.get(other) || !visible.get(other)
+                                    || (!typeFilter.isEmpty() && !typeFilter.contains(relationship.type))) {
+                                continue;
+                            }
+                            visited.set(other);
+                            reachedVia.put(other, relationship.id);
+                            if (other == to) {
+                                found = true;
+                                break search;
+                            }
+                            next.add(other);
+                        }
+                    }
+                }
+                frontier = next;
+            }
+            GraphAdjacencyBuilder builder = new GraphAdjacencyBuilder();
+            if (!found) {
+                return builder.build();
+            }
+            // 从终点沿到达关系回溯到起点
+            List<Integer> path = new ArrayList<>();
+            List<RelationshipRecord> steps = new ArrayList<>();
+            int current = to;
+            path.add(current);
+            while (current != from) {
+                RelationshipRecord relationship = relationships.get(reachedVia.get(current));
+                current = relationship.from == current ? relationship.to : relationship.from;
+                path.add(current);
+                steps.add(relationship);
+            }
+            Collections.reverse(path);
+            Collections.reverse(steps);
+            for (int id : path) {
+                builder.addNode(toNodeVO(nodes.get(id)));
+            }
+            for (RelationshipRecord relationship : steps) {
+                builder.addEdge(nodes.get(relationship.from).name, nodes.get(relationship.to).name, relationship.type);
+            }
+            return builder.build();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // endregion
+
+    // region 自动关联
+
+    @Override
+    public long relink(Collection<String> names) {
+        lock.writeLock().lock();
+        try {
+            BitSet batch = new BitSet();
+            for (String name : names) {
+                Integer id = idsByName.get(name);
+                if (id != null) {
+                    batch.set(id);
+                }
+            }
+            long created = 0;
+            for (int a = batch.nextSetBit(0); a >= 0; a = batch.nextSetBit(a + 1)) {
+                removeStaleLinks(nodes.get(a));
+                created += link(nodes.get(a), batch);
+            }
+            return created;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 删除两端在关联属性上已不再取值相同的 SHARED_* 关系
+     */
+    private void removeStaleLinks(NodeRecord node) {
+        List<Integer> stale = new ArrayList<>();
+        for (IntList adjacency : Arrays.asList(node.out, node.in)) {
+            for (int i = 0; i < adjacency.size(); i++) {
+                RelationshipRecord relationship = relationships.get(adjacency.get(i));
+                if (relationship.linkKey == null) {
+                    continue;
+                }
+                Object value = nodes.get(relationship.from).properties.get(relationship.linkKey);
+                if (value == null || !value.equals(nodes.get(relationship.to).properties.get(relationship.linkKey))) {
+                    stale.add(relationship.id);
+                }
+            }
+        }
+        stale.forEach(this::removeRelationship);
+    }
+
+    /**
+     * 沿属性值位图找到共享取值的节点并补齐缺失的关系；同一批次内的两个节点只由名称较小的一方创建
+     */
+    private long link(NodeRecord node, BitSet batch) {
+        long created = 0;
+        for (Map.Entry<String, Object> property : node.properties.entrySet()) {
+            String key = property.getKey();
+            if (Neo4jConstant.RESERVED_NODE_KEYS.contains(key)) {
+                continue;
+            }
+            BitSet peers = index.get(key).get(property.getValue());
+            String type = sharedType(key);
+            for (int b = peers.nextSetBit(0); b >= 0; b = peers.nextSetBit(b + 1)) {
+                if (b == node.id) {
+                    continue;
+                }
+                NodeRecord peer = nodes.get(b);
+                if (batch.get(b) && node.name.compareTo(peer.name) > 0) {
+                    continue;
+                }
+                if (!connected(node, b, type)) {
+                    addRelationship(node.id, b, type, key);
+                    created++;
+                }
+            }
+        }
+        return created;
+    }
+
+    private boolean connected(NodeRecord node, int other, String type) {
+        for (int i = 0; i < node.out.size(); i++) {
+            RelationshipRecord relationship = relationships.get(node.out.get(i));
+            if (relationship.to == other && relationship.type.equals(type)) {
+                return true;
+            }
+        }
+        for (int i = 0; i < node.in.size(); i++) {
+            RelationshipRecord relationship = relationships.get(node.in.get(i));
+            if (relationship.from == other && relationship.type.equals(type)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 与 apoc.text.upperCamelCase 相同的命名：按非字母数字字符切分，各段首字母大写、其余小写
+     */
+    private static String sharedType(String key) {
+        StringBuilder type = new StringBuilder(SHARED_PREFIX);
+        for (String part : key.split("[^A-Za-z0-9]+")) {
+            if (!part.isEmpty()) {
+                type.append(Character.toUpperCase(part.charAt(0))).append(part.substring(1).toLowerCase());
+            }
+        }
+        return type.toString();
+    }
+
+    // endregion
+
+    // region 内部结构维护
+
+    private NodeRecord addNode(String name) {
+        NodeRecord node = new NodeRecord(nodes.size(), name);
+        nodes.add(node);
+        idsByName.put(name, node.id);
+        liveNodes.set(node.id);
+        return node;
+    }
+
+    private RelationshipRecord addRelationship(int from, int to, String type, String linkKey) {
+        RelationshipRecord relationship = new RelationshipRecord(relationships.size(), from, to, type, linkKey);
+        relationships.add(relationship);
+        liveRelationships.set(relationship.id);
+        nodes.get(from).out.add(relationship.id);
+        nodes.get(to).in.add(relationship.id);
+        return relationship;
+    }
+
+    private void removeRelationship(int relId) {
+        RelationshipRecord relationship = relationships.get(relId);
+        if (relationship == null) {
+            return;
+        }
+        nodes.get(relationship.from).out.removeValue(relId);
+        nodes.get(relationship.to).in.removeValue(relId);
+        relationships.set(relId, null);
+        liveRelationships.clear(relId);
+    }
+
+    private int[] matchRelationships(String fromNode, String toNode, String type) {
+        Integer from = idsByName.get(fromNode);
+        Integer to = idsByName.get(toNode);
+        if (from == null || to == null) {
+            return new int[0];
+        }
+        IntList matched = new IntList();
+        IntList out = nodes.get(from).out;
+        for (int i = 0; i < out.size(); i++) {
+            RelationshipRecord relationship = relationships.get(out.get(i));
+            if (relationship.to == to && relationship.type.equals(type)) {
+                matched.add(relationship.id);
+            }
+        }
+        return matched.toArray();
+    }
+
+    /**
+     * 修改节点属性并同步倒排索引；name 是节点标识，不能通过属性修改
+     */
+    private void setProperties(NodeRecord node, Map<String, Object> propertiesToSet, Collection<String> propertiesToRemove) {
+        if (propertiesToSet != null) {
+            for (Map.Entry<String, Object> property : propertiesToSet.entrySet()) {
+                if (!"name".equals(property.getKey())) {
+                    setProperty(node, property.getKey(), normalize(property.getValue()));
+                }
+            }
+        }
+        if (propertiesToRemove != null) {
+            for (String key : propertiesToRemove) {
+                if (StringUtils.isNotBlank(key)) {
+                    setProperty(node, key, null);
+                }
+            }
+        }
+    }
+
+    private void setProperty(NodeRecord node, String key, Object value) {
+        Object previous = node.properties.get(key);
+        if (Objects.equals(previous, value)) {
+            return;
+        }
+        if (previous != null) {
+            unindex(node.id, key, previous);
+        }
+        if (value == null) {
+            node.properties.remove(key);
+        } else {
+            node.properties.put(key, value);
+            index.computeIfAbsent(key, k -> new HashMap<>()).computeIfAbsent(value, v -> new BitSet()).set(node.id);
+        }
+    }
+
+    private void unindex(int id, String key, Object value) {
+        Map<Object, BitSet> values = index.get(key);
+        BitSet postings = values.get(value);
+        postings.clear(id);
+        if (postings.isEmpty()) {
+            values.remove(value);
+            if (values.isEmpty()) {
+                index.remove(key);
+            }
+        }
+    }
+
+    private static void putAll(Map<String, Object> target, Map<String, Object> propertiesToSet, Collection<String> propertiesToRemove) {
+        if (propertiesToSet != null) {
+            for (Map.Entry<String, Object> property : propertiesToSet.entrySet()) {
+                Object value = normalize(property.getValue());
+                if (value == null) {
+                    target.remove(property.getKey());
+                } else {
+                    target.put(property.getKey(), value);
+                }
+            }
+        }
+        if (propertiesToRemove != null) {
+            propertiesToRemove.forEach(target::remove);
+        }
+    }
+
+    /**
+     * 按 Neo4j 的存储类型归一数值，保证 1 与 1L 被视为同一个属性值
+     */
+    private static Object normalize(Object value) {
+        if (value instanceof Integer || value instanceof Short || value instanceof Byte) {
+            return ((Number) value).longValue();
+        }
+        if (value instanceof Float) {
+            return ((Float) value).doubleValue();
+        }
+        if (value instanceof Collection) {
+            List<Object> list = new ArrayList<>();
+            for (Object element : (Collection<?>) value) {
+                list.add(normalize(element));
+            }
+            return list;
+        }
+        return value;
+    }
+
+    /**
+     * 可见节点位图：平台公共 ∪ (个人空间 ∩ 本人所有) ∪ (组织公共 ∩ 所属组织所有)
+     */
+    private BitSet visibleNodes(GraphVisibility visibility) {
+        if (visibility.isUnrestricted()) {
+            return (BitSet) liveNodes.clone();
+        }
+        BitSet visible = postings(KEY_SPACE, GraphVisibility.SPACE_PLATFORM_PUBLIC);
+
+        BitSet personal = postings(KEY_SPACE, GraphVisibility.SPACE_USER_PRIVATE);
+        personal.or(postings(KEY_SPACE, GraphVisibility.SPACE_USER_PUBLIC));
+        personal.and(postings(KEY_OWNER_USER, visibility.getUserId()));
+        visible.or(personal);
+
+        BitSet organizations = new BitSet();
+        for (String organizationId : visibility.getOrganizationIds()) {
+            organizations.or(postings(KEY_OWNER_ORGANIZATION, organizationId));
+        }
+        organizations.and(postings(KEY_SPACE, GraphVisibility.SPACE_ORGANIZATION_PUBLIC));
+        visible.or(organizations);
+        return visible;
+    }
+
+    /**
+     * 属性取值对应的节点位图副本，可直接参与位运算
+     */
+    private BitSet postings(String key, Object value) {
+        Map<Object, BitSet> values = index.get(key);
+        BitSet postings = values == null || value == null ? null : values.get(value);
+        return postings == null ? new BitSet() : (BitSet) postings.clone();
+    }
+
+    private NodeVO toNodeVO(NodeRecord node) {
+        NodeVO vo = new NodeVO();
+        vo.setName(node.name);
+        vo.setProperties(new HashMap<>(node.properties));
+        return vo;
+    }
+
+    private RelationshipVO toRelationshipVO(RelationshipRecord relationship) {
+        RelationshipVO vo = new RelationshipVO();
+        vo.setName(relationship.type);
+        vo.setFromNode(nodes.get(relationship.from).name);
+        vo.setToNode(nodes.get(relationship.to).name);
+        vo.setProperties(new HashMap<>(relationship.properties));
+        return vo;
+    }
+
+    // endregion
+
+    private static class NodeRecord {
+        private final int id;
+        private final String name;
+        private final Map<String, Object> properties = new HashMap<>();
+        private final IntList out = new IntList();
+        private final IntList in = new IntList();
+
+        private NodeRecord(int id, String name) {
+            this.id = id;
+            this.name = name;
+        }
+    }
+
+    private static class RelationshipRecord {
+        private final int id;
+        private final int from;
+        private final int to;
+        private final String type;
+        private final Map<String, Object> properties = new HashMap<>();
+
+        /**
+         * 自动关联建立的关系所依据的属性名，手工创建的关系为 null
+         */
+        private final String linkKey;
+
+        private RelationshipRecord(int id, int from, int to, String type, String linkKey) {
+            this.id = id;
+            this.from = from;
+            this.to = to;
+            this.type = type;
+            this.linkKey = linkKey;
+        }
+    }
+
+    /**
+     * 不装箱的 int 动态数组，用作邻接表
+     */
+    private static class IntList {
+        private int[] values = new int[4];
+        private int size;
+
+        private void add(int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        private void removeValue(int value) {
+            for (int i = 0; i < size; i++) {
+                if (values[i] == value) {
+                    values[i] = values[--size];
+                    return;
+                }
+            }
+        }
+
+        private int get(int i) {
+            return values[i];
+        }
+
+        private int size() {
+            return size;
+        }
+
+        private int[] toArray() {
+            return Arrays.copyOf(values, size);
+        }
+    }
+}
+// END OF FILE: src/main/java/com/scy/mytemplate/manager/graph/InMemoryGraphStore.java
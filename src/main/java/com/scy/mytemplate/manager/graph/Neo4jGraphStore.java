@@ -0,0 +1,581 @@
+// FILE: src/main/java/com/scy/mytemplate/manager/graph/Neo4jGraphStore.java
+package com.scy.mytemplate.manager.graph;
+
+import com.scy.mytemplate.constant.Neo4jConstant;
+import com.scy.mytemplate.manager.AutoRelationshipManager;
+import com.scy.mytemplate.manager.GraphMetricsRecorder;
+import com.scy.mytemplate.model.dto.node.NodeCreateRequest;
+import com.scy.mytemplate.model.vo.CursorPageVO;
+import com.scy.mytemplate.model.vo.GraphAdjacencyVO;
+import com.scy.mytemplate.model.vo.NodeVO;
+import com.scy.mytemplate.model.vo.RelationshipVO;
+import org.apache.commons.lang3.StringUtils;
+import org.neo4j.driver.Driver;
+import org.neo4j.driver.Record;
+import org.neo4j.driver.Result;
+import org.neo4j.driver.Session;
+import org.neo4j.driver.exceptions.ClientException;
+import org.neo4j.driver.types.Node;
+import org.neo4j.driver.types.Relationship;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.Resource;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/**
+ * 经 Bolt 协议读写 Neo4j 的图谱存储（默认实现）。
+ * 每次调用在一个会话中执行一个事务函数，并以逻辑操作名记录到 {@link GraphMetricsRecorder}；
+ * 流式读取使用自动提交事务。自动关联委托给基于 (:PropertyValue) 倒排索引的 {@link AutoRelationshipManager}。
+ *
+ * @author Bedrock
+ */
+@Component
+@ConditionalOnProperty(name = "graph.store.type", havingValue = "neo4j", matchIfMissing = true)
+public class Neo4jGraphStore implements GraphStore {
+
+    /**
+     * 以下语句的文本固定不变，关系类型和要移除的属性名都以参数传入，
+     * 任意类型名、属性名组合都复用同一个查询计划，不会因为新的类型名或属性名触发重新规划。
+     */
+    private static final String UPDATE_NODE_QUERY =
+            "MATCH (n:CircuitNode {name: $name}) SET n += $propsToSet " +
+                    "WITH n CALL apoc.create.removeProperties(n, $keysToRemove) YIELD node " +
+                    "RETURN node.name";
+
+    private static final String UPDATE_NODES_QUERY =
+            "UNWIND $names AS name MATCH (n:CircuitNode {name: name}) SET n += $propsToSet " +
+                    "WITH n CALL apoc.create.removeProperties(n, $keysToRemove) YIELD node " +
+                    "RETURN count(node) AS updated";
+
+    private static final String CREATE_RELATIONSHIP_QUERY =
+            "MATCH (a:CircuitNode {name: $fromNode}), (b:CircuitNode {name: $toNode}) " +
+                    "CALL apoc.create.relationship(a, $type, $props, b) YIELD rel " +
+                    "RETURN type(rel)";
+
+    private static final String DELETE_RELATIONSHIP_QUERY =
+            "MATCH (:CircuitNode {name: $fromNode})-[r]->(:CircuitNode {name: $toNode}) " +
+                    "WHERE type(r) = $type DELETE r";
+
+    private static final String UPDATE_RELATIONSHIP_QUERY =
+            "MATCH (:CircuitNode {name: $fromNode})-[r]->(:CircuitNode {name: $toNode}) " +
+                    "WHERE type(r) = $type SET r += $propsToSet " +
+                    "WITH r CALL apoc.create.removeRelProperties(r, $keysToRemove) YIELD rel " +
+                    "RETURN count(rel) AS updated";
+
+    private static final String FIND_RELATIONSHIP_QUERY =
+            "MATCH (a:CircuitNode {name: $fromNode})-[r]->(b:CircuitNode {name: $toNode}) " +
+                    "WHERE type(r) = $type " +
+                    "RETURN r, a.name AS fromNode, b.name AS toNode LIMIT 1";
+
+    @Resource
+    private Driver driver;
+
+    @Resource
+    private GraphMetricsRecorder graphMetricsRecorder;
+
+    @Resource
+    private AutoRelationshipManager autoRelationshipManager;
+
+    // region 节点
+
+    @Override
+    public boolean createNode(String name, Map<String, Object> properties) {
+        try (Session session = driver.session()) {
+            // 依赖 name 唯一约束的 MERGE：判重与创建在同一个写事务内完成
+            return graphMetricsRecorder.write(session, "createNode", tx -> {
+                String query = "MERGE (n:CircuitNode {name: $name}) ON CREATE SET n += $props";
+                return tx.run(query, Map.of("name", name, "props", properties)).consume().counters().nodesCreated() > 0;
+            });
+        } catch (ClientException e) {
+            if (isConstraintViolation(e)) {
+                // 并发 MERGE 同名节点时，落后的一方会被唯一约束拒绝
+                return false;
+            }
+            throw e;
+        }
+    }
+
+    @Override
+    public void mergeNodes(List<NodeCreateRequest> requests) {
+        String query = "UNWIND $rows AS row MERGE (n:CircuitNode {name: row.name}) ON CREATE SET n += row.props";
+        try (Session session = driver.session()) {
+            graphMetricsRecorder.write(session, "createNodesBatch", tx -> tx.run(query, Map.of("rows", toRows(requests))).consume());
+        }
+    }
+
+    @Override
+    public void deleteNode(String name) {
+        try (Session session = driver.session()) {
+            graphMetricsRecorder.write(session, "deleteNode", tx -> {
+                // 删除节点的同时回收不再被任何节点引用的属性值枢纽节点
+                String query = "MATCH (n:CircuitNode {name: $name}) " +
+                        "OPTIONAL MATCH (n)-[:HAS_VALUE]->(pv:PropertyValue) " +
+                        "WITH n, collect(pv) AS hubs " +
+                        "DETACH DELETE n " +
+                        "WITH hubs UNWIND hubs AS hub " +
+                        "WITH hub WHERE NOT ()-[:HAS_VALUE]->(hub) " +
+                        "DELETE hub";
+                tx.run(query, Map.of("name", name));
+                return null;
+            });
+        }
+    }
+
+    @Override
+    public void deleteNodes(Collection<String> names) {
+        try (Session session = driver.session()) {
+            graphMetricsRecorder.write(session, "deleteNodes", tx -> {
+                // 先整体收集枢纽节点再删除，删除全部节点之后再回收孤立的枢纽节点
+                String query = "UNWIND $names AS name " +
+                        "MATCH (n:CircuitNode {name: name}) " +
+                        "OPTIONAL MATCH (n)-[:HAS_VALUE]->(pv:PropertyValue) " +
+                        "WITH collect(DISTINCT n) AS nodes, collect(DISTINCT id(pv)) AS hubIds " +
+                        "FOREACH (x IN nodes | DETACH DELETE x) " +
+                        "RETURN hubIds";
+                List<Long> hubIds = tx.run(query, Map.of("names", new ArrayList<>(names)))
+                        .single().get("hubIds").asList(v -> v.asLong());
+                autoRelationshipManager.pruneOrphanValues(tx, hubIds);
+                return null;
+            });
+        }
+    }
+
+    @Override
+    public boolean updateNode(String name, Map<String, Object> propertiesToSet, Collection<String> propertiesToRemove) {
+        Map<String, Object> parameters = updateParams(propertiesToSet, propertiesToRemove);
+        parameters.put("name", name);
+        graphMetricsRecorder.recordQueryText("updateNode", UPDATE_NODE_QUERY);
+        try (Session session = driver.session()) {
+            return graphMetricsRecorder.write(session, "updateNode", tx -> tx.run(UPDATE_NODE_QUERY, parameters).hasNext());
+        }
+    }
+
+    @Override
+    public int updateNodes(Collection<String> names, Map<String, Object> propertiesToSet, Collection<String> propertiesToRemove) {
+        Map<String, Object> parameters = updateParams(propertiesToSet, propertiesToRemove);
+        parameters.put("names", new ArrayList<>(names));
+        graphMetricsRecorder.recordQueryText("updateNodePermissionsBatch", UPDATE_NODES_QUERY);
+        try (Session session = driver.session()) {
+            return graphMetricsRecorder.write(session, "updateNodePermissionsBatch", tx ->
+                    tx.run(UPDATE_NODES_QUERY, parameters).single().get("updated").asInt());
+        }
+    }
+
+    @Override
+    public NodeVO findNode(String name) {
+        try (Session session = driver.session()) {
+            return graphMetricsRecorder.read(session, "findNode", tx -> {
+                Result result = tx.run("MATCH (n:CircuitNode {name: $name}) RETURN n", Map.of("name", name));
+                return result.stream()
+                        .findFirst()
+                        .map(record -> nodeToVO(record.get("n").asNode()))
+                        .orElse(null);
+            });
+        }
+    }
+
+    @Override
+    public Map<String, NodeVO> findNodes(Collection<String> names) {
+        Map<String, NodeVO> nodes = new HashMap<>();
+        try (Session session = driver.session()) {
+            graphMetricsRecorder.read(session, "findNodes", tx -> {
+                tx.run("MATCH (n:CircuitNode) WHERE n.name IN $names RETURN n", Map.of("names", new ArrayList<>(names)))
+                        .forEachRemaining(record -> {
+                            NodeVO node = nodeToVO(record.get("n").asNode());
+                            nodes.put(node.getName(), node);
+                        });
+                return null;
+            });
+        }
+        return nodes;
+    }
+
+    @Override
+    public List<NodeVO> listNodes(GraphVisibility visibility) {
+        Map<String, Object> params = visibilityParams(visibility);
+        String query = "MATCH (n:CircuitNode) WHERE " + visibilityPredicate("n", visibility) + " RETURN n";
+        graphMetricsRecorder.recordQueryText("getAllNodes", query);
+        try (Session session = driver.session()) {
+            return graphMetricsRecorder.read(session, "getAllNodes", tx -> tx.run(query, params)
+                    .list(record -> nodeToVO(record.get("n").asNode())));
+        }
+    }
+
+    @Override
+    public CursorPageVO<NodeVO> pageNodes(GraphVisibility visibility, String cursor, int pageSize) {
+        Map<String, Object> params = visibilityParams(visibility);
+        StringBuilder query = new StringBuilder("MATCH (n:CircuitNode) WHERE ");
+        if (StringUtils.isNotBlank(cursor)) {
+            // 直接使用范围条件，便于命中 name 上的索引
+            query.append("n.name > $cursor AND ");
+            params.put("cursor", cursor);
+        }
+        query.append(visibilityPredicate("n", visibility)).append(" RETURN n ORDER BY n.name LIMIT $limit");
+        // 多取一条用于判断是否还有下一页
+        params.put("limit", pageSize + 1);
+        graphMetricsRecorder.recordQueryText("listNodesByCursor", query.toString());
+        List<NodeVO> nodes;
+        try (Session session = driver.session()) {
+            nodes = graphMetricsRecorder.read(session, "listNodesByCursor", tx -> tx.run(query.toString(), params)
+                    .list(record -> nodeToVO(record.get("n").asNode())));
+        }
+        if (nodes.size() <= pageSize) {
+            return CursorPageVO.of(nodes, null);
+        }
+        List<NodeVO> page = new ArrayList<>(nodes.subList(0, pageSize));
+        return CursorPageVO.of(page, page.get(pageSize - 1).getName());
+    }
+
+    @Override
+    public void streamNodes(GraphVisibility visibility, Consumer<NodeVO> consumer) {
+        Map<String, Object> params = visibilityParams(visibility);
+        String query = "MATCH (n:CircuitNode) WHERE " + visibilityPredicate("n", visibility) + " RETURN n";
+        graphMetricsRecorder.recordQueryText("streamNodes", query);
+        try (Session session = driver.session()) {
+            // 使用自动提交事务：结果按 fetch size 分批从服务端拉取，逐条交给 consumer。
+            // 事务函数在瞬时错误时会整体重放，而已经写出的响应无法撤回，所以这里不使用事务函数。
+            graphMetricsRecorder.run("streamNodes", () -> {
+                Result result = session.run(query, params);
+                while (result.hasNext()) {
+                    consumer.accept(nodeToVO(result.next().get("n").asNode()));
+                }
+            });
+        }
+    }
+
+    // endregion
+
+    // region 关系
+
+    @Override
+    public boolean createRelationship(String fromNode, String toNode, String type, Map<String, Object> properties) {
+        Map<String, Object> params = relationshipParams(fromNode, toNode, type);
+        params.put("props", properties == null ? new HashMap<>() : properties);
+        graphMetricsRecorder.recordQueryText("createRelationship", CREATE_RELATIONSHIP_QUERY);
+        try (Session session = driver.session()) {
+            return graphMetricsRecorder.write(session, "createRelationship", tx -> tx.run(CREATE_RELATIONSHIP_QUERY, params).hasNext());
+        }
+    }
+
+    @Override
+    public void deleteRelationship(String fromNode, String toNode, String type) {
+        Map<String, Object> params = relationshipParams(fromNode, toNode, type);
+        graphMetricsRecorder.recordQueryText("deleteRelationship", DELETE_RELATIONSHIP_QUERY);
+        try (Session session = driver.session()) {
+            graphMetricsRecorder.write(session, "deleteRelationship", tx -> {
+                tx.run(DELETE_RELATIONSHIP_QUERY, params);
+                return null;
+            });
+        }
+    }
+
+    @Override
+    public boolean updateRelationship(String fromNode, String toNode, String type,
+                                      Map<String, Object> propertiesToSet, Collection<String> propertiesToRemove) {
+        Map<String, Object> parameters = updateParams(propertiesToSet, propertiesToRemove);
+        parameters.putAll(relationshipParams(fromNode, toNode, type));
+        graphMetricsRecorder.recordQueryText("updateRelationship", UPDATE_RELATIONSHIP_QUERY);
+        try (Session session = driver.session()) {
+            return graphMetricsRecorder.write(session, "updateRelationship", tx ->
+                    tx.run(UPDATE_RELATIONSHIP_QUERY, parameters).single().get("updated").asInt() > 0);
+        }
+    }
+
+    @Override
+    public RelationshipVO findRelationship(String fromNode, String toNode, String type) {
+        Map<String, Object> params = relationshipParams(fromNode, toNode, type);
+        graphMetricsRecorder.recordQueryText("findRelationship", FIND_RELATIONSHIP_QUERY);
+        try (Session session = driver.session()) {
+            return graphMetricsRecorder.read(session, "findRelationship", tx -> tx.run(FIND_RELATIONSHIP_QUERY, params)
+                    .stream()
+                    .findFirst()
+                    .map(this::recordToRelationshipVO)
+                    .orElse(null));
+        }
+    }
+
+    @Override
+    public List<RelationshipVO> listRelationships(GraphVisibility visibility) {
+        // 一次查询完成：两端节点直接套用与节点查询相同的可见性谓词，不再先取回可见节点名单
+        Map<String, Object> params = visibilityParams(visibility);
+        String query = "MATCH (a:CircuitNode)-[r]->(b:CircuitNode) " +
+                "WHERE " + visibilityPredicate("a", visibility) + " AND " + visibilityPredicate("b", visibility) + " " +
+                "RETURN r, a.name AS fromNode, b.name AS toNode";
+        graphMetricsRecorder.recordQueryText("getAllRelationships", query);
+        try (Session session = driver.session()) {
+            return graphMetricsRecorder.read(session, "getAllRelationships", tx -> tx.run(query, params)
+                    .list(this::recordToRelationshipVO));
+        }
+    }
+
+    @Override
+    public CursorPageVO<RelationshipVO> pageRelationships(GraphVisibility visibility, String cursor, int pageSize) {
+        RelationshipCursor after = RelationshipCursor.decode(cursor);
+        Map<String, Object> params = visibilityParams(visibility);
+        params.put("fromNode", after.fromNode);
+        params.put("relId", after.relId);
+        params.put("limit", pageSize + 1);
+        // 按 (起点名称, 关系ID) 翻页：起点沿名称唯一约束的索引做范围查找并按名称有序读取，只展开当前页附近节点的出边，
+        // 不再对全部关系按 id(r) 排序（关系ID上没有可供查找的索引）
+        String query = "MATCH (a:CircuitNode) WHERE a.name >= $fromNode AND " + visibilityPredicate("a", visibility) + " " +
+                "MATCH (a)-[r]->(b:CircuitNode) " +
+                "WHERE (a.name > $fromNode OR id(r) > $relId) AND " + visibilityPredicate("b", visibility) + " " +
+                "RETURN r, a.name AS fromNode, b.name AS toNode, id(r) AS relId ORDER BY fromNode, relId LIMIT $limit";
+        graphMetricsRecorder.recordQueryText("listRelationshipsByCursor", query);
+        List<Record> records;
+        try (Session session = driver.session()) {
+            records = graphMetricsRecorder.read(session, "listRelationshipsByCursor", tx -> tx.run(query, params).list());
+        }
+        boolean hasMore = records.size() > pageSize;
+        List<Record> pageRecords = hasMore ? records.subList(0, pageSize) : records;
+        List<RelationshipVO> relationships = pageRecords.stream()
+                .map(this::recordToRelationshipVO)
+                .collect(Collectors.toList());
+        String nextCursor = null;
+        if (hasMore) {
+            Record last = pageRecords.get(pageSize - 1);
+            nextCursor = new RelationshipCursor(last.get("fromNode").asString(), last.get("relId").asLong()).encode();
+        }
+        return CursorPageVO.of(relationships, nextCursor);
+    }
+
+    @Override
+    public void streamRelationships(GraphVisibility visibility, Consumer<RelationshipVO> consumer) {
+        Map<String, Object> params = visibilityParams(visibility);
+        String query = "MATCH (a:CircuitNode)-[r]->(b:CircuitNode) " +
+                "WHERE " + visibilityPredicate("a", visibility) + " AND " + visibilityPredicate("b", visibility) + " " +
+                "RETURN r, a.name AS fromNode, b.name AS toNode";
+        graphMetricsRecorder.recordQueryText("streamRelationships", query);
+        try (Session session = driver.session()) {
+            // 与 streamNodes 相同，使用自动提交事务逐条消费
+            graphMetricsRecorder.run("streamRelationships", () -> {
+                Result result = session.run(query, params);
+                while (result.hasNext()) {
+                    consumer.accept(recordToRelationshipVO(result.next()));
+                }
+            });
+        }
+    }
+
+    // endregion
+
+    // region 子图查询
+
+    @Override
+    public GraphAdjacencyVO neighborhood(GraphVisibility visibility, String name, int depth, Collection<String> types,
+                                         int nodeLimit, int edgeLimit) {
+        Map<String, Object> params = visibilityParams(visibility);
+        params.put("name", name);
+        params.put("types", new ArrayList<>(types));
+        String startQuery = "MATCH (s:CircuitNode {name: $name}) WHERE " + visibilityPredicate("s", visibility) + " RETURN s";
+        // 每层一条语句：从上一层新加入的节点出发取可见的相邻节点，可见性在扩展时就生效，不可见节点不会作为中转
+        String expandQuery = "UNWIND $frontier AS name " +
+                "MATCH (a:CircuitNode {name: name})-[r]-(b:CircuitNode) " +
+                "WHERE (size($types) = 0 OR type(r) IN $types) AND " + visibilityPredicate("b", visibility) + " " +
+                "RETURN id(r) AS relId, type(r) AS type, startNode(r).name AS fromNode, endNode(r).name AS toNode, b " +
+                "LIMIT $limit";
+        graphMetricsRecorder.recordQueryText("neighborhood", expandQuery);
+        try (Session session = driver.session()) {
+            return graphMetricsRecorder.read(session, "neighborhood", tx -> {
+                List<Record> start = tx.run(startQuery, params).list();
+                if (start.isEmpty()) {
+                    return null;
+                }
+                GraphAdjacencyBuilder builder = new GraphAdjacencyBuilder();
+                builder.addNode(nodeToVO(start.get(0).get("s").asNode()));
+                Set<Long> seenRelationships = new HashSet<>();
+                List<String> frontier = Collections.singletonList(name);
+                for (int level = 0; level < depth && !frontier.isEmpty(); level++) {
+                    params.put("frontier", frontier);
+                    // 多取一行用于判断是否截断
+                    params.put("limit", edgeLimit - builder.edgeCount() + 1);
+                    List<String> next = new ArrayList<>();
+                    for (Record row : tx.run(expandQuery, params).list()) {
+                        if (builder.edgeCount() >= edgeLimit) {
+                            builder.markTruncated();
+                            break;
+                        }
+                        // 两端都在本层的关系会被返回两次
+                        if (!seenRelationships.add(row.get("relId").asLong())) {
+                            continue;
+                        }
+                        Node neighbor = row.get("b").asNode();
+                        String neighborName = neighbor.get("name").asString();
+                        if (!builder.containsNode(neighborName)) {
+                            if (builder.nodeCount() >= nodeLimit) {
+                                builder.markTruncated();
+                                continue;
+                            }
+                            builder.addNode(nodeToVO(neighbor));
+                            next.add(neighborName);
+                        }
+                        builder.addEdge(row.get("fromNode").asString(), row.get("toNode").asString(), row.get("type").asString());
+                    }
+                    frontier = next;
+                }
+                return builder.build();
+            });
+        }
+    }
+
+    @Override
+    public GraphAdjacencyVO shortestPath(GraphVisibility visibility, String fromNode, String toNode, int maxLength,
+                                         Collection<String> types) {
+        Map<String, Object> params = visibilityParams(visibility);
+        params.put("fromNode", fromNode);
+        params.put("toNode", toNode);
+        params.put("types", new ArrayList<>(types));
+        // shortestPath 不接受相同的起止节点，单独处理
+        if (fromNode.equals(toNode)) {
+            String query = "MATCH (a:CircuitNode {name: $fromNode}) WHERE " + visibilityPredicate("a", visibility) + " RETURN a";
+            try (Session session = driver.session()) {
+                return graphMetricsRecorder.read(session, "shortestPath", tx -> tx.run(query, params).stream()
+                        .findFirst()
+                        .map(record -> {
+                            GraphAdjacencyBuilder builder = new GraphAdjacencyBuilder();
+                            builder.addNode(nodeToVO(record.get("a").asNode()));
+                            return builder.build();
+                        })
+                        .orElse(null));
+            }
+        }
+        // 路径长度上限来自配置，语句文本不随请求变化；对路径上节点和关系的 all() / none() 条件在最短路径搜索过程中生效。
+        // 自动关联的 (:PropertyValue) 枢纽节点和 HAS_VALUE 关系不属于业务图谱，不能作为路径的中转
+        String query = "MATCH (a:CircuitNode {name: $fromNode}), (b:CircuitNode {name: $toNode}) " +
+                "WHERE " + visibilityPredicate("a", visibility) + " AND " + visibilityPredicate("b", visibility) + " " +
+                "OPTIONAL MATCH p = shortestPath((a)-[*.." + maxLength + "]-(b)) " +
+                "WHERE none(r IN relationships(p) WHERE type(r) = 'HAS_VALUE') " +
+                "AND all(x IN nodes(p) WHERE x:CircuitNode AND " + visibilityPredicate("x", visibility) + ") " +
+                "AND (size($types) = 0 OR all(r IN relationships(p) WHERE type(r) IN $types)) " +
+                "RETURN nodes(p) AS pathNodes, " +
+                "[r IN relationships(p) | [startNode(r).name, endNode(r).name, type(r)]] AS pathRelationships";
+        graphMetricsRecorder.recordQueryText("shortestPath", query);
+        try (Session session = driver.session()) {
+            return graphMetricsRecorder.read(session, "shortestPath", tx -> {
+                List<Record> records = tx.run(query, params).list();
+                if (records.isEmpty()) {
+                    return null;
+                }
+                GraphAdjacencyBuilder builder = new GraphAdjacencyBuilder();
+                Record record = records.get(0);
+                if (record.get("pathNodes").isNull()) {
+                    return builder.build();
+                }
+                for (Node node : record.get("pathNodes").asList(v -> v.asNode())) {
+                    builder.addNode(nodeToVO(node));
+                }
+                for (List<String> relationship : record.get("pathRelationships").asList(v -> v.asList(e -> e.asString()))) {
+                    builder.addEdge(relationship.get(0), relationship.get(1), relationship.get(2));
+                }
+                return builder.build();
+            });
+        }
+    }
+
+    // endregion
+
+    @Override
+    public long relink(Collection<String> names) {
+        return autoRelationshipManager.relink(names);
+    }
+
+    // region 辅助方法
+
+    private boolean isConstraintViolation(ClientException e) {
+        return Neo4jConstant.CONSTRAINT_VIOLATION_CODE.equals(e.code());
+    }
+
+    private List<Map<String, Object>> toRows(List<NodeCreateRequest> requests) {
+        List<Map<String, Object>> rows = new ArrayList<>(requests.size());
+        for (NodeCreateRequest request : requests) {
+            Map<String, Object> row = new HashMap<>();
+            row.put("name", request.getName());
+            row.put("props", request.getProperties() == null ? new HashMap<>() : request.getProperties());
+            rows.add(row);
+        }
+        return rows;
+    }
+
+    /**
+     * 属性修改语句的参数：要设置的属性和要移除的属性名都以参数传入，未指定时传空值，语句文本保持不变
+     */
+    private Map<String, Object> updateParams(Map<String, Object> propertiesToSet, Collection<String> propertiesToRemove) {
+        Map<String, Object> parameters = new HashMap<>();
+        parameters.put("propsToSet", propertiesToSet == null ? new HashMap<>() : propertiesToSet);
+        List<String> keysToRemove = new ArrayList<>();
+        if (propertiesToRemove != null) {
+            for (String key : propertiesToRemove) {
+                if (StringUtils.isNotBlank(key)) {
+                    keysToRemove.add(key);
+                }
+            }
+        }
+        parameters.put("keysToRemove", keysToRemove);
+        return parameters;
+    }
+
+    private Map<String, Object> relationshipParams(String fromNode, String toNode, String type) {
+        Map<String, Object> parameters = new HashMap<>();
+        parameters.put("fromNode", fromNode);
+        parameters.put("toNode", toNode);
+        parameters.put("type", type);
+        return parameters;
+    }
+
+    /**
+     * 生成节点可见性谓词，所需参数由 {@link #visibilityParams} 提供。
+     *
+     * @param alias 节点变量名
+     */
+    private String visibilityPredicate(String alias, GraphVisibility visibility) {
+        if (visibility.isUnrestricted()) {
+            return "true";
+        }
+        return "(" + alias + ".space = 'platform_public'" +
+                " OR (" + alias + ".space IN ['user_private', 'user_public'] AND " + alias + ".ownerUserId = $userId)" +
+                " OR (" + alias + ".space = 'organization_public' AND " + alias + ".ownerOrganizationId IN $orgIds))";
+    }
+
+    /**
+     * 可见性谓词所需的查询参数，返回可继续追加参数的 Map
+     */
+    private Map<String, Object> visibilityParams(GraphVisibility visibility) {
+        Map<String, Object> params = new HashMap<>();
+        if (!visibility.isUnrestricted()) {
+            params.put("userId", visibility.getUserId());
+            params.put("orgIds", visibility.getOrganizationIds());
+        }
+        return params;
+    }
+
+    private NodeVO nodeToVO(Node node) {
+        Map<String, Object> properties = new HashMap<>(node.asMap());
+        NodeVO vo = new NodeVO();
+        vo.setName((String) properties.remove("name"));
+        vo.setProperties(properties);
+        return vo;
+    }
+
+    private RelationshipVO recordToRelationshipVO(Record record) {
+        Relationship rel = record.get("r").asRelationship();
+        RelationshipVO vo = new RelationshipVO();
+        vo.setName(rel.type());
+        vo.setFromNode(record.get("fromNode").asString());
+        vo.setToNode(record.get("toNode").asString());
+        vo.setProperties(new HashMap<>(rel.asMap()));
+        return vo;
+    }
+
+    // endregion
+}
+// END OF FILE: src/main/java/com/scy/mytemplate/manager/graph/Neo4jGraphStore.java
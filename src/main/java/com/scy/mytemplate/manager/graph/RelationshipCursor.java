@@ -0,0 +1,52 @@
+// FILE: src/main/java/com/scy/mytemplate/manager/graph/RelationshipCursor.java
+package com.scy.mytemplate.manager.graph;
+
+import com.scy.mytemplate.common.ErrorCode;
+import com.scy.mytemplate.exception.BusinessException;
+import org.apache.commons.lang3.StringUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * 关系分页游标：上一页最后一条关系的 (起点名称, 关系ID)。
+ * 按起点名称翻页可以沿节点名称唯一约束的索引做范围查找，同一起点的关系再按关系ID排序；
+ * 对外以 Base64 编码的 "关系ID:起点名称" 表示，名称中可以包含任意字符。
+ *
+ * @author Bedrock
+ */
+class RelationshipCursor {
+
+    /**
+     * 第一页：空字符串小于任何节点名称
+     */
+    static final RelationshipCursor FIRST = new RelationshipCursor("", -1);
+
+    final String fromNode;
+
+    final long relId;
+
+    RelationshipCursor(String fromNode, long relId) {
+        this.fromNode = fromNode;
+        this.relId = relId;
+    }
+
+    String encode() {
+        String raw = relId + ":" + fromNode;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static RelationshipCursor decode(String cursor) {
+        if (StringUtils.isBlank(cursor)) {
+            return FIRST;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.indexOf(':');
+            return new RelationshipCursor(raw.substring(separator + 1), Long.parseLong(raw.substring(0, separator)));
+        } catch (IllegalArgumentException | StringIndexOutOfBoundsException e) {
+            throw new BusinessException(ErrorCode.PARAMS_ERROR, "游标格式错误");
+        }
+    }
+}
+// END OF FILE: src/main/java/com/scy/mytemplate/manager/graph/RelationshipCursor.java
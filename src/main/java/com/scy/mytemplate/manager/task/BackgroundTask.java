@@ -0,0 +1,150 @@
+// FILE: src/main/java/com/scy/mytemplate/manager/task/BackgroundTask.java
+package com.scy.mytemplate.manager.task;
+
+import com.scy.mytemplate.model.enums.TaskStatusEnum;
+import com.scy.mytemplate.model.vo.TaskProgressVO;
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 单个后台任务的可变进度状态，可被多个工作线程并发更新。
+ *
+ * @author Bedrock
+ */
+public class BackgroundTask {
+
+    /**
+     * 最多保留的错误信息条数
+     */
+    private static final int MAX_ERRORS = 100;
+
+    @Getter
+    private final String id;
+
+    @Getter
+    private final String type;
+
+    @Getter
+    private final String userId;
+
+    private final Date createTime = new Date();
+
+    private final AtomicInteger processed = new AtomicInteger();
+
+    private final AtomicInteger failed = new AtomicInteger();
+
+    private final Map<String, AtomicInteger> stages = new ConcurrentHashMap<>();
+
+    private final List<String> errors = Collections.synchronizedList(new ArrayList<>());
+
+    private volatile int total;
+
+    private volatile TaskStatusEnum status = TaskStatusEnum.RUNNING;
+
+    private volatile Object result;
+
+    @Getter
+    private volatile Date finishTime;
+
+    BackgroundTask(String id, String type, String userId, int total) {
+        this.id = id;
+        this.type = type;
+        this.userId = userId;
+        this.total = total;
+    }
+
+    public void setTotal(int total) {
+        this.total = total;
+    }
+
+    /**
+     * 记录某个阶段完成了一个条目
+     */
+    public void stageDone(String stage) {
+        stageDone(stage, 1);
+    }
+
+    /**
+     * 记录某个阶段一次性完成了多个条目
+     */
+    public void stageDone(String stage, int count) {
+        stages.computeIfAbsent(stage, k -> new AtomicInteger()).addAndGet(count);
+    }
+
+    public void itemSucceeded() {
+        processed.incrementAndGet();
+    }
+
+    public void itemSucceeded(int count) {
+        processed.addAndGet(count);
+    }
+
+    public void itemFailed(String error) {
+        failed.incrementAndGet();
+        if (errors.size() < MAX_ERRORS) {
+            errors.add(error);
+        }
+    }
+
+    public int getProcessed() {
+        return processed.get();
+    }
+
+    public int getFailed() {
+        return failed.get();
+    }
+
+    public boolean isFinished() {
+        return finishTime != null;
+    }
+
+    /**
+     * 正常结束：有失败条目时状态为部分失败
+     */
+    public void finish(Object result) {
+        this.result = result;
+        this.status = failed.get() == 0 ? TaskStatusEnum.SUCCEED
+                : (processed.get() == 0 ? TaskStatusEnum.FAILED : TaskStatusEnum.PARTIAL);
+        this.finishTime = new Date();
+    }
+
+    /**
+     * 整体失败
+     */
+    public void fail(String error) {
+        if (errors.size() < MAX_ERRORS) {
+            errors.add(error);
+        }
+        this.status = TaskStatusEnum.FAILED;
+        this.finishTime = new Date();
+    }
+
+    public TaskProgressVO toVO() {
+        TaskProgressVO vo = new TaskProgressVO();
+        vo.setTaskId(id);
+        vo.setType(type);
+        vo.setStatus(status.getValue());
+        vo.setTotal(total);
+        vo.setProcessed(processed.get());
+        vo.setFailed(failed.get());
+        Map<String, Integer> stageSnapshot = new LinkedHashMap<>();
+        stages.forEach((stage, count) -> stageSnapshot.put(stage, count.get()));
+        vo.setStages(stageSnapshot);
+        synchronized (errors) {
+            vo.setErrors(new ArrayList<>(errors));
+        }
+        vo.setResult(isFinished() ? result : null);
+        vo.setCreateTime(createTime);
+        vo.setFinishTime(finishTime);
+        return vo;
+    }
+}
+// END OF FILE: src/main/java/com/scy/mytemplate/manager/task/BackgroundTask.java
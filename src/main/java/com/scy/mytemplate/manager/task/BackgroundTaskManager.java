@@ -0,0 +1,137 @@
+// FILE: src/main/java/com/scy/mytemplate/manager/task/BackgroundTaskManager.java
+package com.scy.mytemplate.manager.task;
+
+import com.scy.mytemplate.common.ErrorCode;
+import com.scy.mytemplate.exception.BusinessException;
+import com.scy.mytemplate.model.entity.User;
+import com.scy.mytemplate.model.enums.UserRoleEnum;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * 后台任务登记表。
+ * 负责分配任务ID、保存进度，并定期清理已结束且过期的任务。任务只保存在本进程内存中。
+ * 长时间运行的后台任务（文件夹复制、合并权限同步等）在本组件独立的有界线程池中执行，不占用图片入库流水线的线程；
+ * 队列满时直接拒绝，任务以失败结束，不会退回到提交线程（请求线程或事务回调）中执行。
+ *
+ * @author Bedrock
+ */
+@Component
+@Slf4j
+public class BackgroundTaskManager {
+
+    private final Map<String, BackgroundTask> tasks = new ConcurrentHashMap<>();
+
+    @Value("${task.retention-minutes:60}")
+    private long retentionMinutes;
+
+    @Value("${task.worker-threads:2}")
+    private int workerThreads;
+
+    @Value("${task.queue-capacity:100}")
+    private int queueCapacity;
+
+    private ThreadPoolExecutor executor;
+
+    @PostConstruct
+    public void start() {
+        AtomicInteger counter = new AtomicInteger();
+        executor = new ThreadPoolExecutor(workerThreads, workerThreads, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                r -> {
+                    Thread thread = new Thread(r, "background-task-" + counter.getAndIncrement());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        executor.allowCoreThreadTimeOut(true);
+    }
+
+    @PreDestroy
+    public void stop() {
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(10, TimeUnit.SECONDS)) {
+                log.warn("后台任务线程池关闭超时，剩余任务将被丢弃");
+                executor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * 登记一个新任务
+     *
+     * @param type   任务类型
+     * @param userId 发起用户ID，只有发起者和平台管理员可以查询
+     * @param total  预计处理的条目总数
+     * @return 新任务
+     */
+    public BackgroundTask create(String type, String userId, int total) {
+        String id = UUID.randomUUID().toString().replace("-", "");
+        BackgroundTask task = new BackgroundTask(id, type, userId, total);
+        tasks.put(id, task);
+        return task;
+    }
+
+    /**
+     * 在后台任务线程池中执行任务逻辑。
+     * 线程池和队列都已满时返回以 {@link BusinessException} 失败的结果，由调用方在 whenComplete 中统一处理。
+     *
+     * @param task     对应的后台任务
+     * @param supplier 任务逻辑
+     * @return 执行结果
+     */
+    public <T> CompletableFuture<T> supply(BackgroundTask task, Supplier<T> supplier) {
+        try {
+            return CompletableFuture.supplyAsync(supplier, executor);
+        } catch (RejectedExecutionException e) {
+            log.warn("后台任务队列已满 (容量 {})，拒绝任务 {}", queueCapacity, task.getId());
+            CompletableFuture<T> rejected = new CompletableFuture<>();
+            rejected.completeExceptionally(new BusinessException(ErrorCode.OPERATION_ERROR, "后台任务繁忙，请稍后重试"));
+            return rejected;
+        }
+    }
+
+    /**
+     * 获取任务并校验访问权限
+     */
+    public BackgroundTask getTask(String taskId, User currentUser) {
+        BackgroundTask task = tasks.get(taskId);
+        if (task == null) {
+            throw new BusinessException(ErrorCode.NOT_FOUND_ERROR, "任务不存在或已过期");
+        }
+        boolean isAdmin = UserRoleEnum.ADMIN.getValue().equals(currentUser.getUserRole());
+        if (!isAdmin && !task.getUserId().equals(currentUser.getId())) {
+            throw new BusinessException(ErrorCode.NO_AUTH_ERROR, "无权查看该任务");
+        }
+        return task;
+    }
+
+    /**
+     * 每 10 分钟清理一次已结束且超过保留时长的任务
+     */
+    @Scheduled(fixedRate = 10 * 60 * 1000)
+    public void evictExpired() {
+        long deadline = System.currentTimeMillis() - retentionMinutes * 60 * 1000;
+        tasks.values().removeIf(task -> task.isFinished() && task.getFinishTime().getTime() < deadline);
+    }
+}
+// END OF FILE: src/main/java/com/scy/mytemplate/manager/task/BackgroundTaskManager.java
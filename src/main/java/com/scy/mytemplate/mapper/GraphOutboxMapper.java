@@ -0,0 +1,15 @@
+// FILE: src/main/java/com/scy/mytemplate/mapper/GraphOutboxMapper.java
+package com.scy.mytemplate.mapper;
+
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.scy.mytemplate.model.entity.GraphOutboxEntry;
+
+/**
+ * GraphOutbox 表的数据库操作接口。
+ *
+ * @author Bedrock
+ */
+public interface GraphOutboxMapper extends BaseMapper<GraphOutboxEntry> {
+
+}
+// END OF FILE: src/main/java/com/scy/mytemplate/mapper/GraphOutboxMapper.java
@@ -0,0 +1,54 @@
+// FILE: src/main/java/com/scy/mytemplate/mapper/ImageBlobMapper.java
+package com.scy.mytemplate.mapper;
+
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.scy.mytemplate.model.entity.ImageBlob;
+import org.apache.ibatis.annotations.Param;
+
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * ImageBlob 表的数据库操作接口。
+ *
+ * @author Bedrock
+ */
+public interface ImageBlobMapper extends BaseMapper<ImageBlob> {
+
+    /**
+     * 增加引用计数，记录不存在时以 delta 为初始计数插入。
+     */
+    int acquire(@Param("hash") String hash, @Param("fileSize") Long fileSize, @Param("delta") int delta);
+
+    /**
+     * 批量增加引用计数（单条 INSERT ... ON DUPLICATE KEY UPDATE），每条记录的 refCount 字段即为增量。
+     */
+    int acquireAll(@Param("blobs") Collection<ImageBlob> blobs);
+
+    /**
+     * 减少引用计数，最低减到 0。
+     */
+    int release(@Param("hash") String hash, @Param("delta") int delta);
+
+    /**
+     * 批量减少引用计数（单条 UPDATE ... CASE），每条记录的 refCount 字段即为减量，最低减到 0。
+     */
+    int releaseAll(@Param("blobs") Collection<ImageBlob> blobs);
+
+    /**
+     * 对单条记录加行锁读取，用于回收前确认计数。
+     */
+    ImageBlob selectForUpdate(@Param("hash") String hash);
+
+    /**
+     * 查找引用计数为 0 且在截止时间之前就不再变化的记录。
+     */
+    List<String> findOrphans(@Param("before") Date before, @Param("limit") int limit);
+
+    /**
+     * 删除仍为孤儿状态的记录，返回删除条数（0 表示期间又被引用）。
+     */
+    int deleteOrphan(@Param("hash") String hash, @Param("before") Date before);
+}
+// END OF FILE: src/main/java/com/scy/mytemplate/mapper/ImageBlobMapper.java
@@ -1,8 +1,13 @@
 // FILE: src/main/java/com/scy/mytemplate/mapper/ImageMapper.java
 package com.scy.mytemplate.mapper;
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.scy.mytemplate.model.dto.image.ImageExportRow;
 import com.scy.mytemplate.model.entity.Image;
 import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.cursor.Cursor;
+
+import java.util.Collection;
+import java.util.List;
 /**
  Image 表的数据库操作接口。
  @author Bedrock
@@ -12,5 +17,15 @@ public interface ImageMapper extends BaseMapper<Image> {
      根据文件存储路径查找图片元数据。
      */
     Image findByStoragePath(@Param("storagePath") String storagePath);
+
+    /**
+     根据一组文件存储路径批量查找图片元数据（单条 IN 查询）。
+     */
+    List<Image> findByStoragePaths(@Param("storagePaths") Collection<String> storagePaths);
+
+    /**
+     以流式游标逐行读取文件夹内的图片及其标注，需在事务内遍历。
+     */
+    Cursor<ImageExportRow> streamForExport(@Param("folderId") String folderId);
 }
 // END OF FILE: src/main/java/com/scy/mytemplate/mapper/ImageMapper.java
\ No newline at end of file
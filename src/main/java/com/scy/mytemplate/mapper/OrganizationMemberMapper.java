@@ -5,6 +5,7 @@ import com.baomidou.mybatisplus.core.mapper.BaseMapper;
 import com.scy.mytemplate.model.entity.OrganizationMember;
 import com.scy.mytemplate.model.entity.User; // <-- 需要引入User实体
 import org.apache.ibatis.annotations.Param;
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -17,6 +18,11 @@ public interface OrganizationMemberMapper extends BaseMapper<OrganizationMember>
      */
     String findUserRoleInOrg(@Param("userId") String userId, @Param("organizationId") String organizationId);
 
+    /**
+     * 批量查找指定用户在一组组织内的成员关系（单条 IN 查询），不是成员的组织不会出现在结果中。
+     */
+    List<OrganizationMember> findUserRolesInOrgs(@Param("userId") String userId, @Param("organizationIds") Collection<String> organizationIds);
+
     /**
      * 查找指定用户所属的所有组织的ID列表。
      */
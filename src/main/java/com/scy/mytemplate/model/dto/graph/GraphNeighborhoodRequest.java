@@ -0,0 +1,37 @@
+// FILE: src/main/java/com/scy/mytemplate/model/dto/graph/GraphNeighborhoodRequest.java
+package com.scy.mytemplate.model.dto.graph;
+
+import lombok.Data;
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * 查询节点 k 跳邻域的请求体。
+ * 只沿当前用户可见的节点扩展，不可见的节点既不返回也不作为中转。
+ */
+@Data
+public class GraphNeighborhoodRequest implements Serializable {
+
+    /**
+     * 中心节点的唯一名称
+     */
+    private String name;
+
+    /**
+     * 扩展跳数，默认 1，上限见 graph.query.max-neighborhood-depth
+     */
+    private Integer depth;
+
+    /**
+     * 只沿这些类型的关系扩展，为空时不限类型
+     */
+    private List<String> relationshipTypes;
+
+    /**
+     * 返回的节点数上限（含中心节点），默认与上限见 graph.query.neighborhood-*
+     */
+    private Integer limit;
+
+    private static final long serialVersionUID = 1L;
+}
+// END OF FILE: src/main/java/com/scy/mytemplate/model/dto/graph/GraphNeighborhoodRequest.java
@@ -0,0 +1,32 @@
+// FILE: src/main/java/com/scy/mytemplate/model/dto/graph/GraphPathRequest.java
+package com.scy.mytemplate.model.dto.graph;
+
+import lombok.Data;
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * 查询两个节点之间最短路径的请求体。
+ * 路径不区分关系方向，且路径上的每个节点都必须对当前用户可见。
+ */
+@Data
+public class GraphPathRequest implements Serializable {
+
+    /**
+     * 起始节点的唯一名称
+     */
+    private String fromNode;
+
+    /**
+     * 结束节点的唯一名称
+     */
+    private String toNode;
+
+    /**
+     * 只经过这些类型的关系，为空时不限类型
+     */
+    private List<String> relationshipTypes;
+
+    private static final long serialVersionUID = 1L;
+}
+// END OF FILE: src/main/java/com/scy/mytemplate/model/dto/graph/GraphPathRequest.java
@@ -0,0 +1,40 @@
+package com.scy.mytemplate.model.dto.image;
+
+import lombok.Data;
+
+import java.io.Serializable;
+
+/**
+ * 按游标（keyset）获取文件夹内图片列表的请求体。
+ * 结果按上传时间倒序排列，翻页时把上一页返回的 nextCursor 原样传回。
+ */
+@Data
+public class ImageCursorListRequest implements Serializable {
+
+    /**
+     * 必填：要查询的文件夹ID。
+     */
+    private String folderId;
+
+    /**
+     * 选填：原始文件名前缀。
+     */
+    private String searchKeyword;
+
+    /**
+     * 选填：上一页返回的 nextCursor，为空时从第一页开始。
+     */
+    private String cursor;
+
+    /**
+     * 每页数量。
+     */
+    private int pageSize = 20;
+
+    /**
+     * 是否返回总数（缓存的近似值）。
+     */
+    private boolean withTotal;
+
+    private static final long serialVersionUID = 1L;
+}
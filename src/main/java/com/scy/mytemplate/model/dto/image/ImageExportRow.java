@@ -0,0 +1,43 @@
+// FILE: src/main/java/com/scy/mytemplate/model/dto/image/ImageExportRow.java
+package com.scy.mytemplate.model.dto.image;
+
+import lombok.Data;
+
+import java.io.Serializable;
+
+/**
+ * 文件夹导出时逐行读取的图片与标注，由 Images LEFT JOIN Annotations 得到。
+ *
+ * @author Bedrock
+ */
+@Data
+public class ImageExportRow implements Serializable {
+
+    /**
+     * 图片ID
+     */
+    private String id;
+
+    /**
+     * 原始文件名，导出时作为压缩包内的文件名
+     */
+    private String originalFilename;
+
+    /**
+     * 文件存储路径（历史图片据此定位物理文件）
+     */
+    private String storagePath;
+
+    /**
+     * 内容哈希，为空表示历史图片
+     */
+    private String blobHash;
+
+    /**
+     * 标注内容，没有标注时为 null
+     */
+    private String jsonContent;
+
+    private static final long serialVersionUID = 1L;
+}
+// END OF FILE: src/main/java/com/scy/mytemplate/model/dto/image/ImageExportRow.java
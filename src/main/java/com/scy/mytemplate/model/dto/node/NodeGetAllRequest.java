@@ -6,14 +6,22 @@ import java.io.Serializable;
 
 /**
  * 获取当前用户可见的所有节点的请求体。
- * 目前为空，为将来可能添加的筛选、分页等参数预留扩展空间。
+ * 游标分页时按节点名称升序返回，cursor 为上一页返回的 nextCursor，首页不传。
  */
 @Data
 public class NodeGetAllRequest implements Serializable {
 
     // 例如: private String filterByType;
-    // 例如: private int pageNum = 1;
-    // 例如: private int pageSize = 200;
+
+    /**
+     * 游标：上一页最后一个节点的名称
+     */
+    private String cursor;
+
+    /**
+     * 每页数量
+     */
+    private Integer pageSize;
 
     private static final long serialVersionUID = 1L;
 }
@@ -6,13 +6,23 @@ import java.io.Serializable;
 
 /**
  * 获取当前用户可见的所有关系的请求体。
- * 目前为空，为将来可能添加的筛选、分页等参数预留扩展空间。
+ * 游标分页时按 (起点名称, 关系内部ID) 升序返回，cursor 为上一页返回的 nextCursor，首页不传。
  */
 @Data
 public class RelationshipGetAllRequest implements Serializable {
 
     // 例如: private String filterByType;
 
+    /**
+     * 游标：上一页最后一条关系的内部ID
+     */
+    private String cursor;
+
+    /**
+     * 每页数量
+     */
+    private Integer pageSize;
+
     private static final long serialVersionUID = 1L;
 }
 // END OF FILE: src/main/java/com/scy/mytemplate/model/dto/relationship/RelationshipGetAllRequest.java
\ No newline at end of file
@@ -63,7 +63,8 @@ public class Folder implements Serializable {
     private Integer isDelete;
 
     /**
-     * 合并状态: 'NONE', 'PENDING', 'APPROVED', 'REJECTED'
+     * 合并状态: 'NONE', 'PENDING', 'SYNCING', 'APPROVED', 'REJECTED'
+     * SYNCING 表示合并已获批、知识图谱节点权限仍在后台同步
      */
     private String mergeState;
 
@@ -72,6 +73,11 @@ public class Folder implements Serializable {
      */
     private String targetOrganizationId;
 
+    /**
+     * 合并权限同步断点（最后一张已同步图片的 "createTime毫秒:id"），同步完成后清空
+     */
+    private String mergeSyncCursor;
+
     @TableField(exist = false)
     private static final long serialVersionUID = 1L;
 }
@@ -0,0 +1,72 @@
+// FILE: src/main/java/com/scy/mytemplate/model/entity/GraphOutboxEntry.java
+package com.scy.mytemplate.model.entity;
+
+import com.baomidou.mybatisplus.annotation.IdType;
+import com.baomidou.mybatisplus.annotation.TableField;
+import com.baomidou.mybatisplus.annotation.TableId;
+import com.baomidou.mybatisplus.annotation.TableName;
+import java.io.Serializable;
+import java.util.Date;
+import lombok.Data;
+
+/**
+ * 待投递到知识图谱的写操作。
+ * 与数据库 `GraphOutbox` 表严格对应，和 `Images`/`Folders` 的变更在同一个 MySQL 事务中写入，
+ * 由投递线程按 id 顺序读取并写入 Neo4j，成功后删除。
+ *
+ * @author Bedrock
+ */
+@TableName(value = "GraphOutbox")
+@Data
+public class GraphOutboxEntry implements Serializable {
+
+    /**
+     * 自增ID，即投递顺序
+     */
+    @TableId(type = IdType.AUTO)
+    private Long id;
+
+    /**
+     * 图谱操作: 'CREATE_NODES', 'DELETE_NODES', 'UPDATE_NODES'
+     */
+    private String operation;
+
+    /**
+     * 操作参数 (JSON)
+     */
+    private String payload;
+
+    /**
+     * 涉及的节点数量
+     */
+    private Integer itemCount;
+
+    /**
+     * 状态: 0-待投递, 1-无法投递已搁置
+     */
+    private Integer status;
+
+    /**
+     * 已尝试投递的次数
+     */
+    private Integer attempts;
+
+    /**
+     * 最近一次投递失败的原因
+     */
+    private String lastError;
+
+    /**
+     * 创建时间
+     */
+    private Date createTime;
+
+    /**
+     * 更新时间
+     */
+    private Date updateTime;
+
+    @TableField(exist = false)
+    private static final long serialVersionUID = 1L;
+}
+// END OF FILE: src/main/java/com/scy/mytemplate/model/entity/GraphOutboxEntry.java
@@ -37,10 +37,16 @@ public class Image implements Serializable {
     private String originalFilename;
 
     /**
-     * 文件在对象存储或文件系统中的唯一路径/Key。
+     * 图片的唯一逻辑 Key，同时作为知识图谱节点名称。
      */
     private String storagePath;
 
+    /**
+     * 文件内容的 SHA-256，对应 ImageBlobs 表中的物理文件；为空表示尚未迁移到内容寻址存储的历史文件，
+     * 物理文件仍直接位于 storagePath。
+     */
+    private String blobHash;
+
     /**
      * 图片宽度（像素）
      */
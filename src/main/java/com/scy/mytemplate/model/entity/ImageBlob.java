@@ -0,0 +1,51 @@
+// FILE: src/main/java/com/scy/mytemplate/model/entity/ImageBlob.java
+package com.scy.mytemplate.model.entity;
+
+import com.baomidou.mybatisplus.annotation.IdType;
+import com.baomidou.mybatisplus.annotation.TableField;
+import com.baomidou.mybatisplus.annotation.TableId;
+import com.baomidou.mybatisplus.annotation.TableName;
+import java.io.Serializable;
+import java.util.Date;
+import lombok.Data;
+
+/**
+ * 内容寻址的图片物理文件。
+ * 与数据库 `ImageBlobs` 表严格对应，相同内容的文件只保存一份，由引用计数决定何时回收。
+ *
+ * @author Bedrock
+ */
+@TableName(value = "ImageBlobs")
+@Data
+public class ImageBlob implements Serializable {
+
+    /**
+     * 文件内容的 SHA-256（64 位小写十六进制）
+     */
+    @TableId(type = IdType.INPUT)
+    private String hash;
+
+    /**
+     * 文件大小（字节）
+     */
+    private Long fileSize;
+
+    /**
+     * 引用该文件的未删除图片数量
+     */
+    private Integer refCount;
+
+    /**
+     * 创建时间
+     */
+    private Date createTime;
+
+    /**
+     * 最近一次引用计数变化的时间
+     */
+    private Date updateTime;
+
+    @TableField(exist = false)
+    private static final long serialVersionUID = 1L;
+}
+// END OF FILE: src/main/java/com/scy/mytemplate/model/entity/ImageBlob.java
@@ -0,0 +1,31 @@
+package com.scy.mytemplate.model.enums;
+
+/**
+ * 后台任务状态枚举
+ *
+ * @author Bedrock
+ */
+public enum TaskStatusEnum {
+
+    RUNNING("执行中", "running"),
+    SUCCEED("已完成", "succeed"),
+    PARTIAL("部分失败", "partial"),
+    FAILED("失败", "failed");
+
+    private final String text;
+
+    private final String value;
+
+    TaskStatusEnum(String text, String value) {
+        this.text = text;
+        this.value = value;
+    }
+
+    public String getValue() {
+        return value;
+    }
+
+    public String getText() {
+        return text;
+    }
+}
@@ -0,0 +1,60 @@
+// FILE: src/main/java/com/scy/mytemplate/model/vo/CacheStatsVO.java
+package com.scy.mytemplate.model.vo;
+
+import lombok.Data;
+
+import java.io.Serializable;
+
+/**
+ * 进程内缓存命中情况视图对象。
+ *
+ * @author Bedrock
+ */
+@Data
+public class CacheStatsVO implements Serializable {
+
+    /**
+     * 缓存名称
+     */
+    private String name;
+
+    /**
+     * 当前条目数
+     */
+    private int size;
+
+    /**
+     * 容量上限
+     */
+    private int capacity;
+
+    /**
+     * 命中次数
+     */
+    private long hits;
+
+    /**
+     * 未命中次数
+     */
+    private long misses;
+
+    /**
+     * 命中率，尚无访问时为 0
+     */
+    private double hitRate;
+
+    private static final long serialVersionUID = 1L;
+
+    public static CacheStatsVO of(String name, int size, int capacity, long hits, long misses) {
+        CacheStatsVO vo = new CacheStatsVO();
+        vo.setName(name);
+        vo.setSize(size);
+        vo.setCapacity(capacity);
+        vo.setHits(hits);
+        vo.setMisses(misses);
+        long total = hits + misses;
+        vo.setHitRate(total == 0 ? 0 : (double) hits / total);
+        return vo;
+    }
+}
+// END OF FILE: src/main/java/com/scy/mytemplate/model/vo/CacheStatsVO.java
@@ -0,0 +1,43 @@
+// FILE: src/main/java/com/scy/mytemplate/model/vo/CursorPageVO.java
+package com.scy.mytemplate.model.vo;
+
+import lombok.Data;
+
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * 游标分页结果。
+ * 与按页码分页不同，翻页时把 nextCursor 原样传回即可，不需要跳过前面的记录，也不统计总数。
+ *
+ * @author Bedrock
+ */
+@Data
+public class CursorPageVO<T> implements Serializable {
+
+    /**
+     * 本页数据
+     */
+    private List<T> records;
+
+    /**
+     * 下一页的游标，没有更多数据时为 null
+     */
+    private String nextCursor;
+
+    /**
+     * 是否还有下一页
+     */
+    private boolean hasMore;
+
+    private static final long serialVersionUID = 1L;
+
+    public static <T> CursorPageVO<T> of(List<T> records, String nextCursor) {
+        CursorPageVO<T> page = new CursorPageVO<>();
+        page.setRecords(records);
+        page.setNextCursor(nextCursor);
+        page.setHasMore(nextCursor != null);
+        return page;
+    }
+}
+// END OF FILE: src/main/java/com/scy/mytemplate/model/vo/CursorPageVO.java
@@ -0,0 +1,36 @@
+// FILE: src/main/java/com/scy/mytemplate/model/vo/GraphAdjacencyVO.java
+package com.scy.mytemplate.model.vo;
+
+import lombok.Data;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 紧凑的子图结果（邻域查询、路径查询）。
+ * 节点只出现一次，关系以节点下标引用两端，不重复携带节点名称和属性。
+ *
+ * @author Bedrock
+ */
+@Data
+public class GraphAdjacencyVO implements Serializable {
+
+    /**
+     * 子图中的节点；邻域查询中第一个是中心节点，路径查询中按路径顺序排列
+     */
+    private List<NodeVO> nodes = new ArrayList<>();
+
+    /**
+     * 子图中的关系
+     */
+    private List<GraphEdgeVO> edges = new ArrayList<>();
+
+    /**
+     * 是否因为节点数或关系数达到上限而截断
+     */
+    private boolean truncated;
+
+    private static final long serialVersionUID = 1L;
+}
+// END OF FILE: src/main/java/com/scy/mytemplate/model/vo/GraphAdjacencyVO.java
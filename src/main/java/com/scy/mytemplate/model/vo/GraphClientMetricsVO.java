@@ -0,0 +1,35 @@
+// FILE: src/main/java/com/scy/mytemplate/model/vo/GraphClientMetricsVO.java
+package com.scy.mytemplate.model.vo;
+
+import lombok.Data;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 图谱客户端运行指标视图对象：连接池状态 + 各逻辑操作的耗时分布。
+ *
+ * @author Bedrock
+ */
+@Data
+public class GraphClientMetricsVO implements Serializable {
+
+    /**
+     * 驱动指标是否可用（graph.client.metrics-enabled 关闭时为 false）
+     */
+    private boolean poolMetricsEnabled;
+
+    /**
+     * 各连接池指标
+     */
+    private List<GraphPoolStatsVO> pools = new ArrayList<>();
+
+    /**
+     * 各逻辑操作指标
+     */
+    private List<GraphOperationStatsVO> operations = new ArrayList<>();
+
+    private static final long serialVersionUID = 1L;
+}
+// END OF FILE: src/main/java/com/scy/mytemplate/model/vo/GraphClientMetricsVO.java
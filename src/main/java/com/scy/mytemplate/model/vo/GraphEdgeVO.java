@@ -0,0 +1,33 @@
+// FILE: src/main/java/com/scy/mytemplate/model/vo/GraphEdgeVO.java
+package com.scy.mytemplate.model.vo;
+
+import lombok.Data;
+
+import java.io.Serializable;
+
+/**
+ * 邻接结果中的一条关系，两端以节点在 {@link GraphAdjacencyVO#getNodes()} 中的下标表示。
+ *
+ * @author Bedrock
+ */
+@Data
+public class GraphEdgeVO implements Serializable {
+
+    /**
+     * 起始节点下标
+     */
+    private int source;
+
+    /**
+     * 结束节点下标
+     */
+    private int target;
+
+    /**
+     * 关系类型
+     */
+    private String type;
+
+    private static final long serialVersionUID = 1L;
+}
+// END OF FILE: src/main/java/com/scy/mytemplate/model/vo/GraphEdgeVO.java
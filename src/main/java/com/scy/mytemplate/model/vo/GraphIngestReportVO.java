@@ -0,0 +1,50 @@
+// FILE: src/main/java/com/scy/mytemplate/model/vo/GraphIngestReportVO.java
+package com.scy.mytemplate.model.vo;
+
+import lombok.Data;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 批量写入知识图谱节点的执行报告。
+ *
+ * @author Bedrock
+ */
+@Data
+public class GraphIngestReportVO implements Serializable {
+
+    /**
+     * 本次写入的节点总数
+     */
+    private int totalNodes;
+
+    /**
+     * 每个分块的节点数上限
+     */
+    private int chunkSize;
+
+    /**
+     * 每个分块 UNWIND 写事务的耗时（毫秒），按分块顺序排列
+     */
+    private List<Long> chunkMillis = new ArrayList<>();
+
+    /**
+     * 整批自动关联的耗时（毫秒），未执行时为 0
+     */
+    private long autoLinkMillis;
+
+    /**
+     * 自动关联新建的关系数量
+     */
+    private long createdRelationships;
+
+    /**
+     * 总耗时（毫秒）
+     */
+    private long totalMillis;
+
+    private static final long serialVersionUID = 1L;
+}
+// END OF FILE: src/main/java/com/scy/mytemplate/model/vo/GraphIngestReportVO.java
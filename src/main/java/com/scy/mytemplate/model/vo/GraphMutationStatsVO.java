@@ -0,0 +1,78 @@
+// FILE: src/main/java/com/scy/mytemplate/model/vo/GraphMutationStatsVO.java
+package com.scy.mytemplate.model.vo;
+
+import lombok.Data;
+
+import java.io.Serializable;
+
+/**
+ * 图谱写执行器运行指标视图对象。
+ *
+ * @author Bedrock
+ */
+@Data
+public class GraphMutationStatsVO implements Serializable {
+
+    /**
+     * 当前排队中的 key 数量
+     */
+    private int queueDepth;
+
+    /**
+     * 队列容量上限
+     */
+    private int queueCapacity;
+
+    /**
+     * 正在执行的 key 数量
+     */
+    private int inFlight;
+
+    /**
+     * 最早一条排队记录已等待的时间（毫秒）
+     */
+    private long oldestPendingLagMillis;
+
+    /**
+     * 最近一次从入队到开始执行的延迟（毫秒）
+     */
+    private long lastLagMillis;
+
+    /**
+     * 历史最大入队到执行延迟（毫秒）
+     */
+    private long maxLagMillis;
+
+    /**
+     * 累计提交次数
+     */
+    private long submitted;
+
+    /**
+     * 被合并到已有记录的提交次数
+     */
+    private long coalesced;
+
+    /**
+     * 成功执行次数
+     */
+    private long completed;
+
+    /**
+     * 重试次数
+     */
+    private long retried;
+
+    /**
+     * 最终放弃的次数
+     */
+    private long dropped;
+
+    /**
+     * 因队列已满而暂存、稍后重新入队的次数
+     */
+    private long deferred;
+
+    private static final long serialVersionUID = 1L;
+}
+// END OF FILE: src/main/java/com/scy/mytemplate/model/vo/GraphMutationStatsVO.java
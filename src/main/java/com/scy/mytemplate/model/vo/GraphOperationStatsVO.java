@@ -0,0 +1,79 @@
+// FILE: src/main/java/com/scy/mytemplate/model/vo/GraphOperationStatsVO.java
+package com.scy.mytemplate.model.vo;
+
+import lombok.Data;
+
+import java.io.Serializable;
+import java.util.Map;
+
+/**
+ * 单个图谱逻辑操作的耗时分布视图对象。
+ *
+ * @author Bedrock
+ */
+@Data
+public class GraphOperationStatsVO implements Serializable {
+
+    /**
+     * 逻辑操作名称，如 createNode、getAllNodes、autoLink
+     */
+    private String operation;
+
+    /**
+     * 调用次数
+     */
+    private long count;
+
+    /**
+     * 以异常结束的调用次数
+     */
+    private long errors;
+
+    /**
+     * 事务函数因瞬时错误被驱动重试的次数
+     */
+    private long retries;
+
+    /**
+     * 平均耗时（毫秒）
+     */
+    private double meanMillis;
+
+    /**
+     * 最大耗时（毫秒）
+     */
+    private double maxMillis;
+
+    /**
+     * 按直方图桶上界估算的 P50（毫秒）
+     */
+    private long p50Millis;
+
+    /**
+     * 按直方图桶上界估算的 P95（毫秒）
+     */
+    private long p95Millis;
+
+    /**
+     * 按直方图桶上界估算的 P99（毫秒）
+     */
+    private long p99Millis;
+
+    /**
+     * 耗时直方图，key 为桶上界（如 "le_50ms"），value 为落入该桶的次数
+     */
+    private Map<String, Long> histogram;
+
+    /**
+     * 该操作发送过的不同查询文本数（每个文本在 Neo4j 中对应一个执行计划）
+     */
+    private long distinctQueryTexts;
+
+    /**
+     * 查询文本复用率：发送的查询文本此前已出现过的比例，即计划缓存命中率的上限
+     */
+    private double queryTextReuseRate;
+
+    private static final long serialVersionUID = 1L;
+}
+// END OF FILE: src/main/java/com/scy/mytemplate/model/vo/GraphOperationStatsVO.java
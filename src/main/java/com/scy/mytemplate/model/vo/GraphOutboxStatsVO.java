@@ -0,0 +1,73 @@
+// FILE: src/main/java/com/scy/mytemplate/model/vo/GraphOutboxStatsVO.java
+package com.scy.mytemplate.model.vo;
+
+import lombok.Data;
+
+import java.io.Serializable;
+
+/**
+ * 知识图谱发件箱积压与投递指标视图对象。
+ *
+ * @author Bedrock
+ */
+@Data
+public class GraphOutboxStatsVO implements Serializable {
+
+    /**
+     * 本实例是否运行投递线程
+     */
+    private boolean relayEnabled;
+
+    /**
+     * 待投递的记录数
+     */
+    private long pending;
+
+    /**
+     * 无法投递已搁置的记录数
+     */
+    private long dead;
+
+    /**
+     * 最早一条待投递记录已等待的时间（毫秒）
+     */
+    private long oldestPendingLagMillis;
+
+    /**
+     * 最近一次投递时记录从写入到投递完成的延迟（毫秒）
+     */
+    private long lastLagMillis;
+
+    /**
+     * 历史最大写入到投递完成延迟（毫秒）
+     */
+    private long maxLagMillis;
+
+    /**
+     * 成功投递的次数（相邻记录合并后算一次）
+     */
+    private long deliveries;
+
+    /**
+     * 成功投递的记录数
+     */
+    private long relayedEntries;
+
+    /**
+     * 成功投递的节点数
+     */
+    private long relayedItems;
+
+    /**
+     * 投递失败次数
+     */
+    private long failedDeliveries;
+
+    /**
+     * 本实例搁置的记录数
+     */
+    private long deadEntries;
+
+    private static final long serialVersionUID = 1L;
+}
+// END OF FILE: src/main/java/com/scy/mytemplate/model/vo/GraphOutboxStatsVO.java
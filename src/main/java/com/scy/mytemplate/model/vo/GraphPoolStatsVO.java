@@ -0,0 +1,73 @@
+// FILE: src/main/java/com/scy/mytemplate/model/vo/GraphPoolStatsVO.java
+package com.scy.mytemplate.model.vo;
+
+import lombok.Data;
+
+import java.io.Serializable;
+
+/**
+ * Neo4j 驱动连接池指标视图对象（每个服务端地址一个连接池）。
+ *
+ * @author Bedrock
+ */
+@Data
+public class GraphPoolStatsVO implements Serializable {
+
+    /**
+     * 连接池标识
+     */
+    private String id;
+
+    /**
+     * 正在使用的连接数
+     */
+    private int inUse;
+
+    /**
+     * 空闲连接数
+     */
+    private int idle;
+
+    /**
+     * 正在等待获取连接的请求数
+     */
+    private int acquiring;
+
+    /**
+     * 累计成功获取连接次数
+     */
+    private long acquired;
+
+    /**
+     * 累计获取连接超时次数
+     */
+    private long timedOutToAcquire;
+
+    /**
+     * 平均获取连接耗时（毫秒）
+     */
+    private double meanAcquisitionMillis;
+
+    /**
+     * 平均连接占用时长（毫秒）
+     */
+    private double meanInUseMillis;
+
+    /**
+     * 累计新建连接数
+     */
+    private long created;
+
+    /**
+     * 累计新建连接失败数
+     */
+    private long failedToCreate;
+
+    /**
+     * 累计关闭连接数
+     */
+    private long closed;
+
+    private static final long serialVersionUID = 1L;
+}
+// END OF FILE: src/main/java/com/scy/mytemplate/model/vo/GraphPoolStatsVO.java
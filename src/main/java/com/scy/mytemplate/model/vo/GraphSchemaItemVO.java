@@ -0,0 +1,48 @@
+// FILE: src/main/java/com/scy/mytemplate/model/vo/GraphSchemaItemVO.java
+package com.scy.mytemplate.model.vo;
+
+import lombok.Data;
+
+import java.io.Serializable;
+
+/**
+ * 单个图谱约束或索引的状态。
+ *
+ * @author Bedrock
+ */
+@Data
+public class GraphSchemaItemVO implements Serializable {
+
+    /**
+     * 约束或索引名称
+     */
+    private String name;
+
+    /**
+     * 类型: constraint 或 index
+     */
+    private String kind;
+
+    /**
+     * 创建语句
+     */
+    private String statement;
+
+    /**
+     * 数据库中是否存在
+     */
+    private boolean present;
+
+    /**
+     * 索引状态: ONLINE, POPULATING, FAILED；不存在时为 null
+     */
+    private String state;
+
+    /**
+     * 索引填充进度（百分比）
+     */
+    private double populationPercent;
+
+    private static final long serialVersionUID = 1L;
+}
+// END OF FILE: src/main/java/com/scy/mytemplate/model/vo/GraphSchemaItemVO.java
@@ -0,0 +1,39 @@
+// FILE: src/main/java/com/scy/mytemplate/model/vo/GraphSchemaStatusVO.java
+package com.scy.mytemplate.model.vo;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import lombok.Data;
+
+import java.io.Serializable;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * 图谱约束与索引的整体状态。
+ *
+ * @author Bedrock
+ */
+@Data
+public class GraphSchemaStatusVO implements Serializable {
+
+    /**
+     * 所有约束和索引均已存在且处于 ONLINE 状态
+     */
+    private boolean ready;
+
+    /**
+     * 各约束和索引的状态
+     */
+    private List<GraphSchemaItemVO> items;
+
+    /**
+     * 最近一次初始化时的错误信息
+     */
+    private String lastError;
+
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss", timezone = "GMT+8")
+    private Date checkedTime;
+
+    private static final long serialVersionUID = 1L;
+}
+// END OF FILE: src/main/java/com/scy/mytemplate/model/vo/GraphSchemaStatusVO.java
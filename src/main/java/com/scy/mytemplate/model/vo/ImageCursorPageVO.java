@@ -0,0 +1,40 @@
+// FILE: src/main/java/com/scy/mytemplate/model/vo/ImageCursorPageVO.java
+package com.scy.mytemplate.model.vo;
+
+import lombok.Data;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 按游标分页的图片列表视图对象。
+ *
+ * @author Bedrock
+ */
+@Data
+public class ImageCursorPageVO implements Serializable {
+
+    /**
+     * 本页图片
+     */
+    private List<ImageVO> records = new ArrayList<>();
+
+    /**
+     * 下一页的游标，没有更多数据时为 null
+     */
+    private String nextCursor;
+
+    /**
+     * 是否还有下一页
+     */
+    private boolean hasMore;
+
+    /**
+     * 总数，只在请求 withTotal 时返回；取自短时缓存，可能略有滞后
+     */
+    private Long total;
+
+    private static final long serialVersionUID = 1L;
+}
+// END OF FILE: src/main/java/com/scy/mytemplate/model/vo/ImageCursorPageVO.java
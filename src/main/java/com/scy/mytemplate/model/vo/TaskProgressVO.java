@@ -0,0 +1,74 @@
+// FILE: src/main/java/com/scy/mytemplate/model/vo/TaskProgressVO.java
+package com.scy.mytemplate.model.vo;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import lombok.Data;
+
+import java.io.Serializable;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 后台任务进度视图对象。
+ * 长耗时操作（如数据集批量上传）立即返回任务ID，前端通过该对象轮询进度。
+ *
+ * @author Bedrock
+ */
+@Data
+public class TaskProgressVO implements Serializable {
+
+    /**
+     * 任务ID
+     */
+    private String taskId;
+
+    /**
+     * 任务类型，例如 image_upload
+     */
+    private String type;
+
+    /**
+     * 任务状态: running, succeed, partial, failed
+     */
+    private String status;
+
+    /**
+     * 需要处理的条目总数
+     */
+    private int total;
+
+    /**
+     * 已成功处理的条目数
+     */
+    private int processed;
+
+    /**
+     * 处理失败的条目数
+     */
+    private int failed;
+
+    /**
+     * 各处理阶段已完成的条目数，例如 {"written": 120, "probed": 80}
+     */
+    private Map<String, Integer> stages;
+
+    /**
+     * 失败条目的错误信息（最多保留前若干条）
+     */
+    private List<String> errors;
+
+    /**
+     * 任务完成后的结果数据
+     */
+    private Object result;
+
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss", timezone = "GMT+8")
+    private Date createTime;
+
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss", timezone = "GMT+8")
+    private Date finishTime;
+
+    private static final long serialVersionUID = 1L;
+}
+// END OF FILE: src/main/java/com/scy/mytemplate/model/vo/TaskProgressVO.java
@@ -11,6 +11,8 @@ import com.scy.mytemplate.model.entity.Folder;
 import com.scy.mytemplate.model.entity.User;
 import com.scy.mytemplate.model.vo.FolderVO;
 
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
 import java.util.List;
 
 /**
@@ -63,6 +65,25 @@ public interface FolderService extends IService<Folder> {
      */
     FolderVO copyFolder(FolderCopyRequest request, User currentUser);
 
+    /**
+     * 以后台任务方式复制文件夹，权限在提交时同步校验。
+     *
+     * @param request     包含源文件夹ID和目标空间类型
+     * @param currentUser 当前操作的用户
+     * @return 任务ID，可通过 /task/get/{taskId} 查询进度，结束后结果为新文件夹视图对象
+     */
+    String submitCopyFolderTask(FolderCopyRequest request, User currentUser);
+
+    /**
+     * 把文件夹内的图片及其标注以 ZIP 流直接写入响应，图片与同名 .json 标注按文件名配对，
+     * 与 uploadImagesWithAnnotationsBatch 的输入格式一致。
+     *
+     * @param folderId    文件夹ID
+     * @param currentUser 当前操作的用户
+     * @param response    HTTP 响应，校验通过后才写入响应头
+     */
+    void exportFolder(String folderId, User currentUser, HttpServletResponse response) throws IOException;
+
     /**
      * 用户从个人公共空间发起一个合并文件夹到组织的请求。
      *
@@ -82,11 +103,22 @@ public interface FolderService extends IService<Folder> {
 
     /**
      * 组织管理员批准一个文件夹合并请求。
+     * 文件夹的空间与归属在本次调用中立即切换，图片节点的权限由后台任务分批同步。
      *
      * @param folderId    待合并的文件夹ID
      * @param currentUser 当前操作的管理员用户
+     * @return 权限同步任务ID，可通过任务接口查询进度
+     */
+    String approveMergeRequest(String folderId, User currentUser);
+
+    /**
+     * 组织管理员从断点继续一个失败或中断的合并权限同步。
+     *
+     * @param folderId    处于同步中状态的文件夹ID
+     * @param currentUser 当前操作的管理员用户
+     * @return 权限同步任务ID
      */
-    void approveMergeRequest(String folderId, User currentUser);
+    String resumeMergeSync(String folderId, User currentUser);
 
     /**
      * 组织管理员拒绝一个文件夹合并请求。
@@ -1,13 +1,20 @@
 // FILE: src/main/java/com/scy/mytemplate/service/GraphService.java
 package com.scy.mytemplate.service;
 
+import com.scy.mytemplate.model.dto.graph.GraphNeighborhoodRequest;
+import com.scy.mytemplate.model.dto.graph.GraphPathRequest;
 import com.scy.mytemplate.model.dto.node.*;
 import com.scy.mytemplate.model.dto.relationship.*;
 import com.scy.mytemplate.model.entity.User;
+import com.scy.mytemplate.model.vo.CursorPageVO;
+import com.scy.mytemplate.model.vo.GraphAdjacencyVO;
+import com.scy.mytemplate.model.vo.GraphIngestReportVO;
 import com.scy.mytemplate.model.vo.NodeVO;
 import com.scy.mytemplate.model.vo.RelationshipVO;
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Consumer;
 
 /**
  * 统一的图服务接口。
@@ -26,12 +33,58 @@ public interface GraphService {
     List<NodeVO> getAllNodesForCurrentUser(NodeGetAllRequest request, User currentUser);
 
     /**
-     * 更新知识图谱节点的权限相关属性。
+     * 按节点名称游标分页获取当前用户可见的节点。
      *
-     * @param nodeName 节点名称
-     * @param newPermissionProperties 新的权限属性Map (e.g., space, ownerOrganizationId)
+     * @param request 包含游标和每页数量的请求
+     * @param currentUser 当前用户
+     * @return 一页节点及下一页游标
      */
-    void updateNodePermissions(String nodeName, Map<String, Object> newPermissionProperties);
+    CursorPageVO<NodeVO> listNodesByCursor(NodeGetAllRequest request, User currentUser);
+
+    /**
+     * 逐条输出当前用户可见的全部节点，边从 Neo4j 读取边交给 consumer，不在内存中缓存整个结果。
+     *
+     * @param currentUser 当前用户
+     * @param consumer 每个节点的处理逻辑（如写入响应流）
+     */
+    void streamNodes(User currentUser, Consumer<NodeVO> consumer);
+
+    /**
+     * 批量查询节点，只返回当前用户可读的节点（权限通过一次批量判定完成）。
+     *
+     * @param nodeNames 节点名称集合
+     * @param currentUser 当前用户
+     * @return 节点名称 -> 节点，不可读或不存在的节点不在结果中
+     */
+    Map<String, NodeVO> findNodes(Collection<String> nodeNames, User currentUser);
+
+    /**
+     * 批量删除节点并回收不再被引用的属性值枢纽节点（内部调用，权限需由调用方校验）。
+     *
+     * @param nodeNames 节点名称集合
+     */
+    void deleteNodes(Collection<String> nodeNames);
+
+    /**
+     * 批量更新一组节点的权限相关属性：一条 UNWIND 语句、一个写事务（内部调用，权限需由调用方校验）。
+     *
+     * @param nodeNames        节点名称集合，调用方负责控制单批大小
+     * @param setProperties    要设置的属性
+     * @param removeProperties 要从节点上移除的属性名
+     * @return 实际更新的节点数量
+     */
+    int updateNodePermissionsBatch(Collection<String> nodeNames, Map<String, Object> setProperties, Collection<String> removeProperties);
+
+    /**
+     * 批量写入节点（用于数据集上传等内部调用，权限需由调用方校验）。
+     * 每个分块只执行一条 UNWIND ... MERGE 语句，只创建不存在的节点、不覆盖已有节点的属性，可安全重复执行；
+     * 写入完成后对整批节点执行一次自动关联。
+     *
+     * @param requests 节点创建请求列表
+     * @param autoLink 写入后是否对整批节点执行自动关联
+     * @return 包含每个分块耗时的执行报告
+     */
+    GraphIngestReportVO createNodesBatch(List<NodeCreateRequest> requests, boolean autoLink);
 
     // endregion
 
@@ -44,10 +97,54 @@ public interface GraphService {
     List<RelationshipVO> getAllRelationshipsForCurrentUser(RelationshipGetAllRequest request, User currentUser);
 
     /**
-     * 触发自动化关系创建的逻辑。
-     * @param nodeName 刚刚被创建或更新的节点名称
+     * 按 (起点名称, 关系ID) 游标分页获取当前用户可见的关系（两端节点均可见）。
+     *
+     * @param request 包含游标和每页数量的请求
+     * @param currentUser 当前用户
+     * @return 一页关系及下一页游标
+     */
+    CursorPageVO<RelationshipVO> listRelationshipsByCursor(RelationshipGetAllRequest request, User currentUser);
+
+    /**
+     * 逐条输出当前用户可见的全部关系，不在内存中缓存整个结果。
+     *
+     * @param currentUser 当前用户
+     * @param consumer 每条关系的处理逻辑（如写入响应流）
+     */
+    void streamRelationships(User currentUser, Consumer<RelationshipVO> consumer);
+
+    // endregion
+
+    // region 子图查询 (Subgraph Queries)
+
+    /**
+     * 查询节点的 k 跳邻域，只经过当前用户可见的节点。
+     *
+     * @param request 中心节点、跳数、关系类型过滤和节点数上限
+     * @param currentUser 当前用户
+     * @return 紧凑的子图结果
+     */
+    GraphAdjacencyVO getNeighborhood(GraphNeighborhoodRequest request, User currentUser);
+
+    /**
+     * 查询两个节点之间的最短路径，路径上的节点都对当前用户可见。
+     *
+     * @param request 起止节点和关系类型过滤
+     * @param currentUser 当前用户
+     * @return 按路径顺序排列的子图结果，没有路径时节点列表为空
+     */
+    GraphAdjacencyVO findShortestPath(GraphPathRequest request, User currentUser);
+
+    // endregion
+
+    // region 自动关联 (Auto Linking)
+
+    /**
+     * 对一批节点统一触发一次自动关联。
+     * @param nodeNames 节点名称集合
+     * @return 新建的关系数量
      */
-    void triggerAutoRelationshipCreation(String nodeName);
+    long triggerAutoRelationshipCreation(Collection<String> nodeNames);
 
     // endregion
 }
@@ -6,6 +6,7 @@ import com.baomidou.mybatisplus.extension.service.IService;
 import com.scy.mytemplate.model.dto.image.*;
 import com.scy.mytemplate.model.entity.Image;
 import com.scy.mytemplate.model.entity.User;
+import com.scy.mytemplate.model.vo.ImageCursorPageVO;
 import com.scy.mytemplate.model.vo.ImageVO;
 import org.springframework.web.multipart.MultipartFile;
 
@@ -33,6 +34,16 @@ public interface ImageService extends IService<Image> {
      */
     List<ImageVO> uploadImagesWithAnnotationsBatch(String folderId, Map<Integer, String> classMap, List<MultipartFile> files, User currentUser);
 
+    /**
+     * 以后台任务方式批量上传图片及其关联的标注文件（JSON）。
+     * 文件落盘后立即返回任务ID，尺寸探测、标注解析和入库在流水线中异步完成，单张图片失败不影响其他图片。
+     * @param folderId 目标文件夹ID
+     * @param files 混合的文件列表 (images, jsons)
+     * @param currentUser 当前操作用户
+     * @return 任务ID，可通过 /task/get/{taskId} 查询进度
+     */
+    String submitImagesWithAnnotationsTask(String folderId, List<MultipartFile> files, User currentUser);
+
     /**
      * 删除单张图片及其关联数据。
      * @param imageId 图片ID
@@ -47,6 +58,13 @@ public interface ImageService extends IService<Image> {
      */
     void deleteImagesBatch(ImageBatchDeleteRequest request, User currentUser);
 
+    /**
+     * 删除文件夹内的全部图片（内部调用，权限需由调用方按文件夹校验）。
+     * @param folderId 文件夹ID
+     * @return 删除的图片数量
+     */
+    int deleteImagesByFolder(String folderId);
+
     /**
      * 分页列出文件夹内的图片。
      * @param request 包含文件夹ID和分页信息的请求
@@ -55,6 +73,14 @@ public interface ImageService extends IService<Image> {
      */
     Page<ImageVO> listImagesByPage(ImageListRequest request, User currentUser);
 
+    /**
+     * 按 (createTime, id) 游标分页列出文件夹内的图片，翻页耗时与页码无关。
+     * @param request 包含文件夹ID、游标和每页数量的请求
+     * @param currentUser 当前用户
+     * @return 本页图片及下一页游标
+     */
+    ImageCursorPageVO listImagesByCursor(ImageCursorListRequest request, User currentUser);
+
     /**
      * 根据ID获取单个图片VO。
      * @param imageId 图片ID
@@ -78,13 +104,5 @@ public interface ImageService extends IService<Image> {
      * @return 图片VO
      */
     ImageVO getImageVOByFolderAndName(ImageGetByNameRequest request, User currentUser);
-
-    /**
-     * 下载图片文件。
-     * @param imageId 图片ID
-     * @param currentUser 当前用户
-     * @return 图片文件资源
-     */
-    org.springframework.core.io.Resource downloadImage(String imageId, User currentUser);
 }
 // END OF FILE: src/main/java/com/scy/mytemplate/service/ImageService.java
\ No newline at end of file
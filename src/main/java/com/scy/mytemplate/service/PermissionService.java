@@ -5,6 +5,10 @@ import com.scy.mytemplate.model.entity.Folder;
 import com.scy.mytemplate.model.entity.User;
 import com.scy.mytemplate.model.enums.PermissionEnum;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
 /**
  * 权限校验服务接口。
  * 这是系统中所有权限判断的唯一真理来源，旨在将权限逻辑与业务逻辑解耦。
@@ -33,6 +37,25 @@ public interface PermissionService {
      */
     void checkFolderPermission(Folder folder, User user, PermissionEnum requiredPermission);
 
+    /**
+     * 批量判断一组节点的权限。节点、文件夹、组织角色各用一条 IN 查询解析（已缓存的部分不再查询）。
+     *
+     * @param storagePaths       节点名称 (即 Image.storagePath) 集合。
+     * @param user               当前操作的用户对象。
+     * @param requiredPermission 所需的权限 (READ 或 WRITE)。
+     * @return 每个节点的判定结果，true 表示允许；不存在的节点判定为 false。
+     */
+    Map<String, Boolean> checkAll(Collection<String> storagePaths, User user, PermissionEnum requiredPermission);
+
+    /**
+     * 从一组节点中筛选出当前用户可读的节点，保持原有顺序。
+     *
+     * @param storagePaths 节点名称 (即 Image.storagePath) 集合。
+     * @param user         当前操作的用户对象。
+     * @return 可读的节点名称列表。
+     */
+    List<String> filterReadable(Collection<String> storagePaths, User user);
+
     /**
      * 检查用户是否是指定组织的管理员。
      *
@@ -3,15 +3,25 @@
 package com.scy.mytemplate.service.impl;
 
 import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
+import com.baomidou.mybatisplus.core.conditions.update.UpdateWrapper;
 import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
 import com.scy.mytemplate.common.ErrorCode;
 import com.scy.mytemplate.exception.BusinessException;
+import com.scy.mytemplate.manager.FolderMergeSyncManager;
+import com.scy.mytemplate.manager.GraphOutbox;
+import com.scy.mytemplate.manager.ImageBlobStore;
+import com.scy.mytemplate.manager.ImageBlobStore.StagedBlob;
+import com.scy.mytemplate.manager.ImageIngestPipeline;
+import com.scy.mytemplate.manager.ImageIngestPipeline.Stage;
+import com.scy.mytemplate.manager.PermissionCacheManager;
+import com.scy.mytemplate.manager.task.BackgroundTask;
+import com.scy.mytemplate.manager.task.BackgroundTaskManager;
 import com.scy.mytemplate.mapper.FolderMapper;
+import com.scy.mytemplate.mapper.ImageMapper;
 import com.scy.mytemplate.mapper.UserMapper;
 import com.scy.mytemplate.model.dto.folder.*;
-import com.scy.mytemplate.model.dto.image.ImageBatchDeleteRequest;
+import com.scy.mytemplate.model.dto.image.ImageExportRow;
 import com.scy.mytemplate.model.dto.node.NodeCreateRequest;
-import com.scy.mytemplate.model.dto.node.NodeQueryRequest;
 import com.scy.mytemplate.model.entity.Annotation;
 import com.scy.mytemplate.model.entity.Folder;
 import com.scy.mytemplate.model.entity.Image;
@@ -22,21 +32,37 @@ import com.scy.mytemplate.model.vo.NodeVO;
 import com.scy.mytemplate.model.vo.UserVO;
 import com.scy.mytemplate.service.*;
         import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.io.FilenameUtils;
 import org.apache.commons.lang3.StringUtils;
-import org.springframework.beans.factory.annotation.Value;
+import org.apache.ibatis.cursor.Cursor;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import javax.annotation.Resource;
+import javax.servlet.http.HttpServletResponse;
+import java.io.BufferedOutputStream;
 import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.stream.Collectors;
+import java.util.zip.Deflater;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
 
 /**
  * 文件夹服务实现。
@@ -61,9 +87,38 @@ public class FolderServiceImpl extends ServiceImpl<FolderMapper, Folder> impleme
     private UserService userService;
     @Resource
     private UserMapper userMapper;
+    @Resource
+    private PermissionCacheManager permissionCacheManager;
+    @Resource
+    private ImageIngestPipeline imageIngestPipeline;
+    @Resource
+    private BackgroundTaskManager backgroundTaskManager;
+    @Resource
+    private TransactionTemplate transactionTemplate;
+    @Resource
+    private ImageBlobStore imageBlobStore;
+    @Resource
+    private ImageMapper imageMapper;
+    @Resource
+    private FolderMergeSyncManager folderMergeSyncManager;
+    @Resource
+    private GraphOutbox graphOutbox;
+
+    /**
+     * 批量复制时每条 IN 查询携带的ID数量
+     */
+    private static final int COPY_IN_BATCH_SIZE = 1000;
+
+    /**
+     * 导出压缩包时的输出缓冲区大小
+     */
+    private static final int EXPORT_BUFFER_SIZE = 64 * 1024;
+
+    /**
+     * 导出时物理文件缺失的图片清单，放在压缩包根目录
+     */
+    private static final String EXPORT_MISSING_ENTRY = "_missing_files.txt";
 
-    @Value("${file.upload-dir}")
-    private String uploadDir;
 
     @Override
     @Transactional
@@ -111,18 +166,14 @@ public class FolderServiceImpl extends ServiceImpl<FolderMapper, Folder> impleme
         }
         permissionService.checkFolderPermission(folder, currentUser, PermissionEnum.WRITE);
 
-        List<Image> images = imageService.list(new QueryWrapper<Image>().eq("folderId", folderId));
-        if (!images.isEmpty()) {
-            List<String> imageIds = images.stream().map(Image::getId).collect(Collectors.toList());
-            ImageBatchDeleteRequest deleteRequest = new ImageBatchDeleteRequest();
-            deleteRequest.setIds(imageIds);
-            imageService.deleteImagesBatch(deleteRequest, currentUser);
-        }
+        // 文件夹的写权限已覆盖其中全部图片，不再逐张判定
+        imageService.deleteImagesByFolder(folderId);
 
         boolean success = this.removeById(folderId);
         if (!success) {
             throw new BusinessException(ErrorCode.SYSTEM_ERROR, "删除文件夹失败，数据库错误");
         }
+        permissionCacheManager.evictFolder(folderId);
     }
 
     @Override
@@ -156,7 +207,35 @@ public class FolderServiceImpl extends ServiceImpl<FolderMapper, Folder> impleme
     @Override
     @Transactional(rollbackFor = Exception.class)
     public FolderVO copyFolder(FolderCopyRequest request, User currentUser) {
-        // 1. 权限校验
+        Folder sourceFolder = checkCopySource(request, currentUser);
+        Folder newFolder = createCopyTarget(sourceFolder, request.getTargetSpace(), currentUser);
+        bulkCopyImages(sourceFolder, newFolder, currentUser, null);
+        return FolderVO.fromEntity(newFolder);
+    }
+
+    @Override
+    public String submitCopyFolderTask(FolderCopyRequest request, User currentUser) {
+        Folder sourceFolder = checkCopySource(request, currentUser);
+        BackgroundTask task = backgroundTaskManager.create("folder_copy", currentUser.getId(), 0);
+        // 整个复制过程仍在一个数据库事务内完成，任一步失败时新文件夹、图片记录和已复制的文件全部回滚
+        backgroundTaskManager.supply(task, () -> transactionTemplate.execute(status -> {
+            Folder newFolder = createCopyTarget(sourceFolder, request.getTargetSpace(), currentUser);
+            bulkCopyImages(sourceFolder, newFolder, currentUser, task);
+            return FolderVO.fromEntity(newFolder);
+        })).whenComplete((folderVO, error) -> {
+            if (error != null) {
+                Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+                log.error("复制文件夹任务 {} 失败, source: {}", task.getId(), sourceFolder.getId(), cause);
+                task.fail(cause instanceof BusinessException ? cause.getMessage() : "复制文件夹失败");
+            } else {
+                task.finish(folderVO);
+                log.info("复制文件夹任务 {} 结束: 复制 {} 张图片", task.getId(), task.getProcessed());
+            }
+        });
+        return task.getId();
+    }
+
+    private Folder checkCopySource(FolderCopyRequest request, User currentUser) {
         Folder sourceFolder = this.getById(request.getSourceFolderId());
         if (sourceFolder == null) {
             throw new BusinessException(ErrorCode.NOT_FOUND_ERROR, "源文件夹不存在");
@@ -165,71 +244,170 @@ public class FolderServiceImpl extends ServiceImpl<FolderMapper, Folder> impleme
         if (!"user_private".equals(request.getTargetSpace()) && !"user_public".equals(request.getTargetSpace())) {
             throw new BusinessException(ErrorCode.PARAMS_ERROR, "只能复制到个人私有或个人公共空间");
         }
+        return sourceFolder;
+    }
 
-        // 2. 创建新文件夹记录
+    private Folder createCopyTarget(Folder sourceFolder, String targetSpace, User currentUser) {
         Folder newFolder = new Folder();
         newFolder.setName(sourceFolder.getName() + "_copy_" + System.currentTimeMillis() % 1000);
-        newFolder.setSpace(request.getTargetSpace());
+        newFolder.setSpace(targetSpace);
         newFolder.setOwnerUserId(currentUser.getId());
         this.save(newFolder);
+        return newFolder;
+    }
 
-        // 3. 深度复制内容
+    /**
+     * 批量复制源文件夹中的全部图片，须在事务内调用。
+     * 源图片和标注各用一次查询（标注按 IN 分批）取出；已在内容寻址存储中的文件只增加引用计数，
+     * 历史文件在落盘线程池中并行读入内容寻址存储；图片和标注记录用 saveBatch 写入，
+     * 知识图谱节点的创建在同一事务中登记到发件箱，由投递线程按分块 UNWIND 写入。
+     *
+     * @param task 进度记录，同步调用时为 null
+     * @return 复制成功的图片数量
+     */
+    private int bulkCopyImages(Folder sourceFolder, Folder targetFolder, User currentUser, BackgroundTask task) {
         List<Image> sourceImages = imageService.list(new QueryWrapper<Image>().eq("folderId", sourceFolder.getId()));
+        if (task != null) {
+            task.setTotal(sourceImages.size());
+        }
+        if (sourceImages.isEmpty()) {
+            return 0;
+        }
+        Map<String, Annotation> sourceAnnotations = new HashMap<>();
+        List<String> sourceImageIds = sourceImages.stream().map(Image::getId).collect(Collectors.toList());
+        for (int from = 0; from < sourceImageIds.size(); from += COPY_IN_BATCH_SIZE) {
+            List<String> chunk = sourceImageIds.subList(from, Math.min(from + COPY_IN_BATCH_SIZE, sourceImageIds.size()));
+            annotationService.list(new QueryWrapper<Annotation>().in("imageId", chunk))
+                    .forEach(annotation -> sourceAnnotations.putIfAbsent(annotation.getImageId(), annotation));
+        }
+        // 源节点的权限判定和属性读取各只执行一次批量操作，不再逐张查询
+        Map<String, NodeVO> sourceNodes = graphService.findNodes(
+                sourceImages.stream().map(Image::getStoragePath).collect(Collectors.toList()), currentUser);
+
+        // 1. 内容寻址的图片只复制元数据；历史图片在落盘线程池中并行读入内容寻址存储，源文件缺失的跳过
+        List<CompletableFuture<StagedBlob>> stagings = new ArrayList<>(sourceImages.size());
         for (Image sourceImage : sourceImages) {
+            stagings.add(sourceImage.getBlobHash() != null ? CompletableFuture.completedFuture(null)
+                    : imageIngestPipeline.supply(Stage.DISK, () -> stageLegacyFile(sourceImage, task)));
+        }
+        List<StagedBlob> staged = new ArrayList<>(sourceImages.size());
+        Exception stageError = null;
+        for (CompletableFuture<StagedBlob> staging : stagings) {
             try {
-                deepCopyImageEntry(sourceImage, newFolder, currentUser);
-            } catch (IOException e) {
-                log.error("复制文件时发生IO错误, source: {}", sourceImage.getStoragePath(), e);
-                throw new BusinessException(ErrorCode.SYSTEM_ERROR, "复制文件失败，请检查服务器磁盘空间和权限。");
+                staged.add(staging.join());
+            } catch (CompletionException e) {
+                staged.add(null);
+                stageError = e;
             }
         }
-        return FolderVO.fromEntity(newFolder);
+        if (stageError != null) {
+            staged.forEach(imageBlobStore::discard);
+            log.error("复制文件时发生IO错误, source folder: {}", sourceFolder.getId(), stageError.getCause());
+            throw new BusinessException(ErrorCode.SYSTEM_ERROR, "复制文件失败，请检查服务器磁盘空间和权限。");
+        }
+
+        // 2. 登记文件引用并批量写入图片记录
+        List<Image> newImages = new ArrayList<>(sourceImages.size());
+        List<Image> copiedSources = new ArrayList<>(sourceImages.size());
+        try {
+            for (int i = 0; i < sourceImages.size(); i++) {
+                Image sourceImage = sourceImages.get(i);
+                StagedBlob blob = staged.get(i);
+                String blobHash = sourceImage.getBlobHash();
+                if (blobHash == null) {
+                    if (blob == null) {
+                        continue;
+                    }
+                    imageBlobStore.commit(blob);
+                    blobHash = blob.getHash();
+                }
+                String newUniqueSuffix = UUID.randomUUID().toString().substring(0, 8) + "-" + sourceImage.getOriginalFilename();
+                Image newImage = new Image();
+                newImage.setFolderId(targetFolder.getId());
+                newImage.setOriginalFilename(sourceImage.getOriginalFilename());
+                newImage.setStoragePath(Paths.get("user", currentUser.getId(), newUniqueSuffix).toString().replace("\\", "/"));
+                newImage.setBlobHash(blobHash);
+                newImage.setWidth(sourceImage.getWidth());
+                newImage.setHeight(sourceImage.getHeight());
+                newImage.setFileSize(blob != null ? blob.getSize() : sourceImage.getFileSize());
+                newImage.setUploaderId(currentUser.getId());
+                newImages.add(newImage);
+                copiedSources.add(sourceImage);
+            }
+        } finally {
+            // 已登记的暂存文件已被移走，这里只会删除未登记的
+            staged.forEach(imageBlobStore::discard);
+        }
+        // 源图片已在内容寻址存储中的，一条语句为所有文件增加引用计数
+        imageBlobStore.retain(copiedSources);
+        if (task != null) {
+            task.stageDone("disk", (int) copiedSources.stream().filter(image -> image.getBlobHash() != null).count());
+        }
+        imageService.saveBatch(newImages);
+
+        // 3. 批量写入标注记录，并构造新的知识图谱节点
+        List<Annotation> newAnnotations = new ArrayList<>();
+        List<NodeCreateRequest> nodeCreateRequests = new ArrayList<>(newImages.size());
+        for (int i = 0; i < newImages.size(); i++) {
+            Image newImage = newImages.get(i);
+            Image sourceImage = copiedSources.get(i);
+            Annotation sourceAnnotation = sourceAnnotations.get(sourceImage.getId());
+            if (sourceAnnotation != null) {
+                Annotation newAnnotation = new Annotation();
+                newAnnotation.setImageId(newImage.getId());
+                newAnnotation.setJsonContent(sourceAnnotation.getJsonContent());
+                newAnnotation.setLastEditorId(currentUser.getId());
+                newAnnotations.add(newAnnotation);
+            }
+            nodeCreateRequests.add(buildCopiedNode(newImage.getStoragePath(),
+                    sourceNodes.get(sourceImage.getStoragePath()), targetFolder, currentUser));
+        }
+        annotationService.saveBatch(newAnnotations);
+        if (task != null) {
+            task.stageDone("persist", newImages.size());
+        }
+
+        // 4. 新节点随本事务登记到发件箱，节点名即新图片的 storagePath，不会与已有节点重名
+        graphOutbox.createNodes(nodeCreateRequests);
+        if (task != null) {
+            task.stageDone("graph", nodeCreateRequests.size());
+            task.itemSucceeded(newImages.size());
+        }
+        return newImages.size();
     }
 
-    private void deepCopyImageEntry(Image sourceImage, Folder targetFolder, User currentUser) throws IOException {
-        // 1. 物理文件复制
-        Path sourcePath = Paths.get(uploadDir, sourceImage.getStoragePath());
+    /**
+     * 把历史图片（尚未进入内容寻址存储）的物理文件读入暂存区
+     *
+     * @return 暂存文件；源文件不存在时返回 null
+     */
+    private StagedBlob stageLegacyFile(Image sourceImage, BackgroundTask task) {
+        Path sourcePath = imageBlobStore.resolve(sourceImage);
         if (!Files.exists(sourcePath)) {
             log.warn("源文件不存在，跳过复制: {}", sourcePath);
-            return;
-        }
-
-        String newUniqueSuffix = UUID.randomUUID().toString().substring(0, 8) + "-" + sourceImage.getOriginalFilename();
-        Path relativePath = Paths.get("user", currentUser.getId(), newUniqueSuffix);
-        String newStoragePath = relativePath.toString().replace("\\", "/");
-        Path destPath = Paths.get(uploadDir, newStoragePath);
-        Files.createDirectories(destPath.getParent());
-        Files.copy(sourcePath, destPath);
-
-        // 2. 创建新的 Image 数据库记录
-        Image newImage = new Image();
-        newImage.setFolderId(targetFolder.getId());
-        newImage.setOriginalFilename(sourceImage.getOriginalFilename());
-        newImage.setStoragePath(newStoragePath);
-        newImage.setWidth(sourceImage.getWidth());
-        newImage.setHeight(sourceImage.getHeight());
-        newImage.setFileSize(sourceImage.getFileSize());
-        newImage.setUploaderId(currentUser.getId());
-        imageService.save(newImage);
-
-        // 3. 复制标注信息
-        Annotation sourceAnnotation = annotationService.getOne(new QueryWrapper<Annotation>().eq("imageId", sourceImage.getId()));
-        if(sourceAnnotation != null) {
-            Annotation newAnnotation = new Annotation();
-            newAnnotation.setImageId(newImage.getId());
-            newAnnotation.setJsonContent(sourceAnnotation.getJsonContent());
-            newAnnotation.setLastEditorId(currentUser.getId());
-            annotationService.save(newAnnotation);
-        }
-
-        // 4. 创建新的知识图谱节点
+            if (task != null) {
+                task.itemFailed(sourceImage.getStoragePath() + ": 源文件不存在");
+            }
+            return null;
+        }
+        try {
+            StagedBlob blob = imageBlobStore.stage(sourcePath);
+            if (task != null) {
+                task.stageDone("disk");
+            }
+            return blob;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private NodeCreateRequest buildCopiedNode(String newStoragePath, NodeVO sourceNode, Folder targetFolder, User currentUser) {
         NodeCreateRequest nodeCreateRequest = new NodeCreateRequest();
         nodeCreateRequest.setName(newStoragePath);
         Map<String, Object> properties = new HashMap<>();
         properties.put("space", targetFolder.getSpace());
         properties.put("ownerUserId", currentUser.getId());
         // 复制源节点的非权限属性
-        NodeVO sourceNode = graphService.findNode(new NodeQueryRequest() {{ setName(sourceImage.getStoragePath()); }}, currentUser);
         if (sourceNode != null && sourceNode.getProperties() != null) {
             sourceNode.getProperties().forEach((key, value) -> {
                 if (!List.of("space", "ownerUserId", "ownerOrganizationId").contains(key)) {
@@ -238,7 +416,76 @@ public class FolderServiceImpl extends ServiceImpl<FolderMapper, Folder> impleme
             });
         }
         nodeCreateRequest.setProperties(properties);
-        graphService.createNode(nodeCreateRequest, currentUser);
+        return nodeCreateRequest;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void exportFolder(String folderId, User currentUser, HttpServletResponse response) throws IOException {
+        Folder folder = this.getById(folderId);
+        if (folder == null) {
+            throw new BusinessException(ErrorCode.NOT_FOUND_ERROR, "文件夹不存在");
+        }
+        permissionService.checkFolderPermission(folder, currentUser, PermissionEnum.READ);
+
+        response.setContentType("application/zip");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.builder("attachment")
+                .filename(folder.getName() + ".zip", StandardCharsets.UTF_8)
+                .build()
+                .toString());
+
+        // 游标逐行读取，只保留已用文件名集合用于去重，内存占用与图片数量基本无关
+        Set<String> usedBaseNames = new HashSet<>();
+        List<String> missing = new ArrayList<>();
+        int exported = 0;
+        ZipOutputStream zip = new ZipOutputStream(new BufferedOutputStream(response.getOutputStream(), EXPORT_BUFFER_SIZE));
+        try (Cursor<ImageExportRow> rows = imageMapper.streamForExport(folderId)) {
+            for (ImageExportRow row : rows) {
+                Path source = imageBlobStore.resolve(row.getBlobHash(), row.getStoragePath());
+                if (!Files.isReadable(source)) {
+                    log.warn("导出文件夹 {} 时物理文件不存在: {}", folderId, source);
+                    missing.add(row.getOriginalFilename() + " (" + row.getId() + ")");
+                    continue;
+                }
+                String filename = FilenameUtils.getName(row.getOriginalFilename());
+                String baseName = uniqueBaseName(FilenameUtils.getBaseName(filename), usedBaseNames);
+                String extension = FilenameUtils.getExtension(filename);
+
+                // 图片本身已是压缩格式，原样存入；标注 JSON 使用默认压缩
+                zip.setLevel(Deflater.NO_COMPRESSION);
+                zip.putNextEntry(new ZipEntry(extension.isEmpty() ? baseName : baseName + "." + extension));
+                Files.copy(source, zip);
+                zip.closeEntry();
+                if (row.getJsonContent() != null) {
+                    zip.setLevel(Deflater.DEFAULT_COMPRESSION);
+                    zip.putNextEntry(new ZipEntry(baseName + ".json"));
+                    zip.write(row.getJsonContent().getBytes(StandardCharsets.UTF_8));
+                    zip.closeEntry();
+                }
+                exported++;
+            }
+        }
+        if (!missing.isEmpty()) {
+            zip.setLevel(Deflater.DEFAULT_COMPRESSION);
+            zip.putNextEntry(new ZipEntry(EXPORT_MISSING_ENTRY));
+            zip.write(String.join("\n", missing).getBytes(StandardCharsets.UTF_8));
+            zip.closeEntry();
+        }
+        zip.finish();
+        zip.flush();
+        log.info("导出文件夹 {} 完成: {} 张图片, 缺失文件 {} 个", folderId, exported, missing.size());
+    }
+
+    /**
+     * 压缩包内的文件名不区分大小写去重，重名时追加序号，保证图片与标注按同一基础名配对
+     */
+    private String uniqueBaseName(String baseName, Set<String> usedBaseNames) {
+        String candidate = baseName.isEmpty() ? "image" : baseName;
+        String unique = candidate;
+        for (int i = 1; !usedBaseNames.add(unique.toLowerCase()); i++) {
+            unique = candidate + " (" + i + ")";
+        }
+        return unique;
     }
 
     @Override
@@ -276,27 +523,37 @@ public class FolderServiceImpl extends ServiceImpl<FolderMapper, Folder> impleme
 
     @Override
     @Transactional
-    public void approveMergeRequest(String folderId, User currentUser) {
+    public String approveMergeRequest(String folderId, User currentUser) {
         Folder folder = this.getById(folderId);
         if (folder == null || !"PENDING".equals(folder.getMergeState())) {
             throw new BusinessException(ErrorCode.NOT_FOUND_ERROR, "待合并的文件夹不存在或状态不正确");
         }
         permissionService.checkOrganizationAdmin(folder.getTargetOrganizationId(), currentUser);
 
-        folder.setSpace("organization_public");
-        folder.setOwnerOrganizationId(folder.getTargetOrganizationId());
-        folder.setOwnerUserId(null);
-        folder.setMergeState("APPROVED");
-        this.updateById(folder);
+        // updateById 会忽略 null 字段，清空 ownerUserId 必须显式 set；以 PENDING 为条件防止重复审批
+        boolean updated = this.update(new UpdateWrapper<Folder>()
+                .eq("id", folderId)
+                .eq("mergeState", "PENDING")
+                .set("space", "organization_public")
+                .set("ownerOrganizationId", folder.getTargetOrganizationId())
+                .set("ownerUserId", null)
+                .set("mergeState", FolderMergeSyncManager.STATE_SYNCING)
+                .set("mergeSyncCursor", null));
+        if (!updated) {
+            throw new BusinessException(ErrorCode.OPERATION_ERROR, "该合并请求已被处理");
+        }
+        permissionCacheManager.evictFolder(folderId);
+        return folderMergeSyncManager.submitAfterCommit(folderId, currentUser.getId());
+    }
 
-        List<Image> images = imageService.list(new QueryWrapper<Image>().eq("folderId", folder.getId()));
-        for (Image image : images) {
-            Map<String, Object> newProps = new HashMap<>();
-            newProps.put("space", "organization_public");
-            newProps.put("ownerOrganizationId", folder.getOwnerOrganizationId());
-            newProps.put("ownerUserId", null); // 使用null来移除属性
-            graphService.updateNodePermissions(image.getStoragePath(), newProps);
+    @Override
+    public String resumeMergeSync(String folderId, User currentUser) {
+        Folder folder = this.getById(folderId);
+        if (folder == null || !FolderMergeSyncManager.STATE_SYNCING.equals(folder.getMergeState())) {
+            throw new BusinessException(ErrorCode.NOT_FOUND_ERROR, "文件夹不存在或没有待同步的合并");
         }
+        permissionService.checkOrganizationAdmin(folder.getOwnerOrganizationId(), currentUser);
+        return folderMergeSyncManager.submit(folderId, currentUser.getId());
     }
 
     @Override
@@ -3,36 +3,41 @@ package com.scy.mytemplate.service.impl;
 
 import com.scy.mytemplate.common.ErrorCode;
 import com.scy.mytemplate.exception.BusinessException;
+import com.scy.mytemplate.manager.GraphMutationExecutor;
+import com.scy.mytemplate.manager.graph.GraphStore;
+import com.scy.mytemplate.manager.graph.GraphVisibility;
 import com.scy.mytemplate.mapper.OrganizationMemberMapper;
+import com.scy.mytemplate.model.dto.graph.GraphNeighborhoodRequest;
+import com.scy.mytemplate.model.dto.graph.GraphPathRequest;
 import com.scy.mytemplate.model.dto.node.*;
 import com.scy.mytemplate.model.dto.relationship.*;
 import com.scy.mytemplate.model.entity.User;
 import com.scy.mytemplate.model.enums.PermissionEnum;
 import com.scy.mytemplate.model.enums.UserRoleEnum;
+import com.scy.mytemplate.model.vo.CursorPageVO;
+import com.scy.mytemplate.model.vo.GraphAdjacencyVO;
+import com.scy.mytemplate.model.vo.GraphIngestReportVO;
 import com.scy.mytemplate.model.vo.NodeVO;
 import com.scy.mytemplate.model.vo.RelationshipVO;
 import com.scy.mytemplate.service.GraphService;
 import com.scy.mytemplate.service.PermissionService;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.StringUtils;
-import org.neo4j.driver.Driver;
-import org.neo4j.driver.Result;
-import org.neo4j.driver.Session;
-import org.neo4j.driver.types.Node;
-import org.neo4j.driver.types.Relationship;
-import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import javax.annotation.Resource;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 /**
  * 统一的图服务实现类 (最终完整版)。
- * 实现了对 Neo4j 数据库中节点和关系的 CRUD 和 GetAll 操作，并将权限校验委托给 PermissionService。
+ * 负责权限校验（委托给 PermissionService）、参数校验和批量写入的分块，节点和关系的实际读写交给 {@link GraphStore}。
  *
  * @author Bedrock
  */
@@ -40,7 +45,8 @@ import java.util.stream.Collectors;
 @Slf4j
 public class GraphServiceImpl implements GraphService {
 
-    private final Driver driver;
+    @Resource
+    private GraphStore graphStore;
 
     @Resource
     private PermissionService permissionService;
@@ -48,10 +54,32 @@ public class GraphServiceImpl implements GraphService {
     @Resource
     private OrganizationMemberMapper organizationMemberMapper;
 
-    @Autowired
-    public GraphServiceImpl(Driver driver) {
-        this.driver = driver;
-    }
+    @Resource
+    private GraphMutationExecutor graphMutationExecutor;
+
+    @Value("${graph.ingest.chunk-size:500}")
+    private int ingestChunkSize;
+
+    @Value("${graph.query.default-page-size:500}")
+    private int defaultPageSize;
+
+    @Value("${graph.query.max-page-size:2000}")
+    private int maxPageSize;
+
+    @Value("${graph.query.max-neighborhood-depth:3}")
+    private int maxNeighborhoodDepth;
+
+    @Value("${graph.query.neighborhood-default-limit:200}")
+    private int defaultNeighborhoodLimit;
+
+    @Value("${graph.query.neighborhood-max-limit:1000}")
+    private int maxNeighborhoodLimit;
+
+    @Value("${graph.query.neighborhood-max-edges:5000}")
+    private int maxNeighborhoodEdges;
+
+    @Value("${graph.query.max-path-length:6}")
+    private int maxPathLength;
 
     // region 节点操作实现
     @Override
@@ -62,16 +90,15 @@ public class GraphServiceImpl implements GraphService {
         }
         // 在创建时，我们假设权限已在调用此方法的服务中（如ImageService）校验过
         // permissionService.checkNodePermission(name, currentUser, PermissionEnum.WRITE);
-        try (Session session = driver.session()) {
-            boolean exists = session.readTransaction(tx -> tx.run("MATCH (n:CircuitNode {name: $name}) RETURN n", Map.of("name", name)).hasNext());
-            if (exists) {
+        Map<String, Object> props = request.getProperties() == null ? Map.of() : request.getProperties();
+        try {
+            // 判重与创建在存储的同一个写操作内完成，并发创建同名节点时只有一个会成功
+            if (!graphStore.createNode(name, props)) {
                 throw new BusinessException(ErrorCode.PARAMS_ERROR, "节点 '" + name + "' 已存在");
             }
-            return session.writeTransaction(tx -> {
-                String query = "CREATE (n:CircuitNode) SET n.name = $name, n += $props RETURN n.name";
-                Result result = tx.run(query, Map.of("name", name, "props", request.getProperties()));
-                return result.single().get(0).asString();
-            });
+            return name;
+        } catch (BusinessException e) {
+            throw e;
         } catch (Exception e) {
             log.error("直接创建节点失败", e);
             throw new BusinessException(ErrorCode.SYSTEM_ERROR, "创建节点时发生数据库错误: " + e.getMessage());
@@ -81,11 +108,8 @@ public class GraphServiceImpl implements GraphService {
     @Override
     public String deleteNode(NodeDeleteRequest request, User currentUser) {
         permissionService.checkNodePermission(request.getName(), currentUser, PermissionEnum.WRITE);
-        try (Session session = driver.session()) {
-            session.writeTransaction(tx -> {
-                tx.run("MATCH (n:CircuitNode {name: $name}) DETACH DELETE n", Map.of("name", request.getName()));
-                return null;
-            });
+        try {
+            graphStore.deleteNode(request.getName());
             return request.getName();
         } catch (Exception e) {
             log.error("删除节点失败", e);
@@ -99,49 +123,26 @@ public class GraphServiceImpl implements GraphService {
         if ((request.getPropertiesToSet() == null || request.getPropertiesToSet().isEmpty()) && (request.getPropertiesToRemove() == null || request.getPropertiesToRemove().isEmpty())) {
             return request.getName();
         }
-        try (Session session = driver.session()) {
-            String updatedNodeName = session.writeTransaction(tx -> {
-                StringBuilder queryBuilder = new StringBuilder("MATCH (n:CircuitNode {name: $name})");
-                Map<String, Object> parameters = new HashMap<>();
-                parameters.put("name", request.getName());
-                if (request.getPropertiesToSet() != null && !request.getPropertiesToSet().isEmpty()) {
-                    queryBuilder.append(" SET n += $propsToSet");
-                    parameters.put("propsToSet", request.getPropertiesToSet());
-                }
-                if (request.getPropertiesToRemove() != null && !request.getPropertiesToRemove().isEmpty()) {
-                    for (String keyToRemove : request.getPropertiesToRemove()) {
-                        if (StringUtils.isNotBlank(keyToRemove)) {
-                            queryBuilder.append(" REMOVE n.`").append(keyToRemove.replace("`", "``")).append("`");
-                        }
-                    }
-                }
-                queryBuilder.append(" RETURN n.name");
-                Result result = tx.run(queryBuilder.toString(), parameters);
-                if (!result.hasNext()) {
-                    throw new BusinessException(ErrorCode.NOT_FOUND_ERROR, "要更新的节点 '" + request.getName() + "' 不存在");
-                }
-                return result.single().get(0).asString();
-            });
-            // 异步触发关系自动创建
-            triggerAutoRelationshipCreation(updatedNodeName);
-            return updatedNodeName;
+        boolean found;
+        try {
+            found = graphStore.updateNode(request.getName(), request.getPropertiesToSet(), request.getPropertiesToRemove());
         } catch (Exception e) {
             log.error("更新节点失败", e);
             throw new BusinessException(ErrorCode.SYSTEM_ERROR, "更新节点时发生数据库错误: " + e.getMessage());
         }
+        if (!found) {
+            throw new BusinessException(ErrorCode.NOT_FOUND_ERROR, "要更新的节点 '" + request.getName() + "' 不存在");
+        }
+        // 异步触发关系自动创建，短时间内对同一节点的多次更新只会关联一次
+        graphMutationExecutor.submitAutoLink(request.getName());
+        return request.getName();
     }
 
     @Override
     public NodeVO findNode(NodeQueryRequest request, User currentUser) {
         permissionService.checkNodePermission(request.getName(), currentUser, PermissionEnum.READ);
-        try (Session session = driver.session()) {
-            return session.readTransaction(tx -> {
-                Result result = tx.run("MATCH (n:CircuitNode {name: $name}) RETURN n", Map.of("name", request.getName()));
-                return result.stream()
-                        .findFirst()
-                        .map(record -> nodeToVO(record.get("n").asNode()))
-                        .orElse(null);
-            });
+        try {
+            return graphStore.findNode(request.getName());
         } catch (Exception e) {
             log.error("查询节点失败", e);
             throw new BusinessException(ErrorCode.SYSTEM_ERROR, "查询节点时发生数据库错误: " + e.getMessage());
@@ -151,21 +152,9 @@ public class GraphServiceImpl implements GraphService {
     @Override
     public List<NodeVO> getAllNodesForCurrentUser(NodeGetAllRequest request, User currentUser) {
         if (currentUser == null) throw new BusinessException(ErrorCode.NOT_LOGIN_ERROR);
-        try (Session session = driver.session()) {
-            return session.readTransaction(tx -> {
-                Result result;
-                if (UserRoleEnum.ADMIN.getValue().equals(currentUser.getUserRole())) {
-                    result = tx.run("MATCH (n:CircuitNode) RETURN n");
-                } else {
-                    List<String> orgIds = organizationMemberMapper.findUserOrganizationIds(currentUser.getId());
-                    String query = "MATCH (n:CircuitNode) WHERE n.space = 'platform_public' OR (n.space IN ['user_private', 'user_public'] AND n.ownerUserId = $userId) OR (n.space = 'organization_public' AND n.ownerOrganizationId IN $orgIds) RETURN n";
-                    Map<String, Object> params = Map.of("userId", currentUser.getId(), "orgIds", orgIds);
-                    result = tx.run(query, params);
-                }
-                return result.stream()
-                        .map(record -> nodeToVO(record.get("n").asNode()))
-                        .collect(Collectors.toList());
-            });
+        GraphVisibility visibility = visibilityOf(currentUser);
+        try {
+            return graphStore.listNodes(visibility);
         } catch (Exception e) {
             log.error("获取全部节点失败", e);
             throw new BusinessException(ErrorCode.SYSTEM_ERROR, "获取全部节点时发生数据库错误: " + e.getMessage());
@@ -173,21 +162,105 @@ public class GraphServiceImpl implements GraphService {
     }
 
     @Override
-    public void updateNodePermissions(String nodeName, Map<String, Object> newPermissionProperties) {
-        if (StringUtils.isBlank(nodeName) || newPermissionProperties == null || newPermissionProperties.isEmpty()) {
+    public CursorPageVO<NodeVO> listNodesByCursor(NodeGetAllRequest request, User currentUser) {
+        if (currentUser == null) throw new BusinessException(ErrorCode.NOT_LOGIN_ERROR);
+        int pageSize = resolvePageSize(request.getPageSize());
+        GraphVisibility visibility = visibilityOf(currentUser);
+        try {
+            return graphStore.pageNodes(visibility, request.getCursor(), pageSize);
+        } catch (Exception e) {
+            log.error("分页获取节点失败", e);
+            throw new BusinessException(ErrorCode.SYSTEM_ERROR, "分页获取节点时发生数据库错误: " + e.getMessage());
+        }
+    }
+
+    @Override
+    public void streamNodes(User currentUser, Consumer<NodeVO> consumer) {
+        if (currentUser == null) throw new BusinessException(ErrorCode.NOT_LOGIN_ERROR);
+        graphStore.streamNodes(visibilityOf(currentUser), consumer);
+    }
+
+    @Override
+    public Map<String, NodeVO> findNodes(Collection<String> nodeNames, User currentUser) {
+        List<String> readable = permissionService.filterReadable(nodeNames, currentUser);
+        if (readable.isEmpty()) {
+            return new HashMap<>();
+        }
+        try {
+            return graphStore.findNodes(readable);
+        } catch (Exception e) {
+            log.error("批量查询节点失败", e);
+            throw new BusinessException(ErrorCode.SYSTEM_ERROR, "批量查询节点时发生数据库错误: " + e.getMessage());
+        }
+    }
+
+    @Override
+    public void deleteNodes(Collection<String> nodeNames) {
+        if (nodeNames == null || nodeNames.isEmpty()) {
             return;
         }
-        try (Session session = driver.session()) {
-            session.writeTransaction(tx -> {
-                String query = "MATCH (n:CircuitNode {name: $name}) SET n += $props";
-                tx.run(query, Map.of("name", nodeName, "props", newPermissionProperties));
-                return null;
-            });
-            log.info("成功更新节点 '{}' 的权限属性。", nodeName);
+        List<String> names = new ArrayList<>(nodeNames);
+        try {
+            // 每个分块一次存储写操作，避免一次删除上万个节点时事务状态过大
+            for (int from = 0; from < names.size(); from += ingestChunkSize) {
+                graphStore.deleteNodes(new ArrayList<>(names.subList(from, Math.min(from + ingestChunkSize, names.size()))));
+            }
         } catch (Exception e) {
-            log.error("更新节点 '{}' 权限属性失败。", nodeName, e);
-            throw new BusinessException(ErrorCode.SYSTEM_ERROR, "更新知识图谱节点权限失败");
+            log.error("批量删除节点失败", e);
+            throw new BusinessException(ErrorCode.SYSTEM_ERROR, "删除知识图谱节点失败");
+        }
+    }
+
+    @Override
+    public int updateNodePermissionsBatch(Collection<String> nodeNames, Map<String, Object> setProperties, Collection<String> removeProperties) {
+        if (nodeNames == null || nodeNames.isEmpty()) {
+            return 0;
+        }
+        try {
+            return graphStore.updateNodes(nodeNames, setProperties, removeProperties);
+        } catch (Exception e) {
+            log.error("批量更新 {} 个节点的权限属性失败", nodeNames.size(), e);
+            throw new BusinessException(ErrorCode.SYSTEM_ERROR, "批量更新知识图谱节点权限失败");
+        }
+    }
+
+    @Override
+    public GraphIngestReportVO createNodesBatch(List<NodeCreateRequest> requests, boolean autoLink) {
+        GraphIngestReportVO report = new GraphIngestReportVO();
+        report.setChunkSize(ingestChunkSize);
+        if (requests == null || requests.isEmpty()) {
+            return report;
+        }
+        long start = System.currentTimeMillis();
+        for (NodeCreateRequest request : requests) {
+            if (StringUtils.isBlank(request.getName())) {
+                throw new BusinessException(ErrorCode.PARAMS_ERROR, "节点名称不能为空");
+            }
+        }
+        report.setTotalNodes(requests.size());
+        try {
+            for (int from = 0; from < requests.size(); from += ingestChunkSize) {
+                List<NodeCreateRequest> chunk = requests.subList(from, Math.min(from + ingestChunkSize, requests.size()));
+                long chunkStart = System.currentTimeMillis();
+                graphStore.mergeNodes(chunk);
+                long chunkMillis = System.currentTimeMillis() - chunkStart;
+                report.getChunkMillis().add(chunkMillis);
+                log.info("批量写入节点分块 [{}, {}) 完成, 耗时 {} ms", from, from + chunk.size(), chunkMillis);
+            }
+        } catch (Exception e) {
+            log.error("批量写入节点失败", e);
+            throw new BusinessException(ErrorCode.SYSTEM_ERROR, "批量创建节点时发生数据库错误: " + e.getMessage());
+        }
+        if (autoLink) {
+            long linkStart = System.currentTimeMillis();
+            List<String> names = requests.stream().map(NodeCreateRequest::getName).collect(Collectors.toList());
+            report.setCreatedRelationships(triggerAutoRelationshipCreation(names));
+            report.setAutoLinkMillis(System.currentTimeMillis() - linkStart);
         }
+        report.setTotalMillis(System.currentTimeMillis() - start);
+        log.info("批量写入 {} 个节点完成: 分块耗时 {} ms, 自动关联耗时 {} ms, 总耗时 {} ms",
+                report.getTotalNodes(), report.getChunkMillis(), report.getAutoLinkMillis(), report.getTotalMillis());
+        return report;
     }
 
     // endregion
@@ -203,38 +276,29 @@ public class GraphServiceImpl implements GraphService {
         if (StringUtils.isAnyBlank(fromNode, toNode, name)) {
             throw new BusinessException(ErrorCode.PARAMS_ERROR, "关系的起止节点和类型名称不能为空");
         }
-        try (Session session = driver.session()) {
-            return session.writeTransaction(tx -> {
-                validateRelationshipName(name);
-                String query = String.format("MATCH (a:CircuitNode {name: $fromNode}), (b:CircuitNode {name: $toNode}) CREATE (a)-[r:%s]->(b) SET r += $props RETURN type(r)", name);
-                Map<String, Object> params = new HashMap<>();
-                params.put("fromNode", fromNode);
-                params.put("toNode", toNode);
-                params.put("props", request.getProperties() == null ? new HashMap<>() : request.getProperties());
-                Result result = tx.run(query, params);
-                if (!result.hasNext()) throw new BusinessException(ErrorCode.NOT_FOUND_ERROR, "创建关系失败，一个或两个节点不存在");
-                return result.single().get(0).asString();
-            });
+        validateRelationshipName(name);
+        Map<String, Object> props = request.getProperties() == null ? new HashMap<>() : request.getProperties();
+        boolean created;
+        try {
+            created = graphStore.createRelationship(fromNode, toNode, name, props);
         } catch (Exception e) {
             log.error("创建关系失败", e);
             throw new BusinessException(ErrorCode.SYSTEM_ERROR, "创建关系时发生数据库错误: " + e.getMessage());
         }
+        if (!created) {
+            throw new BusinessException(ErrorCode.NOT_FOUND_ERROR, "创建关系失败，一个或两个节点不存在");
+        }
+        return name;
     }
 
     @Override
     public String deleteRelationship(RelationshipDeleteRequest request, User currentUser) {
         permissionService.checkNodePermission(request.getFromNode(), currentUser, PermissionEnum.WRITE);
         permissionService.checkNodePermission(request.getToNode(), currentUser, PermissionEnum.WRITE);
-        String fromNode = request.getFromNode();
-        String toNode = request.getToNode();
         String name = request.getName();
-        try (Session session = driver.session()) {
-            session.writeTransaction(tx -> {
-                validateRelationshipName(name);
-                String query = String.format("MATCH (a:CircuitNode {name: $fromNode})-[r:%s]->(b:CircuitNode {name: $toNode}) DELETE r", name);
-                tx.run(query, Map.of("fromNode", fromNode, "toNode", toNode));
-                return null;
-            });
+        validateRelationshipName(name);
+        try {
+            graphStore.deleteRelationship(request.getFromNode(), request.getToNode(), name);
             return name;
         } catch (Exception e) {
             log.error("删除关系失败", e);
@@ -246,57 +310,30 @@ public class GraphServiceImpl implements GraphService {
     public String updateRelationship(RelationshipUpdateRequest request, User currentUser) {
         permissionService.checkNodePermission(request.getFromNode(), currentUser, PermissionEnum.WRITE);
         permissionService.checkNodePermission(request.getToNode(), currentUser, PermissionEnum.WRITE);
-        String fromNode = request.getFromNode();
-        String toNode = request.getToNode();
         String name = request.getName();
-        try (Session session = driver.session()) {
-            return session.writeTransaction(tx -> {
-                validateRelationshipName(name);
-                StringBuilder queryBuilder = new StringBuilder(String.format("MATCH (:CircuitNode {name: $fromNode})-[r:%s]->(:CircuitNode {name: $toNode})", name));
-                Map<String, Object> parameters = new HashMap<>();
-                parameters.put("fromNode", fromNode);
-                parameters.put("toNode", toNode);
-                if (request.getPropertiesToSet() != null && !request.getPropertiesToSet().isEmpty()) {
-                    queryBuilder.append(" SET r += $propsToSet");
-                    parameters.put("propsToSet", request.getPropertiesToSet());
-                }
-                if (request.getPropertiesToRemove() != null && !request.getPropertiesToRemove().isEmpty()) {
-                    for (String key : request.getPropertiesToRemove()) {
-                        if(StringUtils.isNotBlank(key)) queryBuilder.append(" REMOVE r.`").append(key.replace("`", "``")).append("`");
-                    }
-                }
-                queryBuilder.append(" RETURN type(r)");
-                Result result = tx.run(queryBuilder.toString(), parameters);
-                if (!result.hasNext()) throw new BusinessException(ErrorCode.NOT_FOUND_ERROR, "要更新的关系不存在");
-                return result.single().get(0).asString();
-            });
+        validateRelationshipName(name);
+        boolean found;
+        try {
+            found = graphStore.updateRelationship(request.getFromNode(), request.getToNode(), name,
+                    request.getPropertiesToSet(), request.getPropertiesToRemove());
         } catch (Exception e) {
             log.error("更新关系失败", e);
             throw new BusinessException(ErrorCode.SYSTEM_ERROR, "更新关系时发生数据库错误: " + e.getMessage());
         }
+        if (!found) {
+            throw new BusinessException(ErrorCode.NOT_FOUND_ERROR, "要更新的关系不存在");
+        }
+        return name;
     }
 
     @Override
     public RelationshipVO findRelationship(RelationshipQueryRequest request, User currentUser) {
         permissionService.checkNodePermission(request.getFromNode(), currentUser, PermissionEnum.READ);
         permissionService.checkNodePermission(request.getToNode(), currentUser, PermissionEnum.READ);
-        String fromNode = request.getFromNode();
-        String toNode = request.getToNode();
         String name = request.getName();
-        try (Session session = driver.session()) {
-            return session.readTransaction(tx -> {
-                validateRelationshipName(name);
-                String query = String.format("MATCH (a:CircuitNode {name: $fromNode})-[r:%s]->(b:CircuitNode {name: $toNode}) RETURN r, a.name as fromNodeName, b.name as toNodeName", name);
-                Result result = tx.run(query, Map.of("fromNode", fromNode, "toNode", toNode));
-                return result.stream()
-                        .findFirst()
-                        .map(record -> relationshipToVO(
-                                record.get("r").asRelationship(),
-                                record.get("fromNodeName").asString(),
-                                record.get("toNodeName").asString()
-                        ))
-                        .orElse(null);
-            });
+        validateRelationshipName(name);
+        try {
+            return graphStore.findRelationship(request.getFromNode(), request.getToNode(), name);
         } catch (Exception e) {
             log.error("查询关系失败", e);
             throw new BusinessException(ErrorCode.SYSTEM_ERROR, "查询关系时发生数据库错误: " + e.getMessage());
@@ -306,23 +343,9 @@ public class GraphServiceImpl implements GraphService {
     @Override
     public List<RelationshipVO> getAllRelationshipsForCurrentUser(RelationshipGetAllRequest request, User currentUser) {
         if (currentUser == null) throw new BusinessException(ErrorCode.NOT_LOGIN_ERROR);
-        List<NodeVO> visibleNodes = getAllNodesForCurrentUser(new NodeGetAllRequest(), currentUser);
-        if (visibleNodes.isEmpty()) {
-            return new ArrayList<>();
-        }
-        List<String> visibleNodeNames = visibleNodes.stream().map(NodeVO::getName).collect(Collectors.toList());
-        try (Session session = driver.session()) {
-            return session.readTransaction(tx -> {
-                String relQuery = "MATCH (a:CircuitNode)-[r]->(b:CircuitNode) WHERE a.name IN $nodeNames AND b.name IN $nodeNames RETURN r, a.name AS fromNode, b.name AS toNode";
-                Result result = tx.run(relQuery, Map.of("nodeNames", visibleNodeNames));
-                return result.stream()
-                        .map(record -> relationshipToVO(
-                                record.get("r").asRelationship(),
-                                record.get("fromNode").asString(),
-                                record.get("toNode").asString()
-                        ))
-                        .collect(Collectors.toList());
-            });
+        GraphVisibility visibility = visibilityOf(currentUser);
+        try {
+            return graphStore.listRelationships(visibility);
         } catch (Exception e) {
             log.error("获取全部关系失败", e);
             throw new BusinessException(ErrorCode.SYSTEM_ERROR, "获取全部关系时发生数据库错误: " + e.getMessage());
@@ -330,65 +353,134 @@ public class GraphServiceImpl implements GraphService {
     }
 
     @Override
-    public void triggerAutoRelationshipCreation(String nodeName) {
-        // 实际项目中，这里应该是 @Async 异步执行
-        log.info("开始为节点 '{}' 触发自动关系创建...", nodeName);
-        try (Session session = driver.session()) {
-            session.writeTransaction(tx -> {
-                // 这个查询非常强大:
-                // 1. 匹配触发节点
-                // 2. UNWIND 其所有属性，变成 key-value 行
-                // 3. 过滤掉我们不关心的属性（如name, space等）
-                // 4. 对于每个有效的属性，匹配所有其他具有相同 key-value 的节点
-                // 5. MERGE (合并) 关系，如果关系不存在则创建，避免重复
-                String query =
-                        "MATCH (a:CircuitNode {name: $nodeName}) " +
-                                "UNWIND keys(a) AS key " +
-                                "WITH a, key WHERE NOT key IN ['name', 'space', 'ownerUserId', 'ownerOrganizationId'] " +
-                                "MATCH (b:CircuitNode) WHERE a <> b AND a[key] = b[key] " +
-                                "WITH a, b, key " +
-                                "CALL apoc.merge.relationship(a, 'SHARED_' + apoc.text.upperCamelCase(key), {}, {}, b) YIELD rel " +
-                                "RETURN count(rel) AS createdRels";
-
-                Result result = tx.run(query, Map.of("nodeName", nodeName));
-                if (result.hasNext()) {
-                    long createdCount = result.single().get("createdRels").asLong();
-                    log.info("为节点 '{}' 自动创建/合并了 {} 条关系。", nodeName, createdCount);
-                }
-                return null;
-            });
+    public long triggerAutoRelationshipCreation(Collection<String> nodeNames) {
+        if (nodeNames == null || nodeNames.isEmpty()) {
+            return 0;
+        }
+        log.info("开始为 {} 个节点批量触发自动关系创建...", nodeNames.size());
+        try {
+            return graphStore.relink(nodeNames);
         } catch (Exception e) {
-            log.error("为节点 '{}' 自动创建关系时发生错误", nodeName, e);
-            // 在异步场景中，不应向上抛出业务异常，而是记录错误
+            log.error("批量自动创建关系时发生错误", e);
+            throw new BusinessException(ErrorCode.SYSTEM_ERROR, "批量自动创建关系失败: " + e.getMessage());
         }
     }
 
     // endregion
 
+    // region 子图查询实现
+    @Override
+    public GraphAdjacencyVO getNeighborhood(GraphNeighborhoodRequest request, User currentUser) {
+        if (currentUser == null) throw new BusinessException(ErrorCode.NOT_LOGIN_ERROR);
+        if (StringUtils.isBlank(request.getName())) {
+            throw new BusinessException(ErrorCode.PARAMS_ERROR, "中心节点名称不能为空");
+        }
+        int depth = request.getDepth() == null ? 1 : request.getDepth();
+        if (depth < 1 || depth > maxNeighborhoodDepth) {
+            throw new BusinessException(ErrorCode.PARAMS_ERROR, "跳数必须在 1 到 " + maxNeighborhoodDepth + " 之间");
+        }
+        int limit = request.getLimit() == null || request.getLimit() <= 0
+                ? defaultNeighborhoodLimit : Math.min(request.getLimit(), maxNeighborhoodLimit);
+        List<String> types = resolveRelationshipTypes(request.getRelationshipTypes());
+        GraphAdjacencyVO result;
+        try {
+            result = graphStore.neighborhood(visibilityOf(currentUser), request.getName(), depth, types, limit, maxNeighborhoodEdges);
+        } catch (Exception e) {
+            log.error("查询节点邻域失败", e);
+            throw new BusinessException(ErrorCode.SYSTEM_ERROR, "查询节点邻域时发生数据库错误: " + e.getMessage());
+        }
+        if (result == null) {
+            throw new BusinessException(ErrorCode.NOT_FOUND_ERROR, "节点未找到或您没有权限访问");
+        }
+        return result;
+    }
+
+    @Override
+    public GraphAdjacencyVO findShortestPath(GraphPathRequest request, User currentUser) {
+        if (currentUser == null) throw new BusinessException(ErrorCode.NOT_LOGIN_ERROR);
+        if (StringUtils.isAnyBlank(request.getFromNode(), request.getToNode())) {
+            throw new BusinessException(ErrorCode.PARAMS_ERROR, "路径的起止节点不能为空");
+        }
+        List<String> types = resolveRelationshipTypes(request.getRelationshipTypes());
+        GraphAdjacencyVO result;
+        try {
+            result = graphStore.shortestPath(visibilityOf(currentUser), request.getFromNode(), request.getToNode(), maxPathLength, types);
+        } catch (Exception e) {
+            log.error("查询最短路径失败", e);
+            throw new BusinessException(ErrorCode.SYSTEM_ERROR, "查询最短路径时发生数据库错误: " + e.getMessage());
+        }
+        if (result == null) {
+            throw new BusinessException(ErrorCode.NOT_FOUND_ERROR, "节点未找到或您没有权限访问");
+        }
+        return result;
+    }
+
+    // endregion
+
     // region 辅助方法 (Helpers)
+
+    /**
+     * 关系类型过滤条件：去掉空白项并校验命名，未指定时返回空列表
+     */
+    private List<String> resolveRelationshipTypes(List<String> relationshipTypes) {
+        List<String> types = new ArrayList<>();
+        if (relationshipTypes != null) {
+            for (String type : relationshipTypes) {
+                if (StringUtils.isNotBlank(type)) {
+                    validateRelationshipName(type);
+                    types.add(type);
+                }
+            }
+        }
+        return types;
+    }
+
+    /**
+     * 关系类型命名规则：只接受合法标识符
+     */
     private void validateRelationshipName(String name) {
-        if (!name.matches("^[a-zA-Z_][a-zA-Z0-9_]*$")) {
+        if (name == null || !name.matches("^[a-zA-Z_][a-zA-Z0-9_]*$")) {
             throw new BusinessException(ErrorCode.PARAMS_ERROR, "关系名称不合法，只能包含字母、数字和下划线，且不能以数字开头。");
         }
     }
 
-    private NodeVO nodeToVO(Node node) {
-        Map<String, Object> properties = new HashMap<>(node.asMap());
-        NodeVO vo = new NodeVO();
-        vo.setName((String) properties.remove("name"));
-        vo.setProperties(properties);
-        return vo;
+    @Override
+    public CursorPageVO<RelationshipVO> listRelationshipsByCursor(RelationshipGetAllRequest request, User currentUser) {
+        if (currentUser == null) throw new BusinessException(ErrorCode.NOT_LOGIN_ERROR);
+        int pageSize = resolvePageSize(request.getPageSize());
+        GraphVisibility visibility = visibilityOf(currentUser);
+        try {
+            return graphStore.pageRelationships(visibility, request.getCursor(), pageSize);
+        } catch (BusinessException e) {
+            throw e;
+        } catch (Exception e) {
+            log.error("分页获取关系失败", e);
+            throw new BusinessException(ErrorCode.SYSTEM_ERROR, "分页获取关系时发生数据库错误: " + e.getMessage());
+        }
+    }
+
+    @Override
+    public void streamRelationships(User currentUser, Consumer<RelationshipVO> consumer) {
+        if (currentUser == null) throw new BusinessException(ErrorCode.NOT_LOGIN_ERROR);
+        graphStore.streamRelationships(visibilityOf(currentUser), consumer);
+    }
+
+    /**
+     * 当前用户的可见范围。平台管理员可见全部节点，其余用户可见平台公共节点、自己的个人节点和所属组织的节点。
+     */
+    private GraphVisibility visibilityOf(User currentUser) {
+        if (UserRoleEnum.ADMIN.getValue().equals(currentUser.getUserRole())) {
+            return GraphVisibility.all();
+        }
+        return GraphVisibility.of(currentUser.getId(), organizationMemberMapper.findUserOrganizationIds(currentUser.getId()));
     }
 
-    private RelationshipVO relationshipToVO(Relationship rel, String fromNodeName, String toNodeName) {
-        Map<String, Object> properties = new HashMap<>(rel.asMap());
-        RelationshipVO vo = new RelationshipVO();
-        vo.setName(rel.type());
-        vo.setFromNode(fromNodeName);
-        vo.setToNode(toNodeName);
-        vo.setProperties(properties);
-        return vo;
+    private int resolvePageSize(Integer pageSize) {
+        if (pageSize == null || pageSize <= 0) {
+            return defaultPageSize;
+        }
+        return Math.min(pageSize, maxPageSize);
     }
     // endregion
 }
-// END OF FILE: src/main/java/com/scy/mytemplate/service/impl/GraphServiceImpl.java
\ No newline at end of file
+// END OF FILE: src/main/java/com/scy/mytemplate/service/impl/GraphServiceImpl.java
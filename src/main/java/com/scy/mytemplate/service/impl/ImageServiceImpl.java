@@ -1,44 +1,55 @@
 // FILE: src/main/java/com/scy/mytemplate/service/impl/ImageServiceImpl.java
 package com.scy.mytemplate.service.impl;
+import cn.hutool.cache.CacheUtil;
+import cn.hutool.cache.impl.LRUCache;
 import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.scy.mytemplate.common.ErrorCode;
 import com.scy.mytemplate.exception.BusinessException;
+import com.scy.mytemplate.manager.GraphOutbox;
+import com.scy.mytemplate.manager.ImageBlobStore;
+import com.scy.mytemplate.manager.ImageBlobStore.StagedBlob;
+import com.scy.mytemplate.manager.ImageDownloadManager;
+import com.scy.mytemplate.manager.ImageIngestPipeline;
+import com.scy.mytemplate.manager.ImageIngestPipeline.Stage;
+import com.scy.mytemplate.manager.ImageMetadataProbe;
+import com.scy.mytemplate.manager.ImageThumbnailManager;
+import com.scy.mytemplate.manager.PermissionCacheManager;
+import com.scy.mytemplate.manager.task.BackgroundTask;
+import com.scy.mytemplate.manager.task.BackgroundTaskManager;
 import com.scy.mytemplate.mapper.FolderMapper;
 import com.scy.mytemplate.mapper.ImageMapper;
 import com.scy.mytemplate.model.dto.image.*;
 import com.scy.mytemplate.model.dto.node.NodeCreateRequest;
-import com.scy.mytemplate.model.dto.node.NodeDeleteRequest;
 import com.scy.mytemplate.model.entity.Annotation;
 import com.scy.mytemplate.model.entity.Folder;
 import com.scy.mytemplate.model.entity.Image;
 import com.scy.mytemplate.model.entity.User;
 import com.scy.mytemplate.model.enums.PermissionEnum;
+import com.scy.mytemplate.model.vo.ImageCursorPageVO;
 import com.scy.mytemplate.model.vo.ImageVO;
 import com.scy.mytemplate.service.AnnotationService;
-import com.scy.mytemplate.service.GraphService;
 import com.scy.mytemplate.service.ImageService;
 import com.scy.mytemplate.service.PermissionService;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.io.FilenameUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.core.io.UrlResource;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.multipart.MultipartFile;
+import javax.annotation.PostConstruct;
 import javax.annotation.Resource;
-import javax.imageio.ImageIO;
-import java.awt.image.BufferedImage;
-import java.io.File;
+import java.awt.Dimension;
 import java.io.IOException;
-import java.net.MalformedURLException;
-import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.charset.StandardCharsets;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
 
 @Service
@@ -49,15 +60,50 @@ public class ImageServiceImpl extends ServiceImpl<ImageMapper, Image> implements
     @Resource
     private PermissionService permissionService;
     @Resource
-    private GraphService graphService;
-    @Resource
     private AnnotationService annotationService;
+    @Resource
+    private GraphOutbox graphOutbox;
+    @Resource
+    private ImageIngestPipeline imageIngestPipeline;
+    @Resource
+    private ImageMetadataProbe imageMetadataProbe;
+    @Resource
+    private PermissionCacheManager permissionCacheManager;
+    @Resource
+    private BackgroundTaskManager backgroundTaskManager;
+    @Resource
+    private TransactionTemplate transactionTemplate;
+    @Resource
+    private ImageBlobStore imageBlobStore;
+    @Resource
+    private ImageDownloadManager imageDownloadManager;
+    @Resource
+    private ImageThumbnailManager imageThumbnailManager;
 
-    @Value("${file.upload-dir}")
-    private String uploadDir;
+    @Value("${image.list.max-page-size:200}")
+    private int maxListPageSize;
+    @Value("${image.list.count-capacity:2000}")
+    private int countCacheCapacity;
+    @Value("${image.list.count-ttl-seconds:30}")
+    private long countCacheTtlSeconds;
+
+    /**
+     * 文件夹图片总数缓存：folderId|文件名前缀 -> 总数
+     */
+    private LRUCache<String, Long> imageCountCache;
+
+    /**
+     * 批量删除时每条 IN 语句携带的ID数量
+     */
+    private static final int DELETE_BATCH_SIZE = 1000;
 
     private static final ObjectMapper objectMapper = new ObjectMapper();
 
+    @PostConstruct
+    public void init() {
+        imageCountCache = CacheUtil.newLRUCache(countCacheCapacity, countCacheTtlSeconds * 1000);
+    }
+
     @Override
     @Transactional(rollbackFor = Exception.class)
     public ImageVO uploadImage(String folderId, MultipartFile file, User currentUser) {
@@ -65,7 +111,10 @@ public class ImageServiceImpl extends ServiceImpl<ImageMapper, Image> implements
         if (folder == null || folder.getIsDelete() == 1) {
             throw new BusinessException(ErrorCode.NOT_FOUND_ERROR, "目标文件夹不存在");
         }
-        return processAndSaveSingleImageEntry(folder, file, null, currentUser);
+        ImageVO imageVO = processAndSaveSingleImageEntry(folder, file, null, currentUser);
+        // 知识图谱节点的创建与自动关联随本事务写入发件箱，提交后由投递线程写入 Neo4j
+        enqueueGraphNodeCreation(folder, Collections.singletonList(imageVO));
+        return imageVO;
     }
 
     @Override
@@ -77,7 +126,76 @@ public class ImageServiceImpl extends ServiceImpl<ImageMapper, Image> implements
         }
         permissionService.checkFolderPermission(folder, currentUser, PermissionEnum.WRITE);
 
-        Map<String, MultipartFile> imageFiles = new HashMap<>();
+        List<ImageVO> resultVOs = new ArrayList<>();
+        for (IngestItem item : classifyUploadFiles(files)) {
+            MultipartFile imageFile = item.imageFile;
+            MultipartFile jsonFile = item.jsonFile;
+
+            try {
+                ImageVO savedImageVO = processAndSaveSingleImageEntry(folder, imageFile, jsonFile, currentUser);
+                resultVOs.add(savedImageVO);
+            } catch (Exception e) {
+                log.error("批量上传中处理文件 {} 失败: {}", imageFile.getOriginalFilename(), e.getMessage(), e);
+                throw new BusinessException(ErrorCode.OPERATION_ERROR, "处理文件 " + imageFile.getOriginalFilename() + " 失败: " + e.getMessage());
+            }
+        }
+        enqueueGraphNodeCreation(folder, resultVOs);
+        return resultVOs;
+    }
+
+    @Override
+    public String submitImagesWithAnnotationsTask(String folderId, List<MultipartFile> files, User currentUser) {
+        Folder folder = folderMapper.selectById(folderId);
+        if (folder == null || folder.getIsDelete() == 1) {
+            throw new BusinessException(ErrorCode.NOT_FOUND_ERROR, "目标文件夹不存在");
+        }
+        permissionService.checkFolderPermission(folder, currentUser, PermissionEnum.WRITE);
+
+        List<IngestItem> items = classifyUploadFiles(files);
+        BackgroundTask task = backgroundTaskManager.create("image_upload", currentUser.getId(), items.size());
+
+        // 落盘阶段必须在请求返回前完成：请求结束后容器会清理 multipart 临时文件
+        List<CompletableFuture<IngestItem>> written = new ArrayList<>(items.size());
+        for (IngestItem item : items) {
+            written.add(imageIngestPipeline.supply(Stage.DISK, () -> writeToDisk(folder, item, task)));
+        }
+        CompletableFuture.allOf(written.toArray(new CompletableFuture[0])).join();
+
+        // 其余阶段在各自的线程池中异步执行：尺寸探测与标注解析并行，二者都完成后入库
+        List<CompletableFuture<ImageVO>> persisted = new ArrayList<>(items.size());
+        for (CompletableFuture<IngestItem> future : written) {
+            IngestItem item = future.join();
+            if (item.failed) {
+                continue;
+            }
+            CompletableFuture<IngestItem> probed = imageIngestPipeline.then(future, Stage.PROBE, it -> probeStage(it, task));
+            CompletableFuture<IngestItem> parsed = imageIngestPipeline.then(future, Stage.PARSE, it -> parseStage(it, task));
+            persisted.add(probed.thenCombine(parsed, (a, b) -> a)
+                    .thenCompose(it -> imageIngestPipeline.supply(Stage.PERSIST, () -> persistStage(folder, it, currentUser, task)))
+                    .exceptionally(e -> {
+                        log.error("批量上传任务 {} 处理图片 {} 失败", task.getId(), item.storagePath, e);
+                        imageBlobStore.discard(item.blob);
+                        failItem(item, task, "图片处理失败");
+                        return null;
+                    }));
+        }
+
+        CompletableFuture.allOf(persisted.toArray(new CompletableFuture[0])).whenComplete((ignored, error) -> {
+            List<ImageVO> resultVOs = persisted.stream()
+                    .map(future -> future.getNow(null))
+                    .filter(Objects::nonNull)
+                    .collect(Collectors.toList());
+            task.finish(resultVOs);
+            log.info("批量上传任务 {} 结束: 成功 {}, 失败 {}", task.getId(), task.getProcessed(), task.getFailed());
+        });
+        return task.getId();
+    }
+
+    /**
+     * 按文件名（不含扩展名）把图片与同名的 JSON 标注文件配对
+     */
+    private List<IngestItem> classifyUploadFiles(List<MultipartFile> files) {
+        Map<String, MultipartFile> imageFiles = new LinkedHashMap<>();
         Map<String, MultipartFile> jsonFiles = new HashMap<>();
         for (MultipartFile file : files) {
             String baseName = FilenameUtils.getBaseName(file.getOriginalFilename());
@@ -88,26 +206,103 @@ public class ImageServiceImpl extends ServiceImpl<ImageMapper, Image> implements
                 jsonFiles.put(baseName, file);
             }
         }
+        List<IngestItem> items = new ArrayList<>(imageFiles.size());
+        imageFiles.forEach((baseName, imageFile) -> items.add(new IngestItem(imageFile, jsonFiles.get(baseName))));
+        return items;
+    }
 
-        List<ImageVO> resultVOs = new ArrayList<>();
-        for (Map.Entry<String, MultipartFile> entry : imageFiles.entrySet()) {
-            String baseName = entry.getKey();
-            MultipartFile imageFile = entry.getValue();
-            MultipartFile jsonFile = jsonFiles.get(baseName);
+    /**
+     * 落盘阶段：把图片写入内容寻址存储的暂存区并计算哈希，同时读出标注内容，失败时只标记当前条目
+     */
+    private IngestItem writeToDisk(Folder folder, IngestItem item, BackgroundTask task) {
+        String originalFilename = item.imageFile.getOriginalFilename();
+        item.storagePath = buildStoragePath(folder, originalFilename);
+        try {
+            item.blob = imageBlobStore.stage(item.imageFile);
+            if (item.jsonFile != null) {
+                item.jsonContent = new String(item.jsonFile.getBytes(), StandardCharsets.UTF_8);
+            }
+            task.stageDone("written");
+        } catch (Exception e) {
+            log.error("批量上传任务 {} 保存文件 {} 失败", task.getId(), originalFilename, e);
+            failItem(item, task, "文件保存失败");
+        }
+        return item;
+    }
 
+    private IngestItem probeStage(IngestItem item, BackgroundTask task) {
+        Dimension dimension = imageMetadataProbe.probe(item.blob.getFile().toFile());
+        if (dimension != null) {
+            item.width = dimension.width;
+            item.height = dimension.height;
+        }
+        task.stageDone("probed");
+        return item;
+    }
+
+    private IngestItem parseStage(IngestItem item, BackgroundTask task) {
+        if (item.jsonContent != null) {
             try {
-                ImageVO savedImageVO = processAndSaveSingleImageEntry(folder, imageFile, jsonFile, currentUser);
-                resultVOs.add(savedImageVO);
-            } catch (Exception e) {
-                log.error("批量上传中处理文件 {} 失败: {}", imageFile.getOriginalFilename(), e.getMessage(), e);
-                throw new BusinessException(ErrorCode.OPERATION_ERROR, "处理文件 " + imageFile.getOriginalFilename() + " 失败: " + e.getMessage());
+                objectMapper.readTree(item.jsonContent);
+            } catch (IOException e) {
+                failItem(item, task, "标注文件不是合法的 JSON");
+                return item;
             }
         }
-        return resultVOs;
+        task.stageDone("parsed");
+        return item;
     }
 
-    private ImageVO processAndSaveSingleImageEntry(Folder folder, MultipartFile imageFile, MultipartFile jsonFile, User currentUser) {
-        String originalFilename = imageFile.getOriginalFilename();
+    /**
+     * 入库阶段：每张图片及其标注在独立的短事务中写入，单张失败不影响其他图片
+     */
+    private ImageVO persistStage(Folder folder, IngestItem item, User currentUser, BackgroundTask task) {
+        if (item.failed) {
+            imageBlobStore.discard(item.blob);
+            return null;
+        }
+        try {
+            Image image = transactionTemplate.execute(status -> {
+                // 内容相同的文件已存在时只增加引用计数，不再保存第二份
+                imageBlobStore.commit(item.blob);
+                Image entity = new Image();
+                entity.setFolderId(folder.getId());
+                entity.setOriginalFilename(item.imageFile.getOriginalFilename());
+                entity.setStoragePath(item.storagePath);
+                entity.setBlobHash(item.blob.getHash());
+                entity.setUploaderId(currentUser.getId());
+                entity.setFileSize(item.blob.getSize());
+                entity.setWidth(item.width);
+                entity.setHeight(item.height);
+                this.save(entity);
+                graphOutbox.createNodes(Collections.singletonList(buildNodeCreateRequest(folder, entity.getStoragePath())));
+                imageThumbnailManager.prewarmAfterCommit(entity);
+                if (item.jsonContent != null) {
+                    Annotation annotation = new Annotation();
+                    annotation.setImageId(entity.getId());
+                    annotation.setJsonContent(item.jsonContent);
+                    annotation.setLastEditorId(currentUser.getId());
+                    annotationService.save(annotation);
+                }
+                return entity;
+            });
+            task.stageDone("persisted");
+            task.itemSucceeded();
+            return ImageVO.fromEntity(image);
+        } catch (Exception e) {
+            log.error("批量上传任务 {} 中图片 {} 入库失败", task.getId(), item.storagePath, e);
+            imageBlobStore.discard(item.blob);
+            failItem(item, task, "图片信息入库失败");
+            return null;
+        }
+    }
+
+    private void failItem(IngestItem item, BackgroundTask task, String reason) {
+        item.failed = true;
+        task.itemFailed(item.imageFile.getOriginalFilename() + ": " + reason);
+    }
+
+    private String buildStoragePath(Folder folder, String originalFilename) {
         String uniqueFilenameSuffix = UUID.randomUUID().toString().substring(0, 8) + "-" + originalFilename;
         Path relativePath;
         switch (folder.getSpace()) {
@@ -121,29 +316,37 @@ public class ImageServiceImpl extends ServiceImpl<ImageMapper, Image> implements
                 relativePath = Paths.get("public", uniqueFilenameSuffix);
                 break;
         }
-        String storagePath = relativePath.toString().replace("\\", "/");
-        File destFile = new File(uploadDir, storagePath);
+        return relativePath.toString().replace("\\", "/");
+    }
+
+    private ImageVO processAndSaveSingleImageEntry(Folder folder, MultipartFile imageFile, MultipartFile jsonFile, User currentUser) {
+        String originalFilename = imageFile.getOriginalFilename();
+        String storagePath = buildStoragePath(folder, originalFilename);
+        StagedBlob blob;
         try {
-            Files.createDirectories(destFile.getParentFile().toPath());
-            imageFile.transferTo(destFile);
+            blob = imageBlobStore.stage(imageFile);
         } catch (IOException e) {
             log.error("文件保存失败, storagePath: {}", storagePath, e);
             throw new BusinessException(ErrorCode.SYSTEM_ERROR, "文件保存失败");
         }
+        Dimension dimension = imageMetadataProbe.probe(blob.getFile().toFile());
 
         Image image = new Image();
         try {
+            // 事务回滚时引用计数随之回滚，新放入且无人引用的文件在回滚后删除
+            imageBlobStore.commit(blob);
             image.setFolderId(folder.getId());
             image.setOriginalFilename(originalFilename);
             image.setStoragePath(storagePath);
+            image.setBlobHash(blob.getHash());
             image.setUploaderId(currentUser.getId());
-            image.setFileSize(imageFile.getSize());
-            BufferedImage bufferedImage = ImageIO.read(destFile);
-            if (bufferedImage != null) {
-                image.setWidth(bufferedImage.getWidth());
-                image.setHeight(bufferedImage.getHeight());
+            image.setFileSize(blob.getSize());
+            if (dimension != null) {
+                image.setWidth(dimension.width);
+                image.setHeight(dimension.height);
             }
             this.save(image);
+            imageThumbnailManager.prewarmAfterCommit(image);
 
             if (jsonFile != null) {
                 String jsonContent = new String(jsonFile.getBytes());
@@ -153,27 +356,36 @@ public class ImageServiceImpl extends ServiceImpl<ImageMapper, Image> implements
                 annotation.setLastEditorId(currentUser.getId());
                 annotationService.save(annotation);
             }
-
-            NodeCreateRequest nodeCreateRequest = new NodeCreateRequest();
-            nodeCreateRequest.setName(storagePath);
-            Map<String, Object> properties = new HashMap<>();
-            properties.put("space", folder.getSpace());
-            properties.put("ownerUserId", folder.getOwnerUserId());
-            properties.put("ownerOrganizationId", folder.getOwnerOrganizationId());
-            nodeCreateRequest.setProperties(properties);
-            String nodeName = graphService.createNode(nodeCreateRequest, currentUser);
-
-            // 成功创建节点后，触发关系自动创建
-            graphService.triggerAutoRelationshipCreation(nodeName);
-
         } catch (Exception e) {
-            rollbackFile(destFile);
+            imageBlobStore.discard(blob);
             log.error("图片处理或入库失败", e);
-            throw new BusinessException(ErrorCode.SYSTEM_ERROR, "图片信息入库或知识图谱节点创建失败");
+            throw new BusinessException(ErrorCode.SYSTEM_ERROR, "图片信息入库失败");
         }
+
         return ImageVO.fromEntity(image);
     }
 
+    /**
+     * 在当前事务中登记图片节点的创建：投递线程按分块 UNWIND ... MERGE 写入并对整批节点执行一次自动关联，
+     * 事务回滚时登记随之回滚，重放时 MERGE 保证不会重复建节点。
+     */
+    private void enqueueGraphNodeCreation(Folder folder, List<ImageVO> imageVOs) {
+        graphOutbox.createNodes(imageVOs.stream()
+                .map(vo -> buildNodeCreateRequest(folder, vo.getStoragePath()))
+                .collect(Collectors.toList()));
+    }
+
+    private NodeCreateRequest buildNodeCreateRequest(Folder folder, String storagePath) {
+        NodeCreateRequest nodeCreateRequest = new NodeCreateRequest();
+        nodeCreateRequest.setName(storagePath);
+        Map<String, Object> properties = new HashMap<>();
+        properties.put("space", folder.getSpace());
+        properties.put("ownerUserId", folder.getOwnerUserId());
+        properties.put("ownerOrganizationId", folder.getOwnerOrganizationId());
+        nodeCreateRequest.setProperties(properties);
+        return nodeCreateRequest;
+    }
+
 
     @Override
     @Transactional(rollbackFor = Exception.class)
@@ -183,24 +395,7 @@ public class ImageServiceImpl extends ServiceImpl<ImageMapper, Image> implements
             return;
         }
         permissionService.checkNodePermission(image.getStoragePath(), currentUser, PermissionEnum.WRITE);
-
-        boolean success = this.removeById(imageId);
-        if (!success) {
-            throw new BusinessException(ErrorCode.SYSTEM_ERROR, "删除图片数据库记录失败");
-        }
-
-        annotationService.remove(new QueryWrapper<Annotation>().eq("imageId", imageId));
-
-        try {
-            NodeDeleteRequest nodeDeleteRequest = new NodeDeleteRequest();
-            nodeDeleteRequest.setName(image.getStoragePath());
-            graphService.deleteNode(nodeDeleteRequest, currentUser);
-        } catch (Exception e) {
-            log.error("删除 Neo4j 节点失败，将回滚操作", e);
-            throw new BusinessException(ErrorCode.SYSTEM_ERROR, "删除知识图谱节点失败");
-        }
-
-        rollbackFile(new File(uploadDir, image.getStoragePath()));
+        deleteImageEntries(Collections.singletonList(image));
     }
 
     @Override
@@ -209,31 +404,169 @@ public class ImageServiceImpl extends ServiceImpl<ImageMapper, Image> implements
         if (request == null || request.getIds() == null || request.getIds().isEmpty()) {
             throw new BusinessException(ErrorCode.PARAMS_ERROR, "请求参数错误，未提供要删除的图片ID");
         }
-        for (String imageId : request.getIds()) {
-            this.deleteImage(imageId, currentUser);
+        List<String> ids = new ArrayList<>(new LinkedHashSet<>(request.getIds()));
+        List<Image> images = new ArrayList<>(ids.size());
+        for (int from = 0; from < ids.size(); from += DELETE_BATCH_SIZE) {
+            images.addAll(this.listByIds(ids.subList(from, Math.min(from + DELETE_BATCH_SIZE, ids.size()))));
         }
+        if (images.isEmpty()) {
+            return;
+        }
+        // 一次批量判定全部图片的写权限，任意一张无权限则整体拒绝
+        Map<String, Boolean> decisions = permissionService.checkAll(
+                images.stream().map(Image::getStoragePath).collect(Collectors.toList()), currentUser, PermissionEnum.WRITE);
+        long denied = decisions.values().stream().filter(allowed -> !allowed).count();
+        if (denied > 0) {
+            throw new BusinessException(ErrorCode.NO_AUTH_ERROR, "无权删除其中 " + denied + " 张图片");
+        }
+        deleteImageEntries(images);
     }
 
     @Override
-    public Page<ImageVO> listImagesByPage(ImageListRequest request, User currentUser) {
-        Folder folder = folderMapper.selectById(request.getFolderId());
-        if (folder == null || folder.getIsDelete() == 1) {
-            throw new BusinessException(ErrorCode.NOT_FOUND_ERROR, "文件夹不存在");
+    @Transactional(rollbackFor = Exception.class)
+    public int deleteImagesByFolder(String folderId) {
+        List<Image> images = this.list(new QueryWrapper<Image>()
+                .select("id", "storagePath", "blobHash", "fileSize")
+                .eq("folderId", folderId));
+        deleteImageEntries(images);
+        return images.size();
+    }
+
+    /**
+     * 按集合删除图片的数据库记录、标注、知识图谱节点和物理文件引用，权限需由调用方校验。
+     * 图片与标注按 IN 分批删除，图谱节点的删除登记到发件箱，引用计数按内容哈希合并扣减，
+     * 历史文件在事务提交后异步删除。
+     */
+    private void deleteImageEntries(List<Image> images) {
+        if (images.isEmpty()) {
+            return;
         }
-        permissionService.checkFolderPermission(folder, currentUser, PermissionEnum.READ);
+        List<String> imageIds = images.stream().map(Image::getId).collect(Collectors.toList());
+        List<String> storagePaths = images.stream().map(Image::getStoragePath).collect(Collectors.toList());
+        for (int from = 0; from < imageIds.size(); from += DELETE_BATCH_SIZE) {
+            List<String> chunk = imageIds.subList(from, Math.min(from + DELETE_BATCH_SIZE, imageIds.size()));
+            if (!this.removeByIds(chunk)) {
+                throw new BusinessException(ErrorCode.SYSTEM_ERROR, "删除图片数据库记录失败");
+            }
+            annotationService.remove(new QueryWrapper<Annotation>().in("imageId", chunk));
+        }
+        permissionCacheManager.evictNodes(storagePaths);
+        imageDownloadManager.evict(imageIds);
+        // 图谱节点的删除随本事务写入发件箱，Neo4j 暂时不可用时不影响删除请求
+        graphOutbox.deleteNodes(storagePaths);
+
+        // 内容寻址文件只减少引用计数，由回收任务在计数归零后删除
+        imageBlobStore.release(images);
+    }
+
+    @Override
+    public Page<ImageVO> listImagesByPage(ImageListRequest request, User currentUser) {
+        checkFolderReadable(request.getFolderId(), currentUser);
+        String prefix = request.getSearchKeyword();
         Page<Image> page = new Page<>(request.getCurrent(), request.getPageSize());
+        // 总数取自短时缓存，不再每翻一页都执行一次 COUNT(*)
+        page.setSearchCount(false);
         QueryWrapper<Image> queryWrapper = new QueryWrapper<>();
         queryWrapper.eq("folderId", request.getFolderId());
-        queryWrapper.like(StringUtils.isNotBlank(request.getSearchKeyword()), "originalFilename", request.getSearchKeyword());
-        queryWrapper.orderByDesc("createTime");
+        queryWrapper.likeRight(StringUtils.isNotBlank(prefix), "originalFilename", escapeLike(prefix));
+        queryWrapper.orderByDesc("createTime", "id");
         Page<Image> imagePage = this.page(page, queryWrapper);
-        Page<ImageVO> imageVOPage = new Page<>(imagePage.getCurrent(), imagePage.getSize(), imagePage.getTotal());
+        Page<ImageVO> imageVOPage = new Page<>(imagePage.getCurrent(), imagePage.getSize(),
+                countImages(request.getFolderId(), prefix));
         imageVOPage.setRecords(imagePage.getRecords().stream()
                 .map(ImageVO::fromEntity)
                 .collect(Collectors.toList()));
         return imageVOPage;
     }
 
+    @Override
+    public ImageCursorPageVO listImagesByCursor(ImageCursorListRequest request, User currentUser) {
+        if (request.getPageSize() <= 0 || request.getPageSize() > maxListPageSize) {
+            throw new BusinessException(ErrorCode.PARAMS_ERROR, "每页数量需在 1 到 " + maxListPageSize + " 之间");
+        }
+        checkFolderReadable(request.getFolderId(), currentUser);
+        String prefix = request.getSearchKeyword();
+        QueryWrapper<Image> queryWrapper = new QueryWrapper<>();
+        queryWrapper.eq("folderId", request.getFolderId());
+        queryWrapper.likeRight(StringUtils.isNotBlank(prefix), "originalFilename", escapeLike(prefix));
+        if (StringUtils.isNotBlank(request.getCursor())) {
+            // (createTime, id) 严格小于游标位置；外层的 createTime <= ? 让索引按范围扫描
+            Object[] position = decodeCursor(request.getCursor());
+            Date createTime = (Date) position[0];
+            String id = (String) position[1];
+            queryWrapper.le("createTime", createTime);
+            queryWrapper.and(w -> w.lt("createTime", createTime).or(o -> o.eq("createTime", createTime).lt("id", id)));
+        }
+        queryWrapper.orderByDesc("createTime", "id");
+        // 多取一条用于判断是否还有下一页
+        queryWrapper.last("LIMIT " + (request.getPageSize() + 1));
+        List<Image> images = this.list(queryWrapper);
+
+        ImageCursorPageVO result = new ImageCursorPageVO();
+        boolean hasMore = images.size() > request.getPageSize();
+        if (hasMore) {
+            images = images.subList(0, request.getPageSize());
+            Image last = images.get(images.size() - 1);
+            result.setNextCursor(encodeCursor(last.getCreateTime(), last.getId()));
+        }
+        result.setHasMore(hasMore);
+        result.setRecords(images.stream().map(ImageVO::fromEntity).collect(Collectors.toList()));
+        if (request.isWithTotal()) {
+            result.setTotal(countImages(request.getFolderId(), prefix));
+        }
+        return result;
+    }
+
+    private void checkFolderReadable(String folderId, User currentUser) {
+        Folder folder = folderMapper.selectById(folderId);
+        if (folder == null || folder.getIsDelete() == 1) {
+            throw new BusinessException(ErrorCode.NOT_FOUND_ERROR, "文件夹不存在");
+        }
+        permissionService.checkFolderPermission(folder, currentUser, PermissionEnum.READ);
+    }
+
+    /**
+     * 文件夹内（可按文件名前缀过滤）的图片总数，结果短时缓存，允许滞后于最新的上传与删除
+     */
+    private long countImages(String folderId, String prefix) {
+        String key = folderId + "|" + StringUtils.defaultString(prefix);
+        Long cached = imageCountCache.get(key, false);
+        if (cached != null) {
+            return cached;
+        }
+        QueryWrapper<Image> countWrapper = new QueryWrapper<>();
+        countWrapper.eq("folderId", folderId);
+        countWrapper.likeRight(StringUtils.isNotBlank(prefix), "originalFilename", escapeLike(prefix));
+        long count = this.count(countWrapper);
+        imageCountCache.put(key, count);
+        return count;
+    }
+
+    /**
+     * 转义 LIKE 通配符，保证关键字只作为前缀匹配，可以使用 (folderId, isDelete, originalFilename) 索引
+     */
+    private static String escapeLike(String keyword) {
+        if (keyword == null) {
+            return null;
+        }
+        return keyword.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+
+    private static String encodeCursor(Date createTime, String id) {
+        String raw = createTime.getTime() + ":" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static Object[] decodeCursor(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.indexOf(':');
+            return new Object[]{new Date(Long.parseLong(raw.substring(0, separator))), raw.substring(separator + 1)};
+        } catch (IllegalArgumentException | StringIndexOutOfBoundsException e) {
+            throw new BusinessException(ErrorCode.PARAMS_ERROR, "无效的分页游标");
+        }
+    }
+
     @Override
     public ImageVO getImageVOById(String imageId, User currentUser) {
         Image image = this.getById(imageId);
@@ -255,6 +588,8 @@ public class ImageServiceImpl extends ServiceImpl<ImageMapper, Image> implements
             image.setOriginalFilename(request.getOriginalFilename());
         }
         this.updateById(image);
+        // 文件名决定下载时的 Content-Type 与 Content-Disposition
+        imageDownloadManager.evict(image.getId());
         return ImageVO.fromEntity(image);
     }
 
@@ -277,35 +612,22 @@ public class ImageServiceImpl extends ServiceImpl<ImageMapper, Image> implements
         return ImageVO.fromEntity(image);
     }
 
-    @Override
-    public org.springframework.core.io.Resource downloadImage(String imageId, User currentUser) {
-        Image image = this.getById(imageId);
-        if (image == null) {
-            throw new BusinessException(ErrorCode.NOT_FOUND_ERROR, "图片不存在");
-        }
-        permissionService.checkNodePermission(image.getStoragePath(), currentUser, PermissionEnum.READ);
-        try {
-            Path filePath = Paths.get(uploadDir).resolve(image.getStoragePath()).normalize();
-            org.springframework.core.io.Resource resource = new UrlResource(filePath.toUri());
-            if (resource.exists() && resource.isReadable()) {
-                return resource;
-            } else {
-                log.error("物理文件不存在或不可读: {}", filePath);
-                throw new BusinessException(ErrorCode.NOT_FOUND_ERROR, "无法读取文件或文件不存在");
-            }
-        } catch (MalformedURLException e) {
-            log.error("文件路径URL格式错误: {}", image.getStoragePath(), e);
-            throw new BusinessException(ErrorCode.SYSTEM_ERROR, "文件路径格式错误");
-        }
-    }
+    /**
+     * 批量上传中的单个条目：一张图片及其可选的同名标注文件，在流水线各阶段之间传递
+     */
+    private static class IngestItem {
+        private final MultipartFile imageFile;
+        private final MultipartFile jsonFile;
+        private String storagePath;
+        private StagedBlob blob;
+        private String jsonContent;
+        private Integer width;
+        private Integer height;
+        private volatile boolean failed;
 
-    private void rollbackFile(File file) {
-        if (file != null && file.exists()) {
-            try {
-                Files.delete(file.toPath());
-            } catch (IOException e) {
-                log.error("回滚物理文件删除失败: {}", file.getAbsolutePath(), e);
-            }
+        private IngestItem(MultipartFile imageFile, MultipartFile jsonFile) {
+            this.imageFile = imageFile;
+            this.jsonFile = jsonFile;
         }
     }
 }
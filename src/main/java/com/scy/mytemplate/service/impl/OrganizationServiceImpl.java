@@ -5,6 +5,7 @@ import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
 import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
 import com.scy.mytemplate.common.ErrorCode;
 import com.scy.mytemplate.exception.BusinessException;
+import com.scy.mytemplate.manager.PermissionCacheManager;
 import com.scy.mytemplate.mapper.OrganizationMapper;
 import com.scy.mytemplate.mapper.OrganizationMemberMapper;
 import com.scy.mytemplate.mapper.UserMapper;
@@ -37,6 +38,9 @@ public class OrganizationServiceImpl extends ServiceImpl<OrganizationMapper, Org
     @Resource
     private OrganizationMemberMapper memberMapper;
 
+    @Resource
+    private PermissionCacheManager permissionCacheManager;
+
     @Override
     @Transactional
     public OrganizationVO createOrganization(OrganizationCreateRequest request, User currentUser) {
@@ -96,6 +100,7 @@ public class OrganizationServiceImpl extends ServiceImpl<OrganizationMapper, Org
 
         // 1. 删除组织下的所有成员关系
         memberMapper.delete(new QueryWrapper<OrganizationMember>().eq("organizationId", organizationId));
+        permissionCacheManager.evictOrganization(organizationId);
 
         // 2. 逻辑删除组织本身
         // 实际项目中，还需处理组织下的文件夹、文件等资源，此处简化
@@ -129,6 +134,7 @@ public class OrganizationServiceImpl extends ServiceImpl<OrganizationMapper, Org
         newMember.setUserId(invitee.getId());
         newMember.setRoleInOrg(request.getRoleInOrg()); // 'admin' or 'member'
         memberMapper.insert(newMember);
+        permissionCacheManager.evictMember(invitee.getId(), orgId);
     }
 
     @Override
@@ -152,6 +158,7 @@ public class OrganizationServiceImpl extends ServiceImpl<OrganizationMapper, Org
         QueryWrapper<OrganizationMember> queryWrapper = new QueryWrapper<>();
         queryWrapper.eq("organizationId", orgId).eq("userId", memberUserId);
         memberMapper.delete(queryWrapper);
+        permissionCacheManager.evictMember(memberUserId, orgId);
     }
 
     @Override
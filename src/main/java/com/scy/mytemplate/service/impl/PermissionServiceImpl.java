@@ -3,23 +3,28 @@ package com.scy.mytemplate.service.impl;
 
 import com.scy.mytemplate.common.ErrorCode;
 import com.scy.mytemplate.exception.BusinessException;
-import com.scy.mytemplate.mapper.FolderMapper;
-import com.scy.mytemplate.mapper.ImageMapper;
-import com.scy.mytemplate.mapper.OrganizationMemberMapper;
+import com.scy.mytemplate.manager.PermissionCacheManager;
 import com.scy.mytemplate.model.entity.Folder;
-import com.scy.mytemplate.model.entity.Image;
 import com.scy.mytemplate.model.entity.User;
 import com.scy.mytemplate.model.enums.PermissionEnum;
 import com.scy.mytemplate.model.enums.UserRoleEnum;
 import com.scy.mytemplate.service.PermissionService;
-import org.apache.commons.lang3.StringUtils;
 import org.springframework.stereotype.Service;
 
 import javax.annotation.Resource;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 /**
  * 权限校验服务实现。
  * 封装了系统中所有关于文件夹和节点访问权限的判断逻辑。
+ * 节点归属、文件夹归属和组织角色均通过 {@link PermissionCacheManager} 读取。
  *
  * @author Bedrock
  */
@@ -27,11 +32,7 @@ import javax.annotation.Resource;
 public class PermissionServiceImpl implements PermissionService {
 
     @Resource
-    private ImageMapper imageMapper;
-    @Resource
-    private FolderMapper folderMapper;
-    @Resource
-    private OrganizationMemberMapper memberMapper;
+    private PermissionCacheManager permissionCacheManager;
 
     @Override
     public void checkNodePermission(String nodeName, User user, PermissionEnum requiredPermission) {
@@ -43,11 +44,11 @@ public class PermissionServiceImpl implements PermissionService {
             return;
         }
 
-        Image image = imageMapper.findByStoragePath(nodeName);
-        if (image == null) {
+        String folderId = permissionCacheManager.getFolderIdByStoragePath(nodeName);
+        if (folderId == null) {
             throw new BusinessException(ErrorCode.NOT_FOUND_ERROR, "资源不存在或已被删除: " + nodeName);
         }
-        Folder folder = folderMapper.selectById(image.getFolderId());
+        Folder folder = permissionCacheManager.getFolder(folderId);
         if (folder == null) {
             throw new BusinessException(ErrorCode.NOT_FOUND_ERROR, "资源所属的文件夹不存在");
         }
@@ -64,31 +65,95 @@ public class PermissionServiceImpl implements PermissionService {
             return;
         }
 
+        String roleInOrg = "organization_public".equals(folder.getSpace())
+                ? permissionCacheManager.getRoleInOrg(user.getId(), folder.getOwnerOrganizationId())
+                : null;
+        String denyReason = evaluateFolderPermission(folder, user, roleInOrg, requiredPermission);
+        if (denyReason != null) {
+            throw new BusinessException(ErrorCode.NO_AUTH_ERROR, denyReason);
+        }
+    }
+
+    @Override
+    public Map<String, Boolean> checkAll(Collection<String> storagePaths, User user, PermissionEnum requiredPermission) {
+        if (user == null) {
+            throw new BusinessException(ErrorCode.NOT_LOGIN_ERROR);
+        }
+        Map<String, Boolean> decisions = new LinkedHashMap<>();
+        if (storagePaths == null || storagePaths.isEmpty()) {
+            return decisions;
+        }
+        // 平台管理员拥有所有权限，直接放行
+        if (UserRoleEnum.ADMIN.getValue().equals(user.getUserRole())) {
+            storagePaths.forEach(path -> decisions.put(path, true));
+            return decisions;
+        }
+
+        Map<String, String> folderIdByPath = permissionCacheManager.getFolderIdsByStoragePaths(storagePaths);
+        Map<String, Folder> folders = permissionCacheManager.getFolders(new HashSet<>(folderIdByPath.values()));
+        Set<String> orgIds = folders.values().stream()
+                .filter(folder -> "organization_public".equals(folder.getSpace()))
+                .map(Folder::getOwnerOrganizationId)
+                .collect(Collectors.toSet());
+        Map<String, String> roles = orgIds.isEmpty() ? Map.of() : permissionCacheManager.getRolesInOrgs(user.getId(), orgIds);
+
+        // 同一文件夹下的节点判定结果相同，只计算一次
+        Map<String, Boolean> folderDecisions = new LinkedHashMap<>();
+        for (String path : storagePaths) {
+            String folderId = folderIdByPath.get(path);
+            Folder folder = folderId == null ? null : folders.get(folderId);
+            if (folder == null) {
+                decisions.put(path, false);
+                continue;
+            }
+            boolean allowed = folderDecisions.computeIfAbsent(folderId, id ->
+                    evaluateFolderPermission(folder, user, roles.get(folder.getOwnerOrganizationId()), requiredPermission) == null);
+            decisions.put(path, allowed);
+        }
+        return decisions;
+    }
+
+    @Override
+    public List<String> filterReadable(Collection<String> storagePaths, User user) {
+        List<String> readable = new ArrayList<>();
+        checkAll(storagePaths, user, PermissionEnum.READ).forEach((path, allowed) -> {
+            if (allowed) {
+                readable.add(path);
+            }
+        });
+        return readable;
+    }
+
+    /**
+     * 按空间类型判断用户对文件夹的权限（不含平台管理员判断）。
+     *
+     * @param roleInOrg 用户在文件夹所属组织内的角色，仅组织空间需要，不是成员时为 null
+     * @return 无权限时返回原因，有权限时返回 null
+     */
+    private String evaluateFolderPermission(Folder folder, User user, String roleInOrg, PermissionEnum requiredPermission) {
         switch (folder.getSpace()) {
             case "platform_public":
                 // 平台公共空间：所有人可读，但只有平台管理员可写（已在上一层管理员判断中处理）
                 if (requiredPermission == PermissionEnum.WRITE) {
-                    throw new BusinessException(ErrorCode.NO_AUTH_ERROR, "无权修改平台公共空间内容");
+                    return "无权修改平台公共空间内容";
                 }
-                break;
+                return null;
             case "organization_public":
-                String orgId = folder.getOwnerOrganizationId();
-                String roleInOrg = memberMapper.findUserRoleInOrg(user.getId(), orgId);
                 if (roleInOrg == null) {
-                    throw new BusinessException(ErrorCode.NO_AUTH_ERROR, "您不属于该组织，无权访问");
+                    return "您不属于该组织，无权访问";
                 }
                 // 组织公共空间：组织成员可读，但只有组织管理员可写
                 if (requiredPermission == PermissionEnum.WRITE && !"admin".equals(roleInOrg)) {
-                    throw new BusinessException(ErrorCode.NO_AUTH_ERROR, "您不是组织管理员，无权修改此内容");
+                    return "您不是组织管理员，无权修改此内容";
                 }
-                break;
+                return null;
             case "user_public":
             case "user_private":
                 // 个人空间（公共/私有）：只有文件夹拥有者有全部权限
                 if (!folder.getOwnerUserId().equals(user.getId())) {
-                    throw new BusinessException(ErrorCode.NO_AUTH_ERROR, "无权访问他人的个人空间");
+                    return "无权访问他人的个人空间";
                 }
-                break;
+                return null;
             default:
                 throw new BusinessException(ErrorCode.SYSTEM_ERROR, "未知的空间类型，权限检查失败");
         }
@@ -103,7 +168,7 @@ public class PermissionServiceImpl implements PermissionService {
         if (UserRoleEnum.ADMIN.getValue().equals(user.getUserRole())) {
             return;
         }
-        String roleInOrg = memberMapper.findUserRoleInOrg(user.getId(), organizationId);
+        String roleInOrg = permissionCacheManager.getRoleInOrg(user.getId(), organizationId);
         if (!"admin".equals(roleInOrg)) {
             throw new BusinessException(ErrorCode.NO_AUTH_ERROR, "您不是该组织的管理员");
         }
@@ -8,6 +8,7 @@ import com.scy.mytemplate.common.ErrorCode;
 import com.scy.mytemplate.constant.CommonConstant;
 import com.scy.mytemplate.constant.UserConstant;
 import com.scy.mytemplate.exception.BusinessException;
+import com.scy.mytemplate.manager.LoginUserCache;
 import com.scy.mytemplate.mapper.OrganizationMapper;
 import com.scy.mytemplate.mapper.UserMapper;
 import com.scy.mytemplate.model.dto.user.UserQueryRequest;
@@ -27,6 +28,7 @@ import org.springframework.util.DigestUtils;
 
 import javax.annotation.Resource;
 import javax.servlet.http.HttpServletRequest;
+import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.stream.Collectors;
@@ -49,6 +51,9 @@ public class UserServiceImpl extends ServiceImpl<UserMapper, User> implements Us
     @Resource
     private OrganizationMapper organizationMapper;
 
+    @Resource
+    private LoginUserCache loginUserCache;
+
     @Override
     public String userRegister(String userAccount, String userPassword, String checkPassword) {
         // 1. 校验输入参数
@@ -164,8 +169,8 @@ public class UserServiceImpl extends ServiceImpl<UserMapper, User> implements Us
         if (currentUser == null || currentUser.getId() == null) {
             throw new BusinessException(ErrorCode.NOT_LOGIN_ERROR);
         }
-        // 从数据库重新获取最新信息，防止信息过时
-        return this.getById(currentUser.getId());
+        // 获取最新信息，防止会话中的信息过时；同一请求内只查询一次，跨请求短时缓存
+        return loginUserCache.get(request, currentUser.getId(), this::getById);
     }
 
     @Override
@@ -175,7 +180,24 @@ public class UserServiceImpl extends ServiceImpl<UserMapper, User> implements Us
         if (currentUser == null || currentUser.getId() == null) {
             return null;
         }
-        return this.getById(currentUser.getId());
+        return loginUserCache.get(request, currentUser.getId(), this::getById);
+    }
+
+    /**
+     * 修改用户信息（包括封号、角色变更）后清除登录用户缓存
+     */
+    @Override
+    public boolean updateById(User user) {
+        boolean result = super.updateById(user);
+        loginUserCache.invalidate(user.getId());
+        return result;
+    }
+
+    @Override
+    public boolean removeById(Serializable id) {
+        boolean result = super.removeById(id);
+        loginUserCache.invalidate(id == null ? null : id.toString());
+        return result;
     }
 
     @Override
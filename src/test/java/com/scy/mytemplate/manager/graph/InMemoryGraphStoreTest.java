@@ -0,0 +1,219 @@
+// FILE: src/test/java/com/scy/mytemplate/manager/graph/InMemoryGraphStoreTest.java
+package com.scy.mytemplate.manager.graph;
+
+import com.scy.mytemplate.exception.BusinessException;
+import com.scy.mytemplate.model.vo.CursorPageVO;
+import com.scy.mytemplate.model.vo.GraphAdjacencyVO;
+import com.scy.mytemplate.model.vo.GraphEdgeVO;
+import com.scy.mytemplate.model.vo.NodeVO;
+import com.scy.mytemplate.model.vo.RelationshipVO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * {@link InMemoryGraphStore} 的游标分页与子图查询测试。
+ * 图谱：a -> b -> c -> d 一条链，外加 a -> c 的 REFERS 捷径和 b -> x；x 是用户 u1 的私有节点，其余为平台公共节点。
+ *
+ * @author Bedrock
+ */
+class InMemoryGraphStoreTest {
+
+    private static final GraphVisibility OTHER_USER = GraphVisibility.of("u2", Collections.emptyList());
+
+    private InMemoryGraphStore store;
+
+    @BeforeEach
+    void setUp() {
+        store = new InMemoryGraphStore();
+        for (String name : List.of("a", "b", "c", "d")) {
+            store.createNode(name, Map.of("space", GraphVisibility.SPACE_PLATFORM_PUBLIC));
+        }
+        store.createNode("x", Map.of("space", GraphVisibility.SPACE_USER_PRIVATE, "ownerUserId", "u1"));
+        store.createRelationship("c", "d", "NEXT", Collections.emptyMap());
+        store.createRelationship("a", "b", "NEXT", Collections.emptyMap());
+        store.createRelationship("b", "c", "NEXT", Collections.emptyMap());
+        store.createRelationship("a", "c", "REFERS", Collections.emptyMap());
+        store.createRelationship("b", "x", "NEXT", Collections.emptyMap());
+    }
+
+    // region 关系游标分页
+
+    @Test
+    void pageRelationshipsWalksAllRelationshipsOrderedByStartNode() {
+        List<String> seen = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            CursorPageVO<RelationshipVO> page = store.pageRelationships(GraphVisibility.all(), cursor, 2);
+            assertThat(page.getRecords()).hasSizeLessThanOrEqualTo(2);
+            page.getRecords().forEach(relationship -> seen.add(describe(relationship)));
+            assertThat(page.isHasMore()).isEqualTo(page.getNextCursor() != null);
+            cursor = page.getNextCursor();
+            pages++;
+        } while (cursor != null);
+
+        // 同一起点的关系按创建顺序（关系ID）排列
+        assertThat(seen).containsExactly("a-NEXT->b", "a-REFERS->c", "b-NEXT->c", "b-NEXT->x", "c-NEXT->d");
+        assertThat(pages).isEqualTo(3);
+    }
+
+    @Test
+    void pageRelationshipsSkipsRelationshipsTouchingInvisibleNodes() {
+        CursorPageVO<RelationshipVO> page = store.pageRelationships(OTHER_USER, null, 10);
+
+        assertThat(describeAll(page)).containsExactly("a-NEXT->b", "a-REFERS->c", "b-NEXT->c", "c-NEXT->d");
+        assertThat(page.isHasMore()).isFalse();
+        assertThat(page.getNextCursor()).isNull();
+    }
+
+    @Test
+    void pageRelationshipsReturnsEmptyPageWhenNothingIsVisible() {
+        InMemoryGraphStore privateStore = new InMemoryGraphStore();
+        privateStore.createNode("p", Map.of("space", GraphVisibility.SPACE_USER_PRIVATE, "ownerUserId", "u1"));
+        privateStore.createNode("q", Map.of("space", GraphVisibility.SPACE_USER_PRIVATE, "ownerUserId", "u1"));
+        privateStore.createRelationship("p", "q", "NEXT", Collections.emptyMap());
+
+        CursorPageVO<RelationshipVO> page = privateStore.pageRelationships(OTHER_USER, null, 10);
+
+        assertThat(page.getRecords()).isEmpty();
+        assertThat(page.isHasMore()).isFalse();
+        assertThat(page.getNextCursor()).isNull();
+    }
+
+    @Test
+    void pageRelationshipsReturnsEmptyPageWhenCursorIsPastTheEnd() {
+        CursorPageVO<RelationshipVO> first = store.pageRelationships(GraphVisibility.all(), null, 4);
+        assertThat(first.getNextCursor()).isNotNull();
+        // 游标之后仅剩的关系在翻页之间被删除
+        store.deleteRelationship("c", "d", "NEXT");
+
+        CursorPageVO<RelationshipVO> next = store.pageRelationships(GraphVisibility.all(), first.getNextCursor(), 4);
+
+        assertThat(next.getRecords()).isEmpty();
+        assertThat(next.getNextCursor()).isNull();
+    }
+
+    @Test
+    void pageRelationshipsPicksUpRelationshipsAddedAfterTheCursor() {
+        CursorPageVO<RelationshipVO> first = store.pageRelationships(GraphVisibility.all(), null, 2);
+        // 翻页之间为游标所在起点新增的关系排在游标之后，出现在后续页面中，已返回的关系不会重复
+        store.createRelationship("a", "d", "REFERS", Collections.emptyMap());
+
+        CursorPageVO<RelationshipVO> next = store.pageRelationships(GraphVisibility.all(), first.getNextCursor(), 10);
+
+        assertThat(describeAll(next)).containsExactly("a-REFERS->d", "b-NEXT->c", "b-NEXT->x", "c-NEXT->d");
+    }
+
+    @Test
+    void pageRelationshipsRejectsMalformedCursor() {
+        assertThatThrownBy(() -> store.pageRelationships(GraphVisibility.all(), "%%%", 10))
+                .isInstanceOf(BusinessException.class)
+                .hasMessageContaining("游标格式错误");
+    }
+
+    // endregion
+
+    // region 邻域与最短路径
+
+    @Test
+    void neighborhoodExpandsByDepthInBothDirections() {
+        GraphAdjacencyVO oneHop = store.neighborhood(GraphVisibility.all(), "b", 1, Collections.emptyList(), 100, 100);
+        assertThat(names(oneHop)).containsExactlyInAnyOrder("b", "a", "c", "x");
+        assertThat(oneHop.getEdges()).hasSize(3);
+        assertThat(oneHop.isTruncated()).isFalse();
+
+        GraphAdjacencyVO twoHops = store.neighborhood(GraphVisibility.all(), "b", 2, Collections.emptyList(), 100, 100);
+        assertThat(names(twoHops)).containsExactlyInAnyOrder("b", "a", "c", "x", "d");
+        assertThat(edges(twoHops)).containsExactlyInAnyOrder("a-NEXT->b", "b-NEXT->c", "b-NEXT->x", "a-REFERS->c", "c-NEXT->d");
+    }
+
+    @Test
+    void neighborhoodAppliesVisibilityAndTypeFilter() {
+        GraphAdjacencyVO visible = store.neighborhood(OTHER_USER, "b", 1, Collections.emptyList(), 100, 100);
+        assertThat(names(visible)).containsExactlyInAnyOrder("b", "a", "c");
+
+        GraphAdjacencyVO refersOnly = store.neighborhood(GraphVisibility.all(), "a", 2, List.of("REFERS"), 100, 100);
+        assertThat(names(refersOnly)).containsExactlyInAnyOrder("a", "c");
+
+        assertThat(store.neighborhood(OTHER_USER, "x", 1, Collections.emptyList(), 100, 100)).isNull();
+        assertThat(store.neighborhood(GraphVisibility.all(), "missing", 1, Collections.emptyList(), 100, 100)).isNull();
+    }
+
+    @Test
+    void neighborhoodMarksTruncatedWhenLimitsAreHit() {
+        GraphAdjacencyVO limitedNodes = store.neighborhood(GraphVisibility.all(), "b", 1, Collections.emptyList(), 2, 100);
+        assertThat(limitedNodes.getNodes()).hasSize(2);
+        assertThat(limitedNodes.isTruncated()).isTrue();
+
+        GraphAdjacencyVO limitedEdges = store.neighborhood(GraphVisibility.all(), "b", 2, Collections.emptyList(), 100, 2);
+        assertThat(limitedEdges.getEdges()).hasSize(2);
+        assertThat(limitedEdges.isTruncated()).isTrue();
+    }
+
+    @Test
+    void shortestPathPrefersFewestHops() {
+        GraphAdjacencyVO path = store.shortestPath(GraphVisibility.all(), "a", "d", 5, Collections.emptyList());
+
+        assertThat(names(path)).containsExactly("a", "c", "d");
+        assertThat(edges(path)).containsExactly("a-REFERS->c", "c-NEXT->d");
+    }
+
+    @Test
+    void shortestPathFollowsRelationshipsAgainstTheirDirection() {
+        GraphAdjacencyVO path = store.shortestPath(GraphVisibility.all(), "d", "b", 5, Collections.emptyList());
+
+        assertThat(names(path)).containsExactly("d", "c", "b");
+    }
+
+    @Test
+    void shortestPathRespectsTypeFilterAndMaxLength() {
+        GraphAdjacencyVO nextOnly = store.shortestPath(GraphVisibility.all(), "a", "d", 5, List.of("NEXT"));
+        assertThat(names(nextOnly)).containsExactly("a", "b", "c", "d");
+
+        GraphAdjacencyVO tooShort = store.shortestPath(GraphVisibility.all(), "a", "d", 2, List.of("NEXT"));
+        assertThat(tooShort.getNodes()).isEmpty();
+        assertThat(tooShort.getEdges()).isEmpty();
+    }
+
+    @Test
+    void shortestPathDoesNotReachInvisibleNodes() {
+        assertThat(store.shortestPath(OTHER_USER, "a", "x", 5, Collections.emptyList())).isNull();
+
+        GraphAdjacencyVO visible = store.shortestPath(GraphVisibility.of("u1", Collections.emptyList()), "a", "x", 5,
+                Collections.emptyList());
+        assertThat(names(visible)).containsExactly("a", "b", "x");
+    }
+
+    // endregion
+
+    private String describe(RelationshipVO relationship) {
+        return relationship.getFromNode() + "-" + relationship.getName() + "->" + relationship.getToNode();
+    }
+
+    private List<String> describeAll(CursorPageVO<RelationshipVO> page) {
+        return page.getRecords().stream().map(this::describe).collect(Collectors.toList());
+    }
+
+    private List<String> edges(GraphAdjacencyVO graph) {
+        List<String> edges = new ArrayList<>();
+        for (GraphEdgeVO edge : graph.getEdges()) {
+            edges.add(graph.getNodes().get(edge.getSource()).getName() + "-" + edge.getType() + "->"
+                    + graph.getNodes().get(edge.getTarget()).getName());
+        }
+        return edges;
+    }
+
+    private List<String> names(GraphAdjacencyVO graph) {
+        return graph.getNodes().stream().map(NodeVO::getName).collect(Collectors.toList());
+    }
+}
+// END OF FILE: src/test/java/com/scy/mytemplate/manager/graph/InMemoryGraphStoreTest.java